@@ -0,0 +1,17 @@
+package bench;
+
+/**
+ * Resource of the request execution benchmark, standing for a handler that waits on a
+ * repository or a downstream service.
+ */
+public class Blocking {
+    // Latency of the simulated blocking call, in milliseconds.
+    static final long LATENCY = 20;
+
+    // GET /bench/blocking
+    public String get() throws InterruptedException {
+        Thread.sleep(LATENCY);
+
+        return "done";
+    }
+}
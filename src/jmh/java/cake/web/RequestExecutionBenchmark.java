@@ -0,0 +1,103 @@
+package cake.web;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cake.web.configuration.CakeWebConfig;
+
+/**
+ * Compares the throughput of the embedded Tomcat running requests on its platform thread pool
+ * and on virtual threads, with {@value #CONNECTIONS} concurrent connections to a resource that
+ * blocks for 20 ms ({@code bench.Blocking}).
+ *
+ * <p>Each invocation sends {@value #CONNECTIONS} requests at once and waits for all the
+ * answers; the score is in requests per second.</p>
+ *
+ * <p>Run: {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=RequestExecutionBenchmark}.
+ * Ten thousand connections need a file descriptor limit above that ({@code ulimit -n}).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class RequestExecutionBenchmark {
+    static final int CONNECTIONS = 10_000;
+    private static final int PORT = 18080;
+
+    @Param({ "platform", "virtual" })
+    public String threads;
+
+    private Tomcat tomcat;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        CakeWebConfig config = new CakeWebConfig();
+        config.setPort(PORT);
+        config.setBaseDir(Files.createTempDirectory("cake-web-bench").toString());
+        config.setVirtualThreads("virtual".equals(threads));
+
+        // Accept all the connections at once, the pool (or virtual threads) is what is compared.
+        config.getConnector().setMaxConnections(CONNECTIONS);
+        config.getConnector().setAcceptCount(CONNECTIONS);
+
+        tomcat = CakeWebApplication.start(config);
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(clientExecutor)
+            .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/bench/blocking")).GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws LifecycleException {
+        client.close();
+        clientExecutor.close();
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONNECTIONS)
+    public int concurrentRequests() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[CONNECTIONS];
+
+        for (int i = 0; i < CONNECTIONS; i++) {
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+
+        CompletableFuture.allOf(responses).join();
+
+        return responses.length;
+    }
+}
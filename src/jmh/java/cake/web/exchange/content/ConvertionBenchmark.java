@@ -0,0 +1,173 @@
+package cake.web.exchange.content;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the single-pass classifier and the positional parsers of {@link Convertion} with the
+ * former implementation, based on {@link String#matches(String)} and the generic parse methods.
+ *
+ * <p>Run: {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ConvertionBenchmark}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertionBenchmark {
+    // Path tokens as they come from the URI, with the type of the method parameter they bind to.
+    private static final String[] VALUES = {
+        "123",
+        "-9876543210",
+        "123.45",
+        "14:30:45",
+        "2024-05-15",
+        "2024-05-15T14:30:45",
+        "2024-05-15T14:30:45-03:00",
+        "550e8400-e29b-41d4-a716-446655440000",
+        "true",
+        "customer"
+    };
+
+    private static final Class<?>[] TARGETS = {
+        Integer.class,
+        Long.class,
+        Double.class,
+        LocalTime.class,
+        LocalDate.class,
+        LocalDateTime.class,
+        OffsetDateTime.class,
+        UUID.class,
+        Boolean.class,
+        String.class
+    };
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void classifyWithRegex(Blackhole blackhole) {
+        for (String value : VALUES) {
+            blackhole.consume(RegexConvertion.kindOfParamType(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void classifyWithScanner(Blackhole blackhole) {
+        for (String value : VALUES) {
+            blackhole.consume(Convertion.classify(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void convertWithRegex(Blackhole blackhole) {
+        for (int i = 0; i < VALUES.length; i++) {
+            blackhole.consume(RegexConvertion.convert(VALUES[i], TARGETS[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public void convertWithScanner(Blackhole blackhole) {
+        for (int i = 0; i < VALUES.length; i++) {
+            blackhole.consume(Convertion.convert(VALUES[i], TARGETS[i]));
+        }
+    }
+
+    /**
+     * The former implementation of the classification and the conversion, kept as the baseline.
+     */
+    static final class RegexConvertion {
+        private static final String INTEGER_REGEX = "^-?\\d+$";
+        private static final String FLOATING_POINT_REGEX = "^-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?$";
+        private static final String LOCAL_TIME_REGEX = "^\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?$";
+        private static final String LOCAL_DATE_REGEX = "^\\d{4}-\\d{2}-\\d{2}$";
+        private static final String LOCAL_DATE_TIME_REGEX = "^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?$";
+        private static final String OFFSET_DATE_TIME_REGEX = "^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?([+-]\\d{2}:\\d{2}|Z)$";
+        private static final String OFFSET_TIME_REGEX = "^\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?([+-]\\d{2}:\\d{2}|Z)$";
+        private static final String ZONED_DATE_TIME_REGEX = "^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?([+-]\\d{2}:\\d{2}|Z)(\\[.*\\])?$";
+        private static final String UUID_REGEX = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$";
+
+        private RegexConvertion() {
+            // static class
+        }
+
+        static String kindOfParamType(String value) {
+            if (value.matches(INTEGER_REGEX)) return "integer";
+            if (value.matches(FLOATING_POINT_REGEX)) return "floating-point";
+            if (value.matches(LOCAL_TIME_REGEX)) return "java.time.LocalTime";
+            if (value.matches(OFFSET_DATE_TIME_REGEX)) return "java.time.OffsetDateTime";
+            if (value.matches(OFFSET_TIME_REGEX)) return "java.time.OffsetTime";
+            if (value.matches(ZONED_DATE_TIME_REGEX)) return "java.time.ZonedDateTime";
+            if (value.matches(UUID_REGEX)) return "java.util.UUID";
+            if ("true".equals(value.toLowerCase().trim()) || "false".equals(value.toLowerCase().trim())) return "boolean";
+
+            return "string";
+        }
+
+        static Object convert(String value, Class<?> targetType) {
+            Object result = null;
+
+            if (value.matches(INTEGER_REGEX) || value.matches(FLOATING_POINT_REGEX)) {
+                result = value.matches(INTEGER_REGEX) ? toInteger(value, targetType) : toFloatPoint(value, targetType);
+            } else if (value.matches(LOCAL_TIME_REGEX) ||
+                value.matches(LOCAL_DATE_REGEX) ||
+                value.matches(LOCAL_DATE_TIME_REGEX) ||
+                value.matches(OFFSET_DATE_TIME_REGEX) ||
+                value.matches(OFFSET_TIME_REGEX) ||
+                value.matches(ZONED_DATE_TIME_REGEX))
+            {
+                result = toDateTime(value, targetType);
+            } else if (("true".equals(value.toLowerCase().trim()) || "false".equals(value.toLowerCase().trim())) && targetType == Boolean.class) {
+                result = Boolean.valueOf(value.toLowerCase().trim());
+            } else if (value.matches(UUID_REGEX) && targetType == UUID.class) {
+                result = UUID.fromString(value);
+            }
+
+            return (result != null) ? result : value;
+        }
+
+        private static Object toInteger(String value, Class<?> targetType) {
+            if (targetType == Integer.class) return Integer.valueOf(value);
+            if (targetType == Long.class) return Long.valueOf(value);
+
+            return null;
+        }
+
+        private static Object toFloatPoint(String value, Class<?> targetType) {
+            if (targetType == Double.class) return Double.valueOf(value);
+
+            return null;
+        }
+
+        private static Object toDateTime(String value, Class<?> targetType) {
+            if (targetType == LocalTime.class) return LocalTime.parse(value);
+            if (targetType == LocalDate.class) return LocalDate.parse(value);
+            if (targetType == LocalDateTime.class) return LocalDateTime.parse(value);
+            if (targetType == OffsetDateTime.class) return OffsetDateTime.parse(value);
+            if (targetType == OffsetTime.class) return OffsetTime.parse(value);
+            if (targetType == ZonedDateTime.class) return ZonedDateTime.parse(value);
+
+            return null;
+        }
+    }
+}
@@ -5,9 +5,17 @@ import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
 import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http2.Http2Protocol;
+import org.apache.tomcat.util.net.SSLHostConfig;
+import org.apache.tomcat.util.net.SSLHostConfigCertificate;
 
 import cake.web.configuration.CakeWebConfig;
+import cake.web.configuration.ConnectorConfig;
+import cake.web.configuration.Http2Config;
+import cake.web.configuration.TlsConfig;
 
 /**
  * Main entry point for the Cake Web application.
@@ -43,32 +51,135 @@ public class CakeWebApplication {
     }
 
     /**
-     * Configure and start the embedded Tomcat server.
+     * Start the embedded Tomcat server and wait until it is stopped.
      *
      * @param config application configuration settings
      * @throws LifecycleException if Tomcat fails to start
      */
     private static void startTomcat(CakeWebConfig config) throws LifecycleException {
+        Tomcat tomcat = start(config);
+
+        logger.info("🚀 Cake-Web started at " + tomcat.getServer().getAddress() + ":" + config.getPort() + config.getContextPath());
+
+        tomcat.getServer().await();
+    }
+
+    /**
+     * Configure and start the embedded Tomcat server, without waiting for it.
+     *
+     * @param config application configuration settings
+     * @return the started server
+     * @throws LifecycleException if Tomcat fails to start
+     */
+    static Tomcat start(CakeWebConfig config) throws LifecycleException {
         Tomcat tomcat = new Tomcat();
 
         tomcat.setPort(config.getPort());
         tomcat.setBaseDir(config.getBaseDir());
 
         // Initialize the connector before creating the context.
-        tomcat.getConnector();
+        Connector connector = createConnector(tomcat, config);
+
+        // Run each request on its own virtual thread instead of the platform thread pool.
+        if (config.isVirtualThreads()) {
+            connector.setProperty("useVirtualThreads", "true");
+        }
 
         String docBase = new File(".").getAbsolutePath();
         var ctx = tomcat.addContext(config.getContextPath(), docBase);
 
+        // Resources are looked up in the class loader of the application, not the system one.
+        ctx.setParentClassLoader(Thread.currentThread().getContextClassLoader());
+
         // Register the root servlet and map it to all incoming requests.
-        Tomcat.addServlet(ctx, "cake", RootServlet.class.getName());
+        // Async support lets resources returning a CompletionStage release the container thread.
+        Wrapper wrapper = Tomcat.addServlet(ctx, "cake", new RootServlet(config));
+        wrapper.setAsyncSupported(true);
         ctx.addServletMappingDecoded("/*", "cake");
         
         tomcat.start();
 
-        logger.info("🚀 Cake-Web started at " + tomcat.getServer().getAddress() + ":" + config.getPort() + config.getContextPath());
+        return tomcat;
+    }
 
-        tomcat.getServer().await();
+    /**
+     * Create the HTTP connector with the protocol handler and the tuning of the configuration.
+     *
+     * @param tomcat the server
+     * @param config application configuration settings
+     * @return the connector of the server
+     * @throws IllegalArgumentException if Tomcat does not know a connector setting
+     */
+    private static Connector createConnector(Tomcat tomcat, CakeWebConfig config) {
+        ConnectorConfig connectorConfig = config.getConnector();
+        Connector connector;
+
+        if (connectorConfig.getProtocol() == null) {
+            connector = tomcat.getConnector();
+        } else {
+            connector = new Connector(connectorConfig.getProtocol().className());
+            connector.setPort(config.getPort());
+            tomcat.setConnector(connector);
+        }
+
+        connectorConfig.toConnectorProperties().forEach((name, value) -> {
+            if (!connector.setProperty(name, value)) {
+                throw new IllegalArgumentException("Unknown connector setting " + name + "=" + value);
+            }
+        });
+
+        if (config.getTls() != null) {
+            configureTls(connector, config.getTls());
+        }
+
+        // HTTP/2 is negotiated by ALPN with TLS, and accepted as h2c on plain text.
+        if (config.getHttp2().isEnabled()) {
+            connector.addUpgradeProtocol(createHttp2Protocol(config.getHttp2()));
+        }
+
+        return connector;
     }
-}
 
+    /**
+     * Enable TLS on the connector with the certificate of the key store.
+     *
+     * @param connector the connector
+     * @param tls       the key store settings
+     */
+    private static void configureTls(Connector connector, TlsConfig tls) {
+        SSLHostConfig sslHostConfig = new SSLHostConfig();
+        SSLHostConfigCertificate certificate = new SSLHostConfigCertificate(sslHostConfig, SSLHostConfigCertificate.Type.UNDEFINED);
+
+        certificate.setCertificateKeystoreFile(tls.getKeyStoreFile());
+        certificate.setCertificateKeystorePassword(tls.getKeyStorePassword());
+        certificate.setCertificateKeystoreType(tls.getKeyStoreType());
+        sslHostConfig.addCertificate(certificate);
+
+        connector.setScheme("https");
+        connector.setSecure(true);
+        connector.setProperty("SSLEnabled", "true");
+        connector.addSslHostConfig(sslHostConfig);
+    }
+
+    /**
+     * Create the HTTP/2 upgrade protocol with the stream and flow control settings.
+     *
+     * @param http2 the HTTP/2 settings
+     * @return the upgrade protocol
+     */
+    private static Http2Protocol createHttp2Protocol(Http2Config http2) {
+        Http2Protocol protocol = new Http2Protocol();
+
+        if (http2.getMaxConcurrentStreams() != null) {
+            protocol.setMaxConcurrentStreams(http2.getMaxConcurrentStreams());
+        }
+        if (http2.getInitialWindowSize() != null) {
+            protocol.setInitialWindowSize(http2.getInitialWindowSize());
+        }
+        if (http2.getMaxConcurrentStreamExecution() != null) {
+            protocol.setMaxConcurrentStreamExecution(http2.getMaxConcurrentStreamExecution());
+        }
+
+        return protocol;
+    }
+}
@@ -1,12 +1,26 @@
 package cake.web;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import javax.servlet.ServletException;
-import javax.servlet.http.HttpServlet;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
+import cake.web.batch.BatchHandler;
+import cake.web.configuration.CakeWebConfig;
+import cake.web.exception.AsyncTimeoutException;
 import cake.web.exception.DefaultExceptionMapper;
 import cake.web.exception.ExceptionMapper;
 import cake.web.exchange.ConnectRequestExchange;
@@ -18,15 +32,51 @@ import cake.web.exchange.PatchRequestExchange;
 import cake.web.exchange.PostRequestExchange;
 import cake.web.exchange.PutRequestExchange;
 import cake.web.exchange.TraceRequestExchange;
+import cake.web.request.RequestDecompression;
+import cake.web.resource.ResourceRegistry;
+import cake.web.cache.CachedResponse;
+import cake.web.response.EntityTags;
+import cake.web.response.JsonResponseWriter;
+import cake.web.response.ResponseCaching;
+import cake.web.response.ResponseCompression;
+import cake.web.response.ResponseWriter;
 
 /**
  * Servlet implementation that routes HTTP requests to the corresponding
  * exchange handlers defined in the application.
  * <p>
  * Each supported HTTP method is mapped to a dedicated exchange class. The
- * servlet handles successful responses with HTTP 200 and delegates exception
+ * servlet writes successful results through the shared {@link ResponseWriter}
+ * instance (JSON with HTTP 200, or HTTP 204 for null) and delegates exception
  * handling to the shared {@link ExceptionMapper} instance.
  * </p>
+ * <p>
+ * A result that is a {@link CompletionStage} is answered asynchronously: the
+ * servlet starts async processing, releases the container thread and writes
+ * the response when the stage completes, or fails it with HTTP 503 when the
+ * async timeout of the configuration expires.
+ * </p>
+ * <p>
+ * When compression is enabled, the body is compressed while it is written,
+ * with the encoding negotiated by {@link ResponseCompression}. A request body
+ * sent with gzip or deflate is inflated while it is read, see
+ * {@link RequestDecompression}.
+ * </p>
+ * <p>
+ * GET and HEAD responses carry an ETag, and a request whose If-None-Match
+ * matches it is answered with HTTP 304 and no body (see {@link EntityTags}).
+ * </p>
+ * <p>
+ * When the response cache is enabled, a GET to a resource with a time to live
+ * is answered from the cache without calling the resource, and a successful
+ * POST, PUT, PATCH or DELETE invalidates the cached responses of its path
+ * (see {@link ResponseCaching}).
+ * </p>
+ * <p>
+ * When batches are enabled, a POST to the batch path runs its sub-requests
+ * through the handlers of their methods, several at a time, and answers the
+ * array of their status and body (see {@link BatchHandler}).
+ * </p>
  * 
  * @since 0.0.45
  * @author Marcelo Arbori Nogueira (marcelo.arbori@gmial.com) 
@@ -35,12 +85,55 @@ public class RootServlet extends HttpServlet {
     private static final long serialVersionUID = -7807285398220322910L;
 
     private static final ExceptionMapper exceptionMapper = new DefaultExceptionMapper();
+    private static final ResponseWriter responseWriter = new JsonResponseWriter();
+
+    private final transient ResourceRegistry resourceRegistry;
+    private final transient RequestDecompression requestDecompression;
+    private final transient ResponseCompression responseCompression;
+    private final transient ResponseCaching responseCaching;
+    private final transient BatchHandler batchHandler;
+    private final long asyncTimeout;
 
     /**
      * Create a new RootServlet instance.
      */
     public RootServlet() {
-        super(); // default constructor required
+        this(new CakeWebConfig()); // default constructor required
+    }
+
+    /**
+     * Create a new RootServlet instance for the given configuration. The resource
+     * registry (e.g., the route trie) is prepared here, once, before serving requests.
+     *
+     * @param config application configuration settings
+     */
+    public RootServlet(CakeWebConfig config) {
+        super();
+
+        this.resourceRegistry = ResourceRegistry.build(config);
+        this.requestDecompression = new RequestDecompression(config.getMaxDecompressedBodySize());
+        this.responseCompression = new ResponseCompression(config.getCompression());
+        this.responseCaching = new ResponseCaching(config.getResponseCache());
+        this.batchHandler = new BatchHandler(config.getBatch(), this::dispatch, exceptionMapper);
+        this.asyncTimeout = config.getAsyncTimeout();
+    }
+
+    /**
+     * Get the response caching of the servlet, e.g., to read the counters of the cache.
+     *
+     * @return the response caching
+     */
+    public ResponseCaching getResponseCaching() {
+        return responseCaching;
+    }
+
+    /**
+     * Stop the threads running the sub-requests of the batches.
+     */
+    @Override
+    public void destroy() {
+        batchHandler.close();
+        super.destroy();
     }
 
     /**
@@ -53,11 +146,17 @@ public class RootServlet extends HttpServlet {
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
-            GetRequestExchange exchange = new GetRequestExchange(request);
+            CachedResponse cached = responseCaching.lookup(request);
+
+            if (cached != null) {
+                writeCached(cached, request, response);
+                return;
+            }
+
+            GetRequestExchange exchange = new GetRequestExchange(requestDecompression.wrap(request), resourceRegistry);
             Object result = exchange.call();
 
-            response.setStatus(HttpServletResponse.SC_OK);
-            response.getWriter().println(result);
+            writeResult(result, exchange.getResourceClass(), exchange.getEntityTag(), request, response);
         } catch (RuntimeException re) {
             exceptionMapper.handle(re, response);
         } catch (Exception e) {
@@ -75,11 +174,10 @@ public class RootServlet extends HttpServlet {
     protected void doHead(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
-            HeadRequestExchange exchange = new HeadRequestExchange(request);
+            HeadRequestExchange exchange = new HeadRequestExchange(requestDecompression.wrap(request), resourceRegistry);
             Object result = exchange.call();
 
-            response.setStatus(HttpServletResponse.SC_OK);
-            response.getWriter().println(result);
+            writeResult(result, exchange.getResourceClass(), exchange.getEntityTag(), request, response);
         } catch (RuntimeException re) {
             exceptionMapper.handle(re, response);
         } catch (Exception e) {
@@ -97,11 +195,15 @@ public class RootServlet extends HttpServlet {
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
-            PostRequestExchange exchange = new PostRequestExchange(request);
+            if (batchHandler.handles(request)) {
+                writeBatch(batchHandler.handle(requestDecompression.wrap(request), response), request, response);
+                return;
+            }
+
+            PostRequestExchange exchange = new PostRequestExchange(requestDecompression.wrap(request), resourceRegistry);
             Object result = exchange.call();
 
-            response.setStatus(HttpServletResponse.SC_OK);
-            response.getWriter().println(result);
+            writeResult(result, exchange.getResourceClass(), exchange.getEntityTag(), request, response);
         } catch (RuntimeException re) {
             exceptionMapper.handle(re, response);
         } catch (Exception e) {
@@ -119,11 +221,10 @@ public class RootServlet extends HttpServlet {
     protected void doPut(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
-            PutRequestExchange exchange = new PutRequestExchange(request);
+            PutRequestExchange exchange = new PutRequestExchange(requestDecompression.wrap(request), resourceRegistry);
             Object result = exchange.call();
 
-            response.setStatus(HttpServletResponse.SC_OK);
-            response.getWriter().println(result);
+            writeResult(result, exchange.getResourceClass(), exchange.getEntityTag(), request, response);
         } catch (RuntimeException re) {
             exceptionMapper.handle(re, response);
         } catch (Exception e) {
@@ -141,11 +242,10 @@ public class RootServlet extends HttpServlet {
     protected void doDelete(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
-            DeleteRequestExchange exchange = new DeleteRequestExchange(request);
+            DeleteRequestExchange exchange = new DeleteRequestExchange(requestDecompression.wrap(request), resourceRegistry);
             Object result = exchange.call();
 
-            response.setStatus(HttpServletResponse.SC_OK);
-            response.getWriter().println(result);
+            writeResult(result, exchange.getResourceClass(), exchange.getEntityTag(), request, response);
         } catch (RuntimeException re) {
             exceptionMapper.handle(re, response);
         } catch (Exception e) {
@@ -167,11 +267,10 @@ public class RootServlet extends HttpServlet {
     protected void doConnect(HttpServletRequest request, HttpServletResponse response)
             throws IOException {
         try {
-            ConnectRequestExchange exchange = new ConnectRequestExchange(request);
+            ConnectRequestExchange exchange = new ConnectRequestExchange(requestDecompression.wrap(request), resourceRegistry);
             Object result = exchange.call();
 
-            response.setStatus(HttpServletResponse.SC_OK);
-            response.getWriter().println(result);
+            writeResult(result, exchange.getResourceClass(), exchange.getEntityTag(), request, response);
         } catch (RuntimeException re) {
             exceptionMapper.handle(re, response);
         } catch (Exception e) {
@@ -189,11 +288,10 @@ public class RootServlet extends HttpServlet {
     protected void doOptions(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
-            OptionsRequestExchange exchange = new OptionsRequestExchange(request);
+            OptionsRequestExchange exchange = new OptionsRequestExchange(requestDecompression.wrap(request), resourceRegistry);
             Object result = exchange.call();
 
-            response.setStatus(HttpServletResponse.SC_OK);
-            response.getWriter().println(result);
+            writeResult(result, exchange.getResourceClass(), exchange.getEntityTag(), request, response);
         } catch (RuntimeException re) {
             exceptionMapper.handle(re, response);
         } catch (Exception e) {
@@ -211,11 +309,10 @@ public class RootServlet extends HttpServlet {
     protected void doTrace(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
-            TraceRequestExchange exchange = new TraceRequestExchange(request);
+            TraceRequestExchange exchange = new TraceRequestExchange(requestDecompression.wrap(request), resourceRegistry);
             Object result = exchange.call();
 
-            response.setStatus(HttpServletResponse.SC_OK);
-            response.getWriter().println(result);
+            writeResult(result, exchange.getResourceClass(), exchange.getEntityTag(), request, response);
         } catch (RuntimeException re) {
             exceptionMapper.handle(re, response);
         } catch (Exception e) {
@@ -236,15 +333,256 @@ public class RootServlet extends HttpServlet {
     protected void doPath(HttpServletRequest request, HttpServletResponse response)
             throws IOException {
         try {
-            PatchRequestExchange exchange = new PatchRequestExchange(request);
+            PatchRequestExchange exchange = new PatchRequestExchange(requestDecompression.wrap(request), resourceRegistry);
             Object result = exchange.call();
 
-            response.setStatus(HttpServletResponse.SC_OK);
-            response.getWriter().println(result);
+            writeResult(result, exchange.getResourceClass(), exchange.getEntityTag(), request, response);
         } catch (RuntimeException re) {
             exceptionMapper.handle(re, response);
         } catch (Exception e) {
             exceptionMapper.handle(e, response);
         }
     }
+
+    /**
+     * Send a sub-request of a batch through the handler of its method.
+     *
+     * @param request the sub-request
+     * @param response the response of the sub-request
+     * @throws ServletException if the method has no handler
+     * @throws IOException if an I/O error occurs while writing the response
+     */
+    private void dispatch(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        switch (request.getMethod()) {
+            case "GET" -> doGet(request, response);
+            case "HEAD" -> doHead(request, response);
+            case "POST" -> doPost(request, response);
+            case "PUT" -> doPut(request, response);
+            case "PATCH" -> doPath(request, response);
+            case "DELETE" -> doDelete(request, response);
+            default -> throw new ServletException("No handler for " + request.getMethod() + " in a batch");
+        }
+    }
+
+    /**
+     * Write the answers of the sub-requests of a batch, compressed if the client accepts it.
+     * Each sub-request has already invalidated the cached responses of its own path.
+     *
+     * @param results the answers of the sub-requests
+     * @param request the batch request
+     * @param response the HTTP response
+     * @throws IOException if an I/O error occurs while writing the response
+     */
+    private void writeBatch(List<BatchHandler.Result> results, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        HttpServletResponse target = responseCompression.wrap(BatchHandler.class, request, response);
+
+        try {
+            responseWriter.write(results, request, target);
+            ResponseCompression.finish(target);
+        } finally {
+            ResponseCompression.release(target);
+        }
+    }
+
+    /**
+     * Write the result of a resource method, waiting for it first if it is a {@link CompletionStage}.
+     * A write request invalidates the cached responses of its path first, as soon as the method
+     * returned, and again when its stage completes. The path is read from the request now, since
+     * the request may be recycled by then.
+     *
+     * @param result the result of the resource method
+     * @param resourceClass the class of the resource that answered
+     * @param entityTag the entity tag supplied by the resource, or null
+     * @param request the HTTP request
+     * @param response the HTTP response
+     * @throws IOException if an I/O error occurs while writing the response
+     */
+    private void writeResult(Object result, Class<?> resourceClass, String entityTag, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String writtenPath = responseCaching.writtenPathOf(request);
+
+        responseCaching.invalidate(writtenPath);
+
+        if (!(result instanceof CompletionStage<?> stage)) {
+            writeValue(result, resourceClass, entityTag, request, response);
+        } else if (request.isAsyncSupported()) {
+            writeAsync(stage, resourceClass, entityTag, writtenPath, request, response);
+        } else {
+            writeBlocking(stage, resourceClass, entityTag, writtenPath, request, response);
+        }
+    }
+
+    /**
+     * Write a value through the response writer, compressed if the client accepts it. The
+     * entity tag supplied by the resource, if any, replaces the one computed from the body.
+     * The uncompressed body is kept by the response cache when the resource has a time to
+     * live.
+     *
+     * @param value the value to write
+     * @param resourceClass the class of the resource that answered
+     * @param entityTag the entity tag supplied by the resource, or null
+     * @param request the HTTP request
+     * @param response the HTTP response
+     * @throws IOException if an I/O error occurs while writing the response
+     */
+    private void writeValue(Object value, Class<?> resourceClass, String entityTag, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        HttpServletResponse compressed = responseCompression.wrap(resourceClass, request, response);
+
+        try {
+            HttpServletResponse target = responseCaching.capture(resourceClass, request, compressed);
+
+            if (entityTag != null) {
+                target.setHeader(EntityTags.ETAG, entityTag);
+            }
+
+            responseWriter.write(value, request, target);
+            responseCaching.store(target);
+            ResponseCompression.finish(compressed);
+        } finally {
+            ResponseCompression.release(compressed);
+        }
+    }
+
+    /**
+     * Write a response of the cache, compressed if the client accepts it.
+     *
+     * @param cached the cached response
+     * @param request the HTTP request
+     * @param response the HTTP response
+     * @throws IOException if an I/O error occurs while writing the response
+     */
+    private void writeCached(CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        HttpServletResponse target = responseCompression.wrap(cached.resourceClass(), request, response);
+
+        try {
+            ResponseCaching.serve(cached, request, target);
+            ResponseCompression.finish(target);
+        } finally {
+            ResponseCompression.release(target);
+        }
+    }
+
+    /**
+     * Release the container thread and write the response when the stage completes. Whichever
+     * comes first, the completion of the stage or the timeout, writes the response; the other
+     * is ignored.
+     *
+     * @param stage the result of the resource method
+     * @param resourceClass the class of the resource that answered
+     * @param entityTag the entity tag supplied by the resource, or null
+     * @param writtenPath the path whose cached responses the completion invalidates, or null
+     * @param request the HTTP request
+     * @param response the HTTP response
+     */
+    private void writeAsync(CompletionStage<?> stage, Class<?> resourceClass, String entityTag, String writtenPath, HttpServletRequest request, HttpServletResponse response) {
+        AsyncContext asyncContext = request.startAsync(request, response);
+        AtomicBoolean answered = new AtomicBoolean();
+
+        asyncContext.setTimeout(Math.max(asyncTimeout, 0));
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                if (answered.compareAndSet(false, true)) {
+                    cancel(stage);
+                    exceptionMapper.handle(new AsyncTimeoutException("The resource did not answer in " + asyncTimeout + " ms"), response);
+                    asyncContext.complete();
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                // The client disconnected, there is nobody to answer.
+                if (answered.compareAndSet(false, true)) {
+                    cancel(stage);
+                }
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                // Nothing to release.
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // Nothing to prepare.
+            }
+        });
+
+        stage.whenComplete((value, error) -> {
+            // The request may be recycled after a timeout: only the path read before is used.
+            responseCaching.invalidate(writtenPath);
+
+            if (answered.compareAndSet(false, true)) {
+                try {
+                    if (error == null) {
+                        writeValue(value, resourceClass, entityTag, request, response);
+                    } else {
+                        exceptionMapper.handle(unwrap(error), response);
+                    }
+                } catch (Exception e) {
+                    exceptionMapper.handle(e, response);
+                } finally {
+                    asyncContext.complete();
+                }
+            }
+        });
+    }
+
+    /**
+     * Wait for the stage on the container thread, when the servlet is not registered as
+     * async supported.
+     *
+     * @param stage the result of the resource method
+     * @param resourceClass the class of the resource that answered
+     * @param entityTag the entity tag supplied by the resource, or null
+     * @param writtenPath the path whose cached responses the completion invalidates, or null
+     * @param request the HTTP request
+     * @param response the HTTP response
+     * @throws IOException if an I/O error occurs while writing the response
+     */
+    private void writeBlocking(CompletionStage<?> stage, Class<?> resourceClass, String entityTag, String writtenPath, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        CompletableFuture<?> future = stage.toCompletableFuture();
+        Object value;
+
+        try {
+            value = (asyncTimeout > 0) ? future.get(asyncTimeout, TimeUnit.MILLISECONDS) : future.get();
+        } catch (TimeoutException _) {
+            future.cancel(true);
+            throw new AsyncTimeoutException("The resource did not answer in " + asyncTimeout + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AsyncTimeoutException("Interrupted while waiting for the resource");
+        } catch (ExecutionException e) {
+            exceptionMapper.handle(unwrap(e), response);
+            return;
+        } finally {
+            responseCaching.invalidate(writtenPath);
+        }
+
+        writeValue(value, resourceClass, entityTag, request, response);
+    }
+
+    private static void cancel(CompletionStage<?> stage) {
+        try {
+            stage.toCompletableFuture().cancel(true);
+        } catch (UnsupportedOperationException _) {
+            // The stage cannot be cancelled, its result is ignored.
+        }
+    }
+
+    // The exception thrown by the resource method, out of the wrappers of the stage.
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        return cause;
+    }
 }
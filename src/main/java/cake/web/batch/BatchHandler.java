@@ -0,0 +1,334 @@
+package cake.web.batch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import cake.web.configuration.BatchConfig;
+import cake.web.exception.AsyncTimeoutException;
+import cake.web.exception.BadRequestException;
+import cake.web.exception.ExceptionMapper;
+import cake.web.exception.HttpMethodException;
+import cake.web.exception.MethodInvocationException;
+import cake.web.exception.PayloadTooLargeException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * <p>Runs the sub-requests of a batch, several at a time, and collects their answers.</p>
+ *
+ * <p>A batch is a POST to the batch path whose body is a JSON array of sub-requests:</p>
+ *
+ * <pre>{@code
+ * [
+ *   {"method": "GET", "path": "/loan/capture/customer/123"},
+ *   {"method": "GET", "path": "/loan/capture/customer/123/proposal?status=OPEN"},
+ *   {"method": "PUT", "path": "/loan/capture/customer/456", "headers": {"X-Channel": "MOBILE"},
+ *    "body": {"customerRequest": {"name": "Ana"}}}
+ * ]
+ * }</pre>
+ *
+ * <p>Each sub-request is dispatched to the servlet as a request of its own, so it is routed,
+ * bound, cached, coalesced and mapped to an error exactly like one. Its response is kept in
+ * memory, and the answer of the batch is the array of their status and body, in the order of
+ * the sub-requests: a JSON body is embedded as JSON, any other body as a string, and an empty
+ * body as null. A sub-request that fails does not fail the batch.</p>
+ *
+ * <p>The sub-requests run on a thread pool shared by the batches, at most the maximum
+ * concurrency of them at the same time for each batch. They are independent: a batch whose
+ * sub-requests depend on each other (e.g., a PUT and then a GET of the same resource) needs a
+ * maximum concurrency of one, which runs them in order on the thread of the batch.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is thread-safe. Each batch has its own permits and results.</p>
+ *
+ * <h3>Design Intention</h3>
+ * <p>The sub-requests go through the same handlers as the requests of the network, instead of
+ * calling the resources directly, so that a batch never answers differently from the requests
+ * it replaces.</p>
+ *
+ * @since 0.0.46
+ * @see BatchConfig
+ */
+public class BatchHandler {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Set<String> METHODS = Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE");
+
+    // Headers about the encoding on the wire, which does not apply to the envelope.
+    private static final Set<String> WIRE_HEADERS = Set.of("content-encoding", "content-length", "accept-encoding");
+
+    private final boolean enabled;
+    private final String path;
+    private final int maxSize;
+    private final int maxConcurrency;
+    private final Dispatcher dispatcher;
+    private final ExceptionMapper exceptionMapper;
+    private final ExecutorService executor;
+
+    /**
+     * Sends a sub-request through the handler of its method.
+     */
+    @FunctionalInterface
+    public interface Dispatcher {
+        /**
+         * Handle the sub-request as a request of its own.
+         *
+         * @param request  the sub-request
+         * @param response the response of the sub-request
+         * @throws ServletException if the request cannot be handled
+         * @throws IOException      if an I/O error occurs
+         */
+        void dispatch(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException;
+    }
+
+    /**
+     * A sub-request of the batch, as sent by the client.
+     *
+     * @param method  the HTTP method, GET if absent
+     * @param path    the path, relative to the context path, with its query string
+     * @param headers the headers, may be null
+     * @param body    the JSON body, may be null
+     */
+    public record Part(String method, String path, Map<String, String> headers, JsonNode body) {}
+
+    /**
+     * The answer to a sub-request.
+     *
+     * @param status the HTTP status
+     * @param body   the JSON body, the text body, or null if empty
+     */
+    public record Result(int status, Object body) {}
+
+    /**
+     * Create the handler of the given configuration.
+     *
+     * @param config          the batch settings
+     * @param dispatcher      sends each sub-request through the handler of its method
+     * @param exceptionMapper maps the invalid sub-requests into their response
+     */
+    public BatchHandler(BatchConfig config, Dispatcher dispatcher, ExceptionMapper exceptionMapper) {
+        this.enabled = config.isEnabled();
+        this.path = config.getPath();
+        this.maxSize = config.getMaxSize();
+        this.maxConcurrency = Math.max(config.getMaxConcurrency(), 1);
+        this.dispatcher = dispatcher;
+        this.exceptionMapper = exceptionMapper;
+        this.executor = (enabled && maxConcurrency > 1) ? Executors.newFixedThreadPool(Math.max(config.getThreads(), 1), new BatchThreadFactory()) : null;
+    }
+
+    /**
+     * Check whether the request is a batch.
+     *
+     * @param request the HTTP request
+     * @return true if batches are enabled and the request is a POST to the batch path
+     */
+    public boolean handles(HttpServletRequest request) {
+        return enabled && "POST".equals(request.getMethod()) && isBatchPath(pathOf(request.getRequestURI(), request.getContextPath()));
+    }
+
+    /**
+     * Run the sub-requests of the batch and collect their answers.
+     *
+     * @param request  the batch request
+     * @param response the batch response, not written to
+     * @return the answers, in the order of the sub-requests
+     * @throws BadRequestException      if the body is not a JSON array of sub-requests
+     * @throws PayloadTooLargeException if the batch has more sub-requests than the maximum size
+     * @throws AsyncTimeoutException    if the thread is interrupted while waiting for the sub-requests
+     * @throws IOException              if an I/O error occurs while reading the body
+     */
+    public List<Result> handle(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Part[] parts = readParts(request);
+
+        if (parts.length > maxSize) {
+            throw new PayloadTooLargeException("The batch has " + parts.length + " requests, the maximum is " + maxSize);
+        }
+
+        Result[] results = new Result[parts.length];
+
+        if (executor == null || parts.length < 2) {
+            for (int i = 0; i < parts.length; i++) {
+                results[i] = execute(parts[i], request, response);
+            }
+        } else {
+            executeConcurrently(parts, results, request, response);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Stop the threads of the batches. Called when the servlet is destroyed.
+     */
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void executeConcurrently(Part[] parts, Result[] results, HttpServletRequest request, HttpServletResponse response) {
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<Future<Result>> futures = new ArrayList<>(parts.length);
+
+        try {
+            for (Part part : parts) {
+                permits.acquire();
+
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return execute(part, request, response);
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+
+            for (int i = 0; i < results.length; i++) {
+                results[i] = futures.get(i).get();
+            }
+        } catch (InterruptedException _) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new AsyncTimeoutException("Interrupted while running the batch");
+        } catch (ExecutionException e) {
+            throw new MethodInvocationException("Error in a batch request", e.getCause());
+        }
+    }
+
+    /**
+     * Run one sub-request. Its failures are answered in its own response.
+     *
+     * @param part     the sub-request
+     * @param request  the batch request
+     * @param response the batch response
+     * @return the answer to the sub-request
+     */
+    private Result execute(Part part, HttpServletRequest request, HttpServletResponse response) {
+        BatchResponse subResponse = new BatchResponse(response);
+
+        try {
+            dispatcher.dispatch(toRequest(part, request), subResponse);
+        } catch (Exception e) {
+            subResponse.reset();
+            exceptionMapper.handle(e, subResponse);
+        }
+
+        return new Result(subResponse.getStatus(), bodyOf(subResponse));
+    }
+
+    private BatchRequest toRequest(Part part, HttpServletRequest request) throws HttpMethodException {
+        if (part == null || part.path() == null || !part.path().startsWith("/")) {
+            throw new BadRequestException("A batch request needs a path starting with /");
+        }
+
+        String method = (part.method() == null) ? "GET" : part.method().toUpperCase(Locale.ROOT);
+
+        if (!METHODS.contains(method)) {
+            throw new HttpMethodException(method + " is not allowed in a batch");
+        }
+        if (isBatchPath(pathOf(part.path(), ""))) {
+            throw new BadRequestException("A batch cannot contain a batch");
+        }
+
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        if (part.headers() != null) {
+            part.headers().forEach((name, value) -> {
+                if (name != null && value != null && !WIRE_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.put(name, value);
+                }
+            });
+        }
+
+        byte[] body = (part.body() == null || part.body().isNull()) ? new byte[0] : MAPPER.writeValueAsBytes(part.body());
+
+        return new BatchRequest(request, method, part.path(), headers, body);
+    }
+
+    private static Part[] readParts(HttpServletRequest request) throws IOException {
+        Part[] parts;
+
+        try {
+            parts = MAPPER.readValue(request.getInputStream(), Part[].class);
+        } catch (JacksonException e) {
+            throw new BadRequestException("Malformed batch: " + e.getOriginalMessage());
+        }
+
+        if (parts == null) {
+            throw new BadRequestException("A batch must be a JSON array of requests");
+        }
+
+        return parts;
+    }
+
+    // The JSON body as a tree, to be embedded as JSON in the answer of the batch.
+    private static Object bodyOf(BatchResponse response) {
+        byte[] body = response.body();
+
+        if (body.length == 0) {
+            return null;
+        }
+
+        String contentType = response.getContentType();
+
+        if (contentType != null && contentType.startsWith("application/json")) {
+            try {
+                return MAPPER.readTree(body);
+            } catch (JacksonException _) {
+                // Not JSON after all, embedded as text.
+            }
+        }
+
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    private boolean isBatchPath(String requestPath) {
+        return requestPath.equals(path) || requestPath.equals(path + "/");
+    }
+
+    private static String pathOf(String uri, String contextPath) {
+        int question = uri.indexOf('?');
+        String path = (question < 0) ? uri : uri.substring(0, question);
+
+        return (contextPath != null && path.startsWith(contextPath)) ? path.substring(contextPath.length()) : path;
+    }
+
+    /**
+     * Daemon threads named after the batch, so they never keep the JVM alive.
+     */
+    private static final class BatchThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "cake-batch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
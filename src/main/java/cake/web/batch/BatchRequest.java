@@ -0,0 +1,278 @@
+package cake.web.batch;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * <p>Sub-request of a batch: the method, path, query, headers and body come from the batch
+ * envelope, the rest (e.g., the context path) from the batch request.</p>
+ *
+ * <p>The body is the JSON body of the sub-request, already serialized. The request does not
+ * support async processing, so a resource returning a {@code CompletionStage} is waited for on
+ * the thread of the sub-request. The attributes are kept per sub-request, since the
+ * sub-requests of a batch share the batch request.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is not thread-safe. A new instance is created per sub-request.</p>
+ *
+ * @since 0.0.46
+ * @see BatchHandler
+ */
+final class BatchRequest extends HttpServletRequestWrapper {
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
+    private final String method;
+    private final String path;
+    private final String queryString;
+    private final Map<String, String[]> parameters;
+    private final Map<String, String> headers;
+    private final byte[] body;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    BatchRequest(HttpServletRequest request, String method, String uri, Map<String, String> headers, byte[] body) {
+        super(request);
+
+        int question = uri.indexOf('?');
+
+        this.method = method;
+        this.path = (question < 0) ? uri : uri.substring(0, question);
+        this.queryString = (question < 0) ? null : uri.substring(question + 1);
+        this.parameters = parse(queryString);
+        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.headers.putAll(headers);
+        this.body = body;
+
+        if (body.length > 0 && !this.headers.containsKey("Content-Type")) {
+            this.headers.put("Content-Type", JSON_CONTENT_TYPE);
+        }
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return getContextPath() + path;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return path;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return parameters;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+
+        return (values == null) ? null : values[0];
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        String value = headers.get(name);
+
+        return Collections.enumeration((value == null) ? List.of() : List.of(value));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public String getContentType() {
+        return headers.get("Content-Type");
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        if (inputStream == null) {
+            inputStream = new BodyInputStream(body);
+        }
+
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        if (reader == null) {
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        return reader;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("A batch sub-request does not support async processing");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+        throw new IllegalStateException("A batch sub-request does not support async processing");
+    }
+
+    // The query parameters, decoded, in the order of the query.
+    private static Map<String, String[]> parse(String queryString) {
+        if (queryString == null || queryString.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, List<String>> values = new LinkedHashMap<>();
+
+        for (String pair : queryString.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+
+            int equals = pair.indexOf('=');
+            String name = decode((equals < 0) ? pair : pair.substring(0, equals));
+            String value = (equals < 0) ? "" : decode(pair.substring(equals + 1));
+
+            values.computeIfAbsent(name, _ -> new ArrayList<>()).add(value);
+        }
+
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        values.forEach((name, list) -> parameters.put(name, list.toArray(String[]::new)));
+
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Servlet stream reading the body of the sub-request.
+     */
+    private static final class BodyInputStream extends ServletInputStream {
+        private final ByteArrayInputStream source;
+
+        BodyInputStream(byte[] body) {
+            this.source = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return source.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return source.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return source.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("The body of a batch sub-request is read blocking");
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package cake.web.batch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * <p>Response of a sub-request of a batch, kept in memory: the status, the headers and the body
+ * never reach the batch response, which is written once every sub-request has answered.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is not thread-safe. A new instance is created per sub-request.</p>
+ *
+ * @since 0.0.46
+ * @see BatchHandler
+ */
+final class BatchResponse extends HttpServletResponseWrapper {
+    private int status = HttpServletResponse.SC_OK;
+    private String contentType;
+    private String characterEncoding = StandardCharsets.UTF_8.name();
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    BatchResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * Get the body written so far.
+     *
+     * @return the bytes of the body
+     */
+    byte[] body() {
+        if (writer != null) {
+            writer.flush();
+        }
+
+        return body.toByteArray();
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public void sendError(int status, String message) {
+        this.status = status;
+
+        if (message != null) {
+            body.writeBytes(message.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        List<String> values = new ArrayList<>(1);
+        values.add(value);
+        headers.put(name, values);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.computeIfAbsent(name, _ -> new ArrayList<>(1)).add(value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, formatDate(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, formatDate(date));
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+
+        return (values == null) ? null : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        return headers.getOrDefault(name, List.of());
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return headers.keySet();
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(String characterEncoding) {
+        this.characterEncoding = characterEncoding;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        // The length of the body is known once it is written.
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        // The length of the body is known once it is written.
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new BodyOutputStream(body);
+        }
+
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(characterEncoding)));
+        }
+
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        // The body is kept whole in memory.
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        status = HttpServletResponse.SC_OK;
+        contentType = null;
+        headers.clear();
+        resetBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        flushBuffer();
+        body.reset();
+    }
+
+    private static String formatDate(long date) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(date).atOffset(ZoneOffset.UTC));
+    }
+
+    /**
+     * Servlet stream writing to the body kept in memory.
+     */
+    private static final class BodyOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream body;
+
+        BodyOutputStream(ByteArrayOutputStream body) {
+            this.body = body;
+        }
+
+        @Override
+        public void write(int b) {
+            body.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            body.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("The body of a batch sub-request is written blocking");
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package cake.web.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * <p>A size bounded cache that evicts the least recently used entry when full.</p>
+ *
+ * <p>The framework keeps several caches on the request path (e.g., the negative class lookups
+ * of the lazy discovery). Unlike the unbounded {@code ConcurrentHashMap} caches of resolved
+ * classes and methods, the keys of these caches come from the request, so they must not grow
+ * with the traffic.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is thread-safe. Access to the entries is guarded by a lock and the counters
+ * are kept in {@link LongAdder}s.</p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ *
+ * @since 0.0.46
+ * @see CacheStats
+ */
+public class BoundedCache<K, V> {
+    private final int maxEntries;
+    private final Map<K, V> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a cache that holds at most the given number of entries.
+     *
+     * @param maxEntries the maximum number of entries; zero disables the cache
+     * @throws IllegalArgumentException if maxEntries is negative
+     */
+    public BoundedCache(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative: " + maxEntries);
+        }
+
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                boolean evict = size() > BoundedCache.this.maxEntries;
+
+                if (evict) {
+                    evictions.increment();
+                }
+
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Get the value cached for the key, counting a hit or a miss.
+     *
+     * @param key the key to look for
+     * @return the cached value, or null if there is none
+     */
+    public V get(K key) {
+        V value;
+
+        lock.lock();
+        try {
+            value = entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+
+        return value;
+    }
+
+    /**
+     * Put a value in the cache, evicting the least recently used entry if the cache is full.
+     *
+     * @param key   the key
+     * @param value the value, not null
+     */
+    public void put(K key, V value) {
+        if (maxEntries == 0) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            entries.put(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the entry of the key, if any.
+     *
+     * @param key the key
+     */
+    public void remove(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the entries whose value matches the filter, e.g., to invalidate them.
+     *
+     * @param filter the values to remove
+     * @return the number of entries removed
+     */
+    public int removeIf(Predicate<? super V> filter) {
+        lock.lock();
+        try {
+            int size = entries.size();
+            entries.values().removeIf(filter);
+
+            return size - entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of entries currently cached.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get a snapshot of the hit, miss and eviction counters.
+     *
+     * @return the cache counters
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+}
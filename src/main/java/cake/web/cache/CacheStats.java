@@ -0,0 +1,23 @@
+package cake.web.cache;
+
+/**
+ * A snapshot of the counters of a {@link BoundedCache}.
+ *
+ * @param hits      number of lookups that found an entry
+ * @param misses    number of lookups that found nothing
+ * @param evictions number of entries removed to respect the cache bound
+ * 
+ * @since 0.0.46
+ */
+public record CacheStats(long hits, long misses, long evictions) {
+    /**
+     * Get the ratio of lookups that found an entry.
+     * 
+     * @return the hit ratio, between 0 and 1 (0 when there was no lookup)
+     */
+    public double hitRatio() {
+        long lookups = hits + misses;
+
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,37 @@
+package cake.web.cache;
+
+/**
+ * A serialized response kept by the {@link ResponseCache}.
+ *
+ * @param path          the normalized path of the request, for the invalidation by path
+ * @param resourceClass the class of the resource that answered
+ * @param contentType   the Content-Type of the body
+ * @param entityTag     the ETag of the body, or null
+ * @param body          the serialized body, not to be modified
+ * @param expiresAt     the {@link System#nanoTime()} after which the response is stale
+ *
+ * @since 0.0.46
+ */
+public record CachedResponse(String path, Class<?> resourceClass, String contentType, String entityTag, byte[] body, long expiresAt) {
+    // Estimated memory of the fields and headers, on top of the body.
+    private static final int OVERHEAD_BYTES = 128;
+
+    /**
+     * Check whether the time to live of the response is over.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return true if the response is stale
+     */
+    public boolean isExpired(long now) {
+        return now - expiresAt >= 0;
+    }
+
+    /**
+     * Get the estimated memory taken by the response.
+     *
+     * @return the weight of the response, in bytes
+     */
+    public long weight() {
+        return OVERHEAD_BYTES + body.length + 2L * path.length();
+    }
+}
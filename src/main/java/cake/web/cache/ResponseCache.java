@@ -0,0 +1,322 @@
+package cake.web.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>A memory bounded cache of serialized GET responses, with a time to live per response and
+ * invalidation by path.</p>
+ *
+ * <p>Responses are keyed by {@link #key(String, String, String)}: the normalized path, the query
+ * string with its parameters sorted, and the Accept header. The bodies take at most the given
+ * number of bytes; beyond it the least recently used responses are evicted. A stale response is
+ * dropped when it is looked up.</p>
+ *
+ * <p>Writing to a path invalidates, through {@link #invalidate(String)}, the responses of the
+ * path, of the paths under it (e.g., {@code /customer/1/proposal}) and of the paths above it
+ * (e.g., the collection {@code /customer}). The keys are indexed by path, sorted, so the paths
+ * above are looked up one by one and the paths under are a range of the index.</p>
+ *
+ * <p>Every invalidation starts a new {@link #generation()}. A response built from the data read
+ * before a write is stored only if no invalidation happened since then: see
+ * {@link #put(String, CachedResponse, long)}.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is thread-safe. The responses are read from a {@link ConcurrentHashMap}
+ * without locking; the changes, the recency order and the path index are guarded by a lock.
+ * A read records its recency only if the lock is free, so the eviction order is approximate
+ * under contention. The counters are kept in {@link LongAdder}s.</p>
+ *
+ * @since 0.0.46
+ * @see CachedResponse
+ * @see CacheStats
+ */
+public class ResponseCache {
+    private final long maxBytes;
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+
+    // Guarded by the lock: the keys in recency order, the keys of each path and the memory used.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Boolean> recency = new LinkedHashMap<>(16, 0.75f, true);
+    private final NavigableMap<String, Set<String>> keysByPath = new TreeMap<>();
+    private long bytes;
+    private volatile long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a cache that holds at most the given memory of responses.
+     *
+     * @param maxBytes the maximum memory of the cached responses, in bytes
+     * @throws IllegalArgumentException if maxBytes is negative
+     */
+    public ResponseCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative: " + maxBytes);
+        }
+
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Build the key of a request.
+     *
+     * @param path        the path of the request, without the context path
+     * @param queryString the query string, may be null
+     * @param accept      the Accept header, may be null
+     * @return the cache key
+     */
+    public static String key(String path, String queryString, String accept) {
+        StringBuilder key = new StringBuilder(normalizePath(path));
+
+        if (queryString != null && !queryString.isEmpty()) {
+            String[] parameters = queryString.split("&");
+            Arrays.sort(parameters);
+
+            key.append('?').append(String.join("&", parameters));
+        }
+        if (accept != null) {
+            key.append('\n').append(accept);
+        }
+
+        return key.toString();
+    }
+
+    /**
+     * Normalize a path: no repeated slashes and no trailing slash.
+     *
+     * @param path the path
+     * @return the normalized path, "/" for the root
+     */
+    public static String normalizePath(String path) {
+        StringBuilder normalized = new StringBuilder(path.length() + 1);
+
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                normalized.append('/').append(segment);
+            }
+        }
+
+        return normalized.isEmpty() ? "/" : normalized.toString();
+    }
+
+    /**
+     * Get the fresh response cached for the key, counting a hit or a miss.
+     *
+     * @param key the key of the request
+     * @return the cached response, or null if there is none or it is stale
+     */
+    public CachedResponse get(String key) {
+        CachedResponse response = entries.get(key);
+
+        if (response != null && response.isExpired(System.nanoTime())) {
+            lock.lock();
+            try {
+                if (entries.get(key) == response) {
+                    remove(key);
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            response = null;
+        }
+
+        if (response != null) {
+            hits.increment();
+
+            // A busy lock only costs the recency of this read.
+            if (lock.tryLock()) {
+                try {
+                    recency.get(key);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } else {
+            misses.increment();
+        }
+
+        return response;
+    }
+
+    /**
+     * Get the current generation, to be passed to {@link #put(String, CachedResponse, long)}
+     * by a request that reads its data now and stores its response later.
+     *
+     * @return the number of invalidations so far
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Put a response in the cache, evicting the least recently used responses beyond the
+     * memory bound. A response heavier than the whole bound is not cached.
+     *
+     * @param key      the key of the request
+     * @param response the response
+     */
+    public void put(String key, CachedResponse response) {
+        put(key, response, generation);
+    }
+
+    /**
+     * Put a response in the cache, unless the cache was invalidated after the given generation:
+     * the response may then hold the data from before a write.
+     *
+     * @param key        the key of the request
+     * @param response   the response
+     * @param generation the {@link #generation()} read before the data of the response
+     * @return true if the response was stored
+     */
+    public boolean put(String key, CachedResponse response, long generation) {
+        long weight = response.weight();
+
+        if (weight > maxBytes) {
+            return false;
+        }
+
+        lock.lock();
+        try {
+            if (generation != this.generation) {
+                return false;
+            }
+
+            remove(key);
+
+            entries.put(key, response);
+            recency.put(key, Boolean.TRUE);
+            keysByPath.computeIfAbsent(response.path(), _ -> new HashSet<>()).add(key);
+            bytes += weight;
+
+            Iterator<String> eldest = recency.keySet().iterator();
+
+            while (bytes > maxBytes && eldest.hasNext()) {
+                String evicted = eldest.next();
+                eldest.remove();
+                unlink(evicted, entries.remove(evicted));
+                evictions.increment();
+            }
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the responses of the path, of the paths under it and of the paths above it, and
+     * start a new generation.
+     *
+     * @param path the path written to
+     * @return the number of responses removed
+     */
+    public int invalidate(String path) {
+        String written = normalizePath(path);
+        int removed = 0;
+
+        lock.lock();
+        try {
+            generation++;
+
+            for (String related : relatedPaths(written)) {
+                Set<String> keys = keysByPath.get(related);
+
+                if (keys != null) {
+                    for (String key : List.copyOf(keys)) {
+                        remove(key);
+                        removed++;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return removed;
+    }
+
+    // The cached paths that are the written one, under it or above it. Called under the lock.
+    private List<String> relatedPaths(String written) {
+        if (written.equals("/")) {
+            return List.copyOf(keysByPath.keySet());
+        }
+
+        List<String> related = new ArrayList<>(keysByPath.subMap(written + "/", true, written + "0", false).keySet());
+        related.add(written);
+
+        for (int slash = written.lastIndexOf('/'); slash > 0; slash = written.lastIndexOf('/', slash - 1)) {
+            related.add(written.substring(0, slash));
+        }
+        related.add("/");
+
+        return related;
+    }
+
+    // Remove the response of the key, if any. Called under the lock.
+    private void remove(String key) {
+        recency.remove(key);
+        unlink(key, entries.remove(key));
+    }
+
+    // Take a removed response out of the path index and the memory used. Called under the lock.
+    private void unlink(String key, CachedResponse response) {
+        if (response == null) {
+            return;
+        }
+
+        Set<String> keys = keysByPath.get(response.path());
+
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByPath.remove(response.path());
+        }
+
+        bytes -= response.weight();
+    }
+
+    /**
+     * Get the number of responses currently cached.
+     *
+     * @return the number of responses
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the estimated memory taken by the cached responses.
+     *
+     * @return the weight of the responses, in bytes
+     */
+    public long bytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get a snapshot of the hit, miss and eviction counters.
+     *
+     * @return the cache counters
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+}
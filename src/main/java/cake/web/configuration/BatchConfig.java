@@ -0,0 +1,52 @@
+package cake.web.configuration;
+
+/**
+ * Batch endpoint, to send several requests in one round trip (e.g., a mobile client loading a
+ * screen made of many small resources).
+ *
+ * <p>A POST to the batch path carries a JSON array of sub-requests, each one with a method, a
+ * path relative to the context path, optional headers and an optional JSON body. Every
+ * sub-request goes through the same pipeline as a request of its own, and the answer is the
+ * array of their status and body, in the order of the sub-requests.</p>
+ *
+ * <pre>{@code
+ * CakeWebApplication.run(config -> {
+ *     config.getBatch().setEnabled(true);
+ *     config.getBatch().setMaxSize(20);
+ *     config.getBatch().setMaxConcurrency(4);
+ * });
+ * }</pre>
+ *
+ * @since 0.0.46
+ * @see CakeWebConfig#getBatch()
+ */
+public class BatchConfig {
+    private boolean enabled = false;
+    private String path = "/_batch";
+    private int maxSize = 50;
+    private int maxConcurrency = 8;
+    private int threads = 16;
+
+    /** Answer POST requests to the batch path. */
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    /** Path of the batch endpoint, relative to the context path. */
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    /** Maximum number of sub-requests in a batch. A larger batch fails with HTTP 413. */
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+    /**
+     * Maximum number of sub-requests of a batch running at the same time. One runs them in
+     * order, on the thread of the batch request.
+     */
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+
+    /** Size of the thread pool shared by the batches to run their sub-requests. */
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+}
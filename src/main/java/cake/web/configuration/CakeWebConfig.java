@@ -1,5 +1,10 @@
 package cake.web.configuration;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * CakeWebConfig is the start node class for configuration strategy.
  * 
@@ -10,6 +15,20 @@ public class CakeWebConfig {
     private int port = 8080;
     private String contextPath = "";
     private String baseDir = System.getProperty("java.io.tmpdir");
+    private List<String> resourcePackages = List.of();
+    private int negativeLookupCacheSize = 1024;
+    private Map<String, ResourceScope> resourceScopes = new LinkedHashMap<>();
+    private long asyncTimeout = 30_000;
+    private boolean virtualThreads = false;
+    private ConnectorConfig connector = new ConnectorConfig();
+    private Http2Config http2 = new Http2Config();
+    private TlsConfig tls;
+    private CompressionConfig compression = new CompressionConfig();
+    private long maxDecompressedBodySize = 10_485_760;
+    private ResponseCacheConfig responseCache = new ResponseCacheConfig();
+    private CoalescingConfig coalescing = new CoalescingConfig();
+    private ParentMemoConfig parentMemo = new ParentMemoConfig();
+    private BatchConfig batch = new BatchConfig();
 
     public int getPort() { return port; }
     public void setPort(int port) { this.port = port; }
@@ -19,4 +38,99 @@ public class CakeWebConfig {
 
     public String getBaseDir() { return baseDir; }
     public void setBaseDir(String baseDir) { this.baseDir = baseDir; }
-}
\ No newline at end of file
+
+    /**
+     * Root packages scanned at startup into the route trie. When empty, resources are
+     * discovered lazily by probing the class loader for each URI token.
+     */
+    public List<String> getResourcePackages() { return resourcePackages; }
+    public void setResourcePackages(String... resourcePackages) { this.resourcePackages = List.of(resourcePackages); }
+
+    /**
+     * Maximum number of class names remembered as missing by the lazy discovery. Zero disables it.
+     */
+    public int getNegativeLookupCacheSize() { return negativeLookupCacheSize; }
+    public void setNegativeLookupCacheSize(int negativeLookupCacheSize) { this.negativeLookupCacheSize = negativeLookupCacheSize; }
+
+    /**
+     * Scope of the resource instances, by fully qualified class name or by package name. The most
+     * specific entry wins, a package applies to its sub packages, and an empty name applies to all
+     * the resources. Resources without an entry are created per request.
+     */
+    public Map<String, ResourceScope> getResourceScopes() { return Collections.unmodifiableMap(resourceScopes); }
+    public void setResourceScope(String classOrPackageName, ResourceScope scope) { this.resourceScopes.put(classOrPackageName, scope); }
+
+    /**
+     * Time, in milliseconds, a resource method returning a CompletionStage has to complete before
+     * the request fails with HTTP 503. Zero or less means no timeout.
+     */
+    public long getAsyncTimeout() { return asyncTimeout; }
+    public void setAsyncTimeout(long asyncTimeout) { this.asyncTimeout = asyncTimeout; }
+
+    /**
+     * Run each request on a new virtual thread instead of the platform thread pool of the
+     * connector. Blocking calls in resources then no longer hold a pooled thread.
+     */
+    public boolean isVirtualThreads() { return virtualThreads; }
+    public void setVirtualThreads(boolean virtualThreads) { this.virtualThreads = virtualThreads; }
+
+    /**
+     * Tuning of the HTTP connector (threads, queues, keep-alive, sockets, protocol handler).
+     * By default every setting keeps the Tomcat default. See {@link ConnectorConfig#lowLatency()}
+     * and {@link ConnectorConfig#highThroughput()}.
+     */
+    public ConnectorConfig getConnector() { return connector; }
+    public void setConnector(ConnectorConfig connector) { this.connector = connector; }
+
+    /**
+     * HTTP/2 on the connector: h2c on plain text, ALPN with TLS. Disabled by default.
+     */
+    public Http2Config getHttp2() { return http2; }
+    public void setHttp2(Http2Config http2) { this.http2 = http2; }
+
+    /**
+     * TLS on the connector. Null, the default, serves plain text.
+     */
+    public TlsConfig getTls() { return tls; }
+    public void setTls(TlsConfig tls) { this.tls = tls; }
+
+    /**
+     * Compression (gzip or deflate) of the response bodies. Disabled by default.
+     */
+    public CompressionConfig getCompression() { return compression; }
+    public void setCompression(CompressionConfig compression) { this.compression = compression; }
+
+    /**
+     * Maximum size, in bytes, a gzip or deflate encoded request body may inflate to before the
+     * request fails with HTTP 413. Zero or less means no limit.
+     */
+    public long getMaxDecompressedBodySize() { return maxDecompressedBodySize; }
+    public void setMaxDecompressedBodySize(long maxDecompressedBodySize) { this.maxDecompressedBodySize = maxDecompressedBodySize; }
+
+    /**
+     * Cache of serialized GET responses, with a time to live per package. Disabled by default.
+     */
+    public ResponseCacheConfig getResponseCache() { return responseCache; }
+    public void setResponseCache(ResponseCacheConfig responseCache) { this.responseCache = responseCache; }
+
+    /**
+     * Coalescing of identical concurrent GET and HEAD calls, with a maximum wait per package.
+     * Disabled by default.
+     */
+    public CoalescingConfig getCoalescing() { return coalescing; }
+    public void setCoalescing(CoalescingConfig coalescing) { this.coalescing = coalescing; }
+
+    /**
+     * Memo of the results of parent resources in nested URIs, with a time to live per package.
+     * Disabled by default.
+     */
+    public ParentMemoConfig getParentMemo() { return parentMemo; }
+    public void setParentMemo(ParentMemoConfig parentMemo) { this.parentMemo = parentMemo; }
+
+    /**
+     * Batch endpoint running several sub-requests in one round trip, with limits on their number
+     * and on how many run at the same time. Disabled by default.
+     */
+    public BatchConfig getBatch() { return batch; }
+    public void setBatch(BatchConfig batch) { this.batch = batch; }
+}
@@ -0,0 +1,41 @@
+package cake.web.configuration;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Coalescing of identical concurrent GET and HEAD calls, for resources hit by bursts of the
+ * same request (e.g., a popular record expiring from the upstream caches).
+ *
+ * <p>While a resource method is running, a request calling the same method with equal arguments
+ * waits for its result instead of running it again. Only the resources given a maximum wait are
+ * coalesced: by fully qualified class name or by package name, the most specific entry wins, a
+ * package applies to its sub packages and an empty name applies to all the resources. A request
+ * that waits longer runs the method itself.</p>
+ *
+ * <pre>{@code
+ * CakeWebApplication.run(config -> {
+ *     config.getCoalescing().setEnabled(true);
+ *     config.getCoalescing().setMaxWait("com.bank.loan.capture", 2_000);
+ * });
+ * }</pre>
+ *
+ * @since 0.0.46
+ * @see CakeWebConfig#getCoalescing()
+ */
+public class CoalescingConfig {
+    private boolean enabled = false;
+    private Map<String, Long> maxWaits = new LinkedHashMap<>();
+
+    /** Coalesce the calls of the resources that have a maximum wait. */
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    /**
+     * Maximum time, in milliseconds, a request waits for the identical call in flight, by fully
+     * qualified class name or by package name. Resources without an entry are not coalesced.
+     */
+    public Map<String, Long> getMaxWaits() { return Collections.unmodifiableMap(maxWaits); }
+    public void setMaxWait(String classOrPackageName, long maxWaitMillis) { this.maxWaits.put(classOrPackageName, maxWaitMillis); }
+}
@@ -0,0 +1,176 @@
+package cake.web.configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tuning of the HTTP connector of the embedded Tomcat.
+ *
+ * <p>Every setting is optional: a setting left null keeps the Tomcat default. Two presets are
+ * provided as starting points:</p>
+ * <ul>
+ *   <li>{@link #lowLatency()}: threads kept warm, connections kept alive, no Nagle delay.
+ *       For interactive APIs with moderate concurrency.</li>
+ *   <li>{@link #highThroughput()}: large pools and queues, bigger socket buffers, connections
+ *       recycled sooner. For many concurrent clients and bulk payloads.</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * CakeWebApplication.run(config -> {
+ *     ConnectorConfig connector = ConnectorConfig.highThroughput();
+ *     connector.setMaxThreads(400);
+ *     config.setConnector(connector);
+ * });
+ * }</pre>
+ *
+ * @since 0.0.46
+ * @see CakeWebConfig#setConnector(ConnectorConfig)
+ */
+public class ConnectorConfig {
+    /**
+     * Implementation of the HTTP/1.1 protocol handler.
+     */
+    public enum Protocol {
+        /** Non-blocking I/O with selectors, the Tomcat default. */
+        NIO("org.apache.coyote.http11.Http11NioProtocol"),
+
+        /** Asynchronous channels of NIO.2. */
+        NIO2("org.apache.coyote.http11.Http11Nio2Protocol");
+
+        private final String className;
+
+        Protocol(String className) {
+            this.className = className;
+        }
+
+        public String className() { return className; }
+    }
+
+    private Protocol protocol;
+    private Integer maxThreads;
+    private Integer minSpareThreads;
+    private Integer acceptCount;
+    private Integer maxConnections;
+    private Integer connectionTimeout;
+    private Integer keepAliveTimeout;
+    private Integer maxKeepAliveRequests;
+    private Integer socketReceiveBufferSize;
+    private Integer socketSendBufferSize;
+    private Boolean tcpNoDelay;
+
+    /**
+     * Preset for low latency: 50 spare threads out of 200, connections kept alive for 60 s with
+     * no request limit (no new handshakes), and TCP_NODELAY.
+     *
+     * @return a new connector configuration
+     */
+    public static ConnectorConfig lowLatency() {
+        ConnectorConfig config = new ConnectorConfig();
+        config.setProtocol(Protocol.NIO);
+        config.setMaxThreads(200);
+        config.setMinSpareThreads(50);
+        config.setAcceptCount(100);
+        config.setConnectionTimeout(5_000);
+        config.setKeepAliveTimeout(60_000);
+        config.setMaxKeepAliveRequests(-1);
+        config.setTcpNoDelay(true);
+
+        return config;
+    }
+
+    /**
+     * Preset for high throughput: 800 threads, 20,000 connections with a backlog of 1,000,
+     * 64 KiB socket buffers, and connections recycled after 1,000 requests or 15 s idle.
+     *
+     * @return a new connector configuration
+     */
+    public static ConnectorConfig highThroughput() {
+        ConnectorConfig config = new ConnectorConfig();
+        config.setProtocol(Protocol.NIO);
+        config.setMaxThreads(800);
+        config.setMinSpareThreads(25);
+        config.setAcceptCount(1_000);
+        config.setMaxConnections(20_000);
+        config.setConnectionTimeout(20_000);
+        config.setKeepAliveTimeout(15_000);
+        config.setMaxKeepAliveRequests(1_000);
+        config.setSocketReceiveBufferSize(65_536);
+        config.setSocketSendBufferSize(65_536);
+        config.setTcpNoDelay(true);
+
+        return config;
+    }
+
+    /** Protocol handler. Null keeps the default (NIO). */
+    public Protocol getProtocol() { return protocol; }
+    public void setProtocol(Protocol protocol) { this.protocol = protocol; }
+
+    /** Maximum number of request processing threads. Ignored with virtual threads. */
+    public Integer getMaxThreads() { return maxThreads; }
+    public void setMaxThreads(Integer maxThreads) { this.maxThreads = maxThreads; }
+
+    /** Number of threads always kept alive. Ignored with virtual threads. */
+    public Integer getMinSpareThreads() { return minSpareThreads; }
+    public void setMinSpareThreads(Integer minSpareThreads) { this.minSpareThreads = minSpareThreads; }
+
+    /** Length of the queue of incoming connections when all the connections are in use. */
+    public Integer getAcceptCount() { return acceptCount; }
+    public void setAcceptCount(Integer acceptCount) { this.acceptCount = acceptCount; }
+
+    /** Maximum number of connections accepted and processed at the same time. */
+    public Integer getMaxConnections() { return maxConnections; }
+    public void setMaxConnections(Integer maxConnections) { this.maxConnections = maxConnections; }
+
+    /** Time, in milliseconds, to wait for the request line after a connection is accepted. */
+    public Integer getConnectionTimeout() { return connectionTimeout; }
+    public void setConnectionTimeout(Integer connectionTimeout) { this.connectionTimeout = connectionTimeout; }
+
+    /** Time, in milliseconds, an idle keep-alive connection waits for the next request. */
+    public Integer getKeepAliveTimeout() { return keepAliveTimeout; }
+    public void setKeepAliveTimeout(Integer keepAliveTimeout) { this.keepAliveTimeout = keepAliveTimeout; }
+
+    /** Maximum number of requests on one keep-alive connection; -1 means no limit. */
+    public Integer getMaxKeepAliveRequests() { return maxKeepAliveRequests; }
+    public void setMaxKeepAliveRequests(Integer maxKeepAliveRequests) { this.maxKeepAliveRequests = maxKeepAliveRequests; }
+
+    /** Socket receive buffer size (SO_RCVBUF), in bytes. */
+    public Integer getSocketReceiveBufferSize() { return socketReceiveBufferSize; }
+    public void setSocketReceiveBufferSize(Integer socketReceiveBufferSize) { this.socketReceiveBufferSize = socketReceiveBufferSize; }
+
+    /** Socket send buffer size (SO_SNDBUF), in bytes. */
+    public Integer getSocketSendBufferSize() { return socketSendBufferSize; }
+    public void setSocketSendBufferSize(Integer socketSendBufferSize) { this.socketSendBufferSize = socketSendBufferSize; }
+
+    /** Disable Nagle's algorithm (TCP_NODELAY), sending small responses without delay. */
+    public Boolean getTcpNoDelay() { return tcpNoDelay; }
+    public void setTcpNoDelay(Boolean tcpNoDelay) { this.tcpNoDelay = tcpNoDelay; }
+
+    /**
+     * Get the settings as Tomcat connector attributes (the names used in {@code server.xml}),
+     * leaving out the protocol and the settings not set.
+     *
+     * @return the connector attributes, in a stable order
+     */
+    public Map<String, String> toConnectorProperties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+
+        put(properties, "maxThreads", maxThreads);
+        put(properties, "minSpareThreads", minSpareThreads);
+        put(properties, "acceptCount", acceptCount);
+        put(properties, "maxConnections", maxConnections);
+        put(properties, "connectionTimeout", connectionTimeout);
+        put(properties, "keepAliveTimeout", keepAliveTimeout);
+        put(properties, "maxKeepAliveRequests", maxKeepAliveRequests);
+        put(properties, "socket.rxBufSize", socketReceiveBufferSize);
+        put(properties, "socket.txBufSize", socketSendBufferSize);
+        put(properties, "tcpNoDelay", tcpNoDelay);
+
+        return properties;
+    }
+
+    private static void put(Map<String, String> properties, String name, Object value) {
+        if (value != null) {
+            properties.put(name, value.toString());
+        }
+    }
+}
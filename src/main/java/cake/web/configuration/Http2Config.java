@@ -0,0 +1,36 @@
+package cake.web.configuration;
+
+/**
+ * HTTP/2 on the connector of the embedded Tomcat.
+ *
+ * <p>When enabled, the connector accepts HTTP/2 besides HTTP/1.1: negotiated by ALPN when TLS
+ * is on ({@link CakeWebConfig#setTls(TlsConfig)}), and as h2c (upgrade or prior knowledge) on
+ * plain text connections, e.g., for internal traffic. Many concurrent requests of a client
+ * then share one connection as multiplexed streams. Settings left null keep the Tomcat
+ * defaults.</p>
+ *
+ * @since 0.0.46
+ * @see CakeWebConfig#getHttp2()
+ */
+public class Http2Config {
+    private boolean enabled = false;
+    private Long maxConcurrentStreams;
+    private Integer initialWindowSize;
+    private Integer maxConcurrentStreamExecution;
+
+    /** Accept HTTP/2 connections. */
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    /** Maximum number of active streams of one connection (Tomcat default: 100). */
+    public Long getMaxConcurrentStreams() { return maxConcurrentStreams; }
+    public void setMaxConcurrentStreams(Long maxConcurrentStreams) { this.maxConcurrentStreams = maxConcurrentStreams; }
+
+    /** Initial flow control window of a stream, in bytes (Tomcat default: 65535). */
+    public Integer getInitialWindowSize() { return initialWindowSize; }
+    public void setInitialWindowSize(Integer initialWindowSize) { this.initialWindowSize = initialWindowSize; }
+
+    /** Maximum number of streams of one connection processed at the same time (Tomcat default: 20). */
+    public Integer getMaxConcurrentStreamExecution() { return maxConcurrentStreamExecution; }
+    public void setMaxConcurrentStreamExecution(Integer maxConcurrentStreamExecution) { this.maxConcurrentStreamExecution = maxConcurrentStreamExecution; }
+}
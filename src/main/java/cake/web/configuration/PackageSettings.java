@@ -0,0 +1,81 @@
+package cake.web.configuration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>A setting configured by fully qualified class name or by package, such as the scope, the
+ * time to live or the maximum wait of the resources.</p>
+ *
+ * <p>The setting of a class is the entry of its name, or else the entry of its nearest
+ * enclosing package, up to the root package {@code ""}. A package applies to its sub packages.
+ * A class without any entry gets the default value.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is thread-safe. The entries are copied when it is created, and the setting of
+ * each class is looked up once and cached in a {@link ConcurrentHashMap}.</p>
+ *
+ * @param <T> the type of the setting
+ *
+ * @since 0.0.46
+ */
+public class PackageSettings<T> {
+    private final Map<String, T> entries;
+    private final T defaultValue;
+
+    // Cache of the setting of each class.
+    private final Map<Class<?>, T> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Create the settings of the given entries.
+     *
+     * @param entries      the settings by fully qualified class name or package
+     * @param defaultValue the setting of the classes without an entry, not null
+     */
+    public PackageSettings(Map<String, ? extends T> entries, T defaultValue) {
+        this.entries = Map.copyOf(entries);
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Get the setting of the class: the entry of the class name, or else the entry of the
+     * nearest enclosing package.
+     *
+     * @param type the class
+     * @return the configured setting, the default value if there is none
+     */
+    public T of(Class<?> type) {
+        T value = cache.get(type);
+
+        if (value == null) {
+            value = of(type.getName());
+            cache.put(type, value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Get the setting of the class name, without caching it.
+     *
+     * @param className the fully qualified class name
+     * @return the configured setting, the default value if there is none
+     */
+    public T of(String className) {
+        String name = className;
+
+        while (true) {
+            T value = entries.get(name);
+
+            if (value != null) {
+                return value;
+            }
+            if (name.isEmpty()) {
+                return defaultValue;
+            }
+
+            int lastDot = name.lastIndexOf('.');
+            name = (lastDot < 0) ? "" : name.substring(0, lastDot);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package cake.web.configuration;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memo of the results of parent resources, for nested URIs whose parent lookup is expensive
+ * (e.g., {@code /customer/123/proposal/456} calling {@code Customer.get(123)} on every request).
+ *
+ * <p>Only the parent resources given a time to live are memoized: by fully qualified class name
+ * or by package name, the most specific entry wins, a package applies to its sub packages and an
+ * empty name applies to all the resources. The memo holds at most {@link #getMaxEntries()}
+ * results and evicts the least recently used beyond it. A successful POST, PUT, PATCH or DELETE
+ * addressed to the path of a parent, or above it, invalidates its results.</p>
+ *
+ * <pre>{@code
+ * CakeWebApplication.run(config -> {
+ *     config.getParentMemo().setEnabled(true);
+ *     config.getParentMemo().setTtl("com.bank.loan.Customer", 2_000);
+ * });
+ * }</pre>
+ *
+ * @since 0.0.46
+ * @see CakeWebConfig#getParentMemo()
+ */
+public class ParentMemoConfig {
+    private boolean enabled = false;
+    private int maxEntries = 10_000;
+    private Map<String, Long> ttls = new LinkedHashMap<>();
+
+    /** Memoize the results of the parent resources that have a time to live. */
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    /** Maximum number of parent results kept. */
+    public int getMaxEntries() { return maxEntries; }
+    public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+
+    /**
+     * Time to live, in milliseconds, of the parent results, by fully qualified class name or by
+     * package name. Parents without an entry are called on every request.
+     */
+    public Map<String, Long> getTtls() { return Collections.unmodifiableMap(ttls); }
+    public void setTtl(String classOrPackageName, long ttlMillis) { this.ttls.put(classOrPackageName, ttlMillis); }
+}
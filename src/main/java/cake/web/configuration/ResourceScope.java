@@ -0,0 +1,25 @@
+package cake.web.configuration;
+
+/**
+ * Lifetime of the resource instances created by the framework.
+ *
+ * <p>Resources are stateless by convention: the parent result is passed as a parameter, never
+ * kept in the child. A resource with a wider scope than {@link #PER_REQUEST} is shared, so it
+ * must be safe to use from several threads at the same time.</p>
+ *
+ * @since 0.0.46
+ * @see CakeWebConfig#setResourceScope(String, ResourceScope)
+ */
+public enum ResourceScope {
+    /** One instance for the whole application. Created at startup when the class is known. */
+    SINGLETON,
+
+    /**
+     * One instance for each server thread, created on its first request. With virtual threads,
+     * each request runs on a new thread, so the instance is not reused.
+     */
+    PER_THREAD,
+
+    /** A new instance for each request, and for each use in a nested resource chain. The default. */
+    PER_REQUEST
+}
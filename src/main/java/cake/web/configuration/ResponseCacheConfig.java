@@ -0,0 +1,45 @@
+package cake.web.configuration;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-process cache of serialized GET responses, for read-heavy resources (e.g., reference data).
+ *
+ * <p>Only the resources given a time to live are cached: by fully qualified class name or by
+ * package name, the most specific entry wins, a package applies to its sub packages and an
+ * empty name applies to all the resources. The cache holds at most {@link #getMaxBytes()} of
+ * bodies and evicts the least recently used responses beyond it. A successful POST, PUT, PATCH
+ * or DELETE invalidates the responses of its path.</p>
+ *
+ * <pre>{@code
+ * CakeWebApplication.run(config -> {
+ *     config.getResponseCache().setEnabled(true);
+ *     config.getResponseCache().setTtl("com.bank.reference", 300_000);
+ * });
+ * }</pre>
+ *
+ * @since 0.0.46
+ * @see CakeWebConfig#getResponseCache()
+ */
+public class ResponseCacheConfig {
+    private boolean enabled = false;
+    private long maxBytes = 67_108_864;
+    private Map<String, Long> ttls = new LinkedHashMap<>();
+
+    /** Cache the GET responses of the resources that have a time to live. */
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    /** Maximum memory, in bytes, taken by the cached responses. */
+    public long getMaxBytes() { return maxBytes; }
+    public void setMaxBytes(long maxBytes) { this.maxBytes = maxBytes; }
+
+    /**
+     * Time to live, in milliseconds, of the cached responses, by fully qualified class name or
+     * by package name. Resources without an entry are not cached.
+     */
+    public Map<String, Long> getTtls() { return Collections.unmodifiableMap(ttls); }
+    public void setTtl(String classOrPackageName, long ttlMillis) { this.ttls.put(classOrPackageName, ttlMillis); }
+}
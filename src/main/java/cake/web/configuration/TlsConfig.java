@@ -0,0 +1,36 @@
+package cake.web.configuration;
+
+/**
+ * TLS on the connector of the embedded Tomcat, from a key store holding the server certificate.
+ *
+ * @since 0.0.46
+ * @see CakeWebConfig#setTls(TlsConfig)
+ */
+public class TlsConfig {
+    private String keyStoreFile;
+    private String keyStorePassword;
+    private String keyStoreType = "PKCS12";
+
+    /**
+     * Create a TLS configuration with the given key store.
+     *
+     * @param keyStoreFile     path of the key store file
+     * @param keyStorePassword password of the key store
+     */
+    public TlsConfig(String keyStoreFile, String keyStorePassword) {
+        this.keyStoreFile = keyStoreFile;
+        this.keyStorePassword = keyStorePassword;
+    }
+
+    /** Path of the key store file holding the server certificate and its private key. */
+    public String getKeyStoreFile() { return keyStoreFile; }
+    public void setKeyStoreFile(String keyStoreFile) { this.keyStoreFile = keyStoreFile; }
+
+    /** Password of the key store. */
+    public String getKeyStorePassword() { return keyStorePassword; }
+    public void setKeyStorePassword(String keyStorePassword) { this.keyStorePassword = keyStorePassword; }
+
+    /** Type of the key store, PKCS12 by default. */
+    public String getKeyStoreType() { return keyStoreType; }
+    public void setKeyStoreType(String keyStoreType) { this.keyStoreType = keyStoreType; }
+}
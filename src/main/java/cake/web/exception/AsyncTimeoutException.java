@@ -0,0 +1,9 @@
+package cake.web.exception;
+
+/**
+ * Thrown when an asynchronous resource method does not complete within the async timeout.
+ * Translated into HTTP 503.
+ */
+public class AsyncTimeoutException extends FrameworkException {
+    public AsyncTimeoutException(String message) { super(message); }
+}
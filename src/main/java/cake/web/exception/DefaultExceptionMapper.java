@@ -1,6 +1,6 @@
 package cake.web.exception;
 
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
 
@@ -20,10 +20,18 @@ public class DefaultExceptionMapper implements ExceptionMapper {
                     response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
                     response.getWriter().println(bre.getMessage());
                 }
+                case PayloadTooLargeException ptle -> {
+                    response.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+                    response.getWriter().println(ptle.getMessage());
+                }
                 case BusinessException be -> {
                     response.setStatus(HttpServletResponse.SC_CONFLICT);
                     response.getWriter().println(be.getMessage());
                 }
+                case AsyncTimeoutException ate -> {
+                    response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    response.getWriter().println("Timeout: " + ate.getMessage());
+                }
                 case FrameworkException fe -> {
                     response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
                     response.getWriter().println("Framework error: " + fe.getMessage());
@@ -1,6 +1,6 @@
 package cake.web.exception;
 
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
 /**
  * Interface for mapping exceptions to HTTP responses.
  */
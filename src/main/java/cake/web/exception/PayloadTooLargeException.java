@@ -0,0 +1,9 @@
+package cake.web.exception;
+
+/**
+ * Thrown when the request body exceeds the size the server accepts, e.g., a compressed body
+ * that inflates beyond the maximum decompressed size. Translated into HTTP 413.
+ */
+public class PayloadTooLargeException extends BusinessException {
+    public PayloadTooLargeException(String message) { super(message); }
+}
@@ -3,19 +3,31 @@ package cake.web.exchange;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 
-import javax.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
 
 import cake.web.exception.AmbiguityException;
 import cake.web.exception.NotFoundException;
 import cake.web.exception.ResourceResolutionException;
+import cake.web.exchange.content.Parent;
+import cake.web.resource.CallCoalescing;
+import cake.web.resource.Invokers;
 import cake.web.resource.MethodHandler;
 import cake.web.resource.MethodResolution;
+import cake.web.resource.ParentMemo;
+import cake.web.resource.ResourceRegistry;
+import cake.web.resource.RouteTrie;
+import cake.web.response.EntityTags;
+import cake.web.response.NotModified;
 
 /**
  * <p>Base class for handling HTTP request exchanges in the Cake Web framework.</p>
@@ -23,7 +35,8 @@ import cake.web.resource.MethodResolution;
  * <p>This class orchestrates the entire request processing flow:</p>
  * <ol>
  *   <li>Parses the request URI into tokens</li>
- *   <li>Extracts request data (body, query params, headers) via {@link HttpDataHandle}</li>
+ *   <li>Gives access to request data (body, query params, headers) via {@link HttpDataHandle},
+ *       extracted only when a method parameter needs it</li>
  *   <li>Resolves the resource class chain from URI tokens</li>
  *   <li>Instantiates resources using their no-arg constructors</li>
  *   <li>Injects parent resource results into child resources</li>
@@ -31,11 +44,26 @@ import cake.web.resource.MethodResolution;
  *   <li>Invokes the method with converted parameters</li>
  * </ol>
  * 
+ * <h3>Entity Tags</h3>
+ * <p>A resource may declare an {@code etag} method, with the same parameters as its {@code get}
+ * method, returning a cheap version of its representation (e.g., a version number). For GET and
+ * HEAD it is called first: when it matches the If-None-Match header, the call answers
+ * {@link NotModified} without invoking the resource method; otherwise the tag is kept for the
+ * response (see {@link #getEntityTag()}).</p>
+ * 
+ * <h3>Call Coalescing</h3>
+ * <p>GET and HEAD methods are called through the {@link CallCoalescing} of the registry: when
+ * the resource opted in, a call identical to one in flight waits for its result.</p>
+ * 
  * <h3>Parent Resource Injection</h3>
  * <p>When a URI has a nested resource chain (e.g., {@code /customer/123/proposal/456}),
  * the framework automatically resolves each parent resource and passes its result
  * as the first parameter to the child resource's method. This enables natural
- * navigation of resource hierarchies.</p>
+ * navigation of resource hierarchies. A parent that opted into the {@link ParentMemo}
+ * is called once per time to live; a successful POST, PUT, PATCH or DELETE invalidates
+ * the results memoized at its path, and again when the {@link CompletionStage} it returns
+ * completes. A child method taking a {@link Parent} instead of the
+ * result calls the parent only if it dereferences it.</p>
  * 
  * <h3>Design Intention</h3>
  * <p>This class embodies the framework's core convention: <b>URI path → Java package/class</b>.
@@ -52,12 +80,24 @@ import cake.web.resource.MethodResolution;
  */
 abstract class AbstractRequestExchange {
     private static final Map<String, Class<?>> resourceCache = new ConcurrentHashMap<>();
+
+    // Methods that invalidate the memoized results of the parents at their path.
+    private static final Set<HttpMethodName> WRITE_METHODS = EnumSet.of(
+        HttpMethodName.POST, HttpMethodName.PUT, HttpMethodName.PATCH, HttpMethodName.DELETE);
+
+    // Whether each resource class declares the etag convention method.
+    private static final Map<Class<?>, Boolean> entityTagSupport = new ConcurrentHashMap<>();
     
     private final HttpDataHandle httpDataHandle;
+    private final ResourceRegistry resourceRegistry;
+    private final String ifNoneMatch;
     
     protected final List<String> tokens;
     protected List<Object> pathParams;
 
+    private Class<?> resourceClass;
+    private String entityTag;
+
     /**
      * Constructs a BaseRequestExchange with the given request.
      * It tokenizes the path and initializes internal state.
@@ -68,6 +108,20 @@ abstract class AbstractRequestExchange {
      * @throws IllegalArgumentException if requestURI or contextPath are null/empty
      */
     AbstractRequestExchange(HttpServletRequest request) throws IOException {
+        this(request, ResourceRegistry.lazy());
+    }
+
+    /**
+     * Constructs a BaseRequestExchange with the given request, resolving resources
+     * through the given registry.
+     * 
+     * @param request          the HttpServletRequest object
+     * @param resourceRegistry the resource resolution state prepared at startup
+     * @throws IOException              if an I/O error occurs reading the request
+     *                                  body
+     * @throws IllegalArgumentException if requestURI or contextPath are null/empty
+     */
+    AbstractRequestExchange(HttpServletRequest request, ResourceRegistry resourceRegistry) throws IOException {
         String requestURI = request.getRequestURI(); // Extract the path from the URI
         String contextPath = request.getContextPath(); // Assuming contextPath is part of the path
 
@@ -81,6 +135,8 @@ abstract class AbstractRequestExchange {
         }
 
         this.httpDataHandle = new HttpDataHandle(request);
+        this.resourceRegistry = resourceRegistry;
+        this.ifNoneMatch = request.getHeader(EntityTags.IF_NONE_MATCH);
 
         this.tokens = tokenizePath(requestURI, contextPath);
         this.pathParams = new ArrayList<>();
@@ -116,11 +172,72 @@ abstract class AbstractRequestExchange {
     protected Object call(HttpMethodName httpMethod) 
         throws IllegalArgumentException, NoSuchMethodException, ClassNotFoundException, AmbiguityException
     {
-        Object resource = lookForResource();
+        try {
+            Object resource = lookForResource();
+            resourceClass = resource.getClass();
+
+            if ((httpMethod == HttpMethodName.GET || httpMethod == HttpMethodName.HEAD) && hasEntityTagMethod(resourceClass)) {
+                entityTag = callEntityTagMethod(resource);
+
+                if (EntityTags.matches(ifNoneMatch, entityTag)) {
+                    // The client has the current representation, the resource method is not called.
+                    return new NotModified(entityTag);
+                }
+            }
 
-        MethodResolution methodResolution = findHttpMethod(resource.getClass(), httpMethod);
+            MethodResolution methodResolution = findHttpMethod(resourceClass, httpMethod);
 
-        return methodResolution.call(resource);
+            if (httpMethod == HttpMethodName.GET || httpMethod == HttpMethodName.HEAD) {
+                return resourceRegistry.callCoalescing().call(resource, methodResolution);
+            }
+
+            Object result = methodResolution.call(resource);
+
+            if (WRITE_METHODS.contains(httpMethod)) {
+                ParentMemo parentMemo = resourceRegistry.parentMemo();
+                String written = pathOf(tokens);
+
+                parentMemo.invalidate(written);
+
+                // The write goes on until its stage completes: invalidate again before the answer.
+                if (result instanceof CompletionStage<?> stage) {
+                    CompletionStage<?> answer = stage.whenComplete((_, _) -> parentMemo.invalidate(written));
+
+                    // Cancelling the answer, e.g., after a timeout, cancels the write as before.
+                    if (stage instanceof CompletableFuture<?> write && answer instanceof CompletableFuture<?> cancellable) {
+                        cancellable.whenComplete((_, _) -> {
+                            if (cancellable.isCancelled()) {
+                                write.cancel(true);
+                            }
+                        });
+                    }
+
+                    return answer;
+                }
+            }
+
+            return result;
+        } finally {
+            httpDataHandle.finish();
+        }
+    }
+
+    /**
+     * Gets the entity tag supplied by the etag method of the resource, for GET and HEAD.
+     * 
+     * @return the quoted entity tag, or null if the resource has no etag method
+     */
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    /**
+     * Gets the class of the resource that answered the request, the last one of the chain.
+     * 
+     * @return the resource class, or null if the call did not resolve a resource
+     */
+    public Class<?> getResourceClass() {
+        return resourceClass;
     }
 
     /**
@@ -136,8 +253,15 @@ abstract class AbstractRequestExchange {
      * @throws AmbiguityException 
      */
     private Object lookForResource() throws ClassNotFoundException, NoSuchMethodException, IllegalArgumentException, AmbiguityException {
+        Optional<RouteTrie> routeTrie = resourceRegistry.routeTrie();
+
+        if (routeTrie.isPresent()) {
+            return lookForResource(routeTrie.get());
+        }
+
         Object resource = null;
         StringBuilder fullClassName = new StringBuilder();
+        StringBuilder resourcePath = new StringBuilder();
 
         Iterator<String> tokenIterator = tokens.iterator();
         Optional<Class<?>> classFounded;
@@ -146,7 +270,8 @@ abstract class AbstractRequestExchange {
         // First we need to find the root resource, which is the first class that can be loaded from the tokens.
         while(tokenIterator.hasNext() && resource == null) {
             token = tokenIterator.next();
-            classFounded = tryLoadClass(fullClassName.toString(), capitalize(token));
+            appendSegment(resourcePath, token);
+            classFounded = tryLoadClass(fullClassName.toString(), capitalize(token), true);
 
             // If no class found, ...
             if (!classFounded.isPresent()) {
@@ -163,7 +288,7 @@ abstract class AbstractRequestExchange {
         // The resource was founded previously. Then, take the next tokens and try to find child resources or path parameters.
         while(resource != null && tokenIterator.hasNext()) {
             token = tokenIterator.next();
-            classFounded = tryLoadClass(fullClassName.toString(), capitalize(token));
+            classFounded = tryLoadClass(fullClassName.toString(), capitalize(token), false);
 
             // The resource was founded previously.
             // If other class was not found, ...
@@ -173,27 +298,114 @@ abstract class AbstractRequestExchange {
             }
             // Other resource was founded.
             else {
-                // find get method on parent resource to obtain child parentResource attribute.
-                MethodResolution parentResourceGetMethod = findHttpMethod(resource.getClass(), HttpMethodName.GET);
+                resource = instantiateChildResource(resource, classFounded.get(), resourcePath.toString());
+            }
 
-                // call parent's get method to obtain child parentResource attribute.
-                Object parentResourceResult = parentResourceGetMethod.call(resource);
+            appendSegment(resourcePath, token);
+        }
 
-                // put parent result as parameter for child resource resolution (if any)
-                pathParams.add(parentResourceResult);
+        if (resource == null) {
+            throw new ClassNotFoundException("No resource found for given URI");
+        }
 
-                // inject parent result into child resource
-                resource = instantiateResource(classFounded.get());
+        return resource;
+    }
+
+    /**
+     * Resolves the resource chain walking the route trie compiled at startup. It follows
+     * the same rules of the lazy discovery, but each token costs a hash lookup and the
+     * class loader is never reached.
+     * 
+     * @param routeTrie the route trie compiled at startup
+     * @return the resolved resource object
+     * @throws NotFoundException        if the URI does not lead to a resource of the trie
+     * @throws NoSuchMethodException    if a required method is not found during resolution
+     * @throws IllegalArgumentException if method parameters do not match expected types
+     * @throws AmbiguityException 
+     */
+    private Object lookForResource(RouteTrie routeTrie) throws NoSuchMethodException, IllegalArgumentException, AmbiguityException {
+        Object resource = null;
+        RouteTrie.Node node = routeTrie.root();
+        StringBuilder resourcePath = new StringBuilder();
+
+        Iterator<String> tokenIterator = tokens.iterator();
+        Class<?> classFounded;
+        String token;
+
+        // Walk the package segments until the root resource.
+        while(tokenIterator.hasNext() && resource == null) {
+            token = tokenIterator.next();
+
+            if (token.isEmpty()) {
+                continue;
             }
+
+            appendSegment(resourcePath, token);
+            classFounded = node.resource(token);
+
+            if (classFounded != null) {
+                resource = instantiateResource(classFounded);
+            } else {
+                node = node.child(token);
+
+                // Unknown prefix, there is no resource below it.
+                if (node == null) {
+                    throw new NotFoundException("No resource found for given URI");
+                }
+            }
+        }
+
+        // Child resources live in the same package of the root resource, other tokens are path parameters.
+        while(resource != null && tokenIterator.hasNext()) {
+            token = tokenIterator.next();
+            classFounded = node.resource(token);
+
+            if (classFounded == null) {
+                pathParams.add(token);
+            } else {
+                resource = instantiateChildResource(resource, classFounded, resourcePath.toString());
+            }
+
+            appendSegment(resourcePath, token);
         }
 
         if (resource == null) {
-            throw new ClassNotFoundException("No resource found for given URI");
+            throw new NotFoundException("No resource found for given URI");
         }
 
         return resource;
     }
 
+    /**
+     * Resolves the get method of the parent resource and keeps it, as a {@link Parent}, as
+     * the first parameter for the child resource. The get method is called when the child
+     * method takes the result itself, or dereferences the {@link Parent}. The result may
+     * come from the {@link ParentMemo} of the registry, when the parent opted in.
+     * 
+     * @param parentResource the parent resource already resolved
+     * @param childClass     the class of the child resource
+     * @param parentPath     the path of the parent resource and its path parameters
+     * @return the instantiated child resource
+     * @throws NoSuchMethodException    if the parent has no suitable get method
+     * @throws IllegalArgumentException if method parameters do not match expected types
+     * @throws AmbiguityException 
+     */
+    private Object instantiateChildResource(Object parentResource, Class<?> childClass, String parentPath) throws NoSuchMethodException, IllegalArgumentException, AmbiguityException {
+        // find get method on parent resource to obtain child parentResource attribute.
+        MethodResolution parentResourceGetMethod = findHttpMethod(parentResource.getClass(), HttpMethodName.GET);
+        ParentMemo parentMemo = resourceRegistry.parentMemo();
+
+        // the parent's get method is called when the child method needs its result, not before.
+        Parent<Object> parent = new Parent<>(parentResourceGetMethod.method(), parentResourceGetMethod.args(),
+            () -> parentMemo.call(parentResource, parentResourceGetMethod, parentPath));
+
+        // put parent as parameter for child resource resolution (if any)
+        pathParams.add(parent);
+
+        // inject parent result into child resource
+        return instantiateResource(childClass);
+    }
+
     /**
      * Finds a method in the given resource class that matches the HTTP method name
      * and can accept the provided path parameters.
@@ -215,6 +427,67 @@ abstract class AbstractRequestExchange {
         return methodResolution;
     }
 
+    /**
+     * Calls the etag method of the resource, with the same parameters as its get method. The
+     * path parameters are kept for the get method.
+     * 
+     * @param resource the resource answering the request
+     * @return the quoted entity tag, or null if the method returns null
+     * @throws NoSuchMethodException    if no etag method accepts the parameters
+     * @throws IllegalArgumentException if method parameters do not match expected types
+     * @throws AmbiguityException 
+     */
+    private String callEntityTagMethod(Object resource) throws NoSuchMethodException, IllegalArgumentException, AmbiguityException {
+        List<Object> getPathParams = new ArrayList<>(pathParams);
+
+        MethodResolution etagMethod = MethodHandler.findEntityTagMethod(resource.getClass(), pathParams, httpDataHandle);
+        pathParams = getPathParams;
+
+        Object value = etagMethod.call(resource);
+
+        return (value == null) ? null : EntityTags.of(value);
+    }
+
+    private static boolean hasEntityTagMethod(Class<?> resourceClass) {
+        Boolean supported = entityTagSupport.get(resourceClass);
+
+        if (supported == null) {
+            supported = Arrays.stream(resourceClass.getMethods())
+                .anyMatch(m -> m.getName().equals(MethodHandler.ENTITY_TAG_METHOD));
+            entityTagSupport.put(resourceClass, supported);
+        }
+
+        return supported;
+    }
+
+    /**
+     * Appends a path token to the path of a resource, ignoring empty tokens.
+     * 
+     * @param path  the path built so far
+     * @param token the path token
+     */
+    private static void appendSegment(StringBuilder path, String token) {
+        if (!token.isEmpty()) {
+            path.append('/').append(token);
+        }
+    }
+
+    /**
+     * Builds the path of the request from its tokens, without the context path.
+     * 
+     * @param tokens the path tokens
+     * @return the path, "/" for the root
+     */
+    private static String pathOf(List<String> tokens) {
+        StringBuilder path = new StringBuilder();
+
+        for (String token : tokens) {
+            appendSegment(path, token);
+        }
+
+        return path.isEmpty() ? "/" : path.toString();
+    }
+
     /**
      * Tokenizes the path after the contextPath, splitting on '/' and ignoring empty
      * tokens.
@@ -243,28 +516,34 @@ abstract class AbstractRequestExchange {
     }
 
     /**
-     * Instantiates a resource class using its public no-arg constructor.
+     * Gets an instance of the resource class, according to the scope configured for it.
+     * A new instance is created by the public no-arg constructor, compiled once by {@link Invokers},
+     * unless the class is scoped as a singleton or per thread.
      * 
      * @param resourceClass the Class to instantiate
      * @return the instantiated object
      * @throws ResourceResolutionException if instantiation fails
      */
     private Object instantiateResource(Class<?> resourceClass) {
-        try {
-            return resourceClass.getDeclaredConstructor().newInstance();
-        } catch (ReflectiveOperationException e) {
-            throw new ResourceResolutionException(
-                    "Resource class " + resourceClass.getName() + " must have a public no-arg constructor.", e);
-        }
+        return resourceRegistry.instantiate(resourceClass);
     }
 
     /**
      * Attempts to load a class by fully qualified class name.
+     * <p>
+     * Tokens that are not Java identifiers (e.g., integers, UUIDs and dates used as path
+     * parameters) cannot name a class and are never probed. Names of the package walk
+     * that are not classes are remembered in the bounded negative lookup cache of the
+     * registry. Misses of path parameter values are not remembered, so the values sent
+     * by clients cannot fill the cache.
+     * </p>
      * 
-     * @param fqcn the fully qualified class name
+     * @param prefix      the package name built so far
+     * @param sufix       the capitalized token
+     * @param rememberMiss true to remember the name in the negative lookup cache if it is not a class
      * @return Optional containing the Class if found, or empty if not found
      */
-    private Optional<Class<?>> tryLoadClass(String prefix, String sufix) {
+    private Optional<Class<?>> tryLoadClass(String prefix, String sufix, boolean rememberMiss) {
         String fqcn = (prefix.isEmpty()) ? sufix : prefix + "." + sufix;
          
         Class<?> classFounded = resourceCache.get(fqcn);
@@ -273,6 +552,10 @@ abstract class AbstractRequestExchange {
             return Optional.of(classFounded);
         }
 
+        if (!isJavaIdentifier(sufix) || resourceRegistry.negativeLookups().get(fqcn) != null) {
+            return Optional.empty();
+        }
+
         try {
             ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
             classFounded = Class.forName(fqcn, false, classLoader);
@@ -281,12 +564,36 @@ abstract class AbstractRequestExchange {
 
             return Optional.of(classFounded);
         } catch (ClassNotFoundException _) {
+            if (rememberMiss) {
+                resourceRegistry.negativeLookups().put(fqcn, Boolean.TRUE);
+            }
+
             return Optional.empty();
         } catch (LinkageError e) {
             throw new NotFoundException("Linkage failure loading " + fqcn, e);
         }
     }
 
+    /**
+     * Checks whether the token can be the simple name of a class.
+     * 
+     * @param s the token
+     * @return true if the token is a valid Java identifier
+     */
+    private boolean isJavaIdentifier(String s) {
+        if (s.isEmpty() || !Character.isJavaIdentifierStart(s.charAt(0))) {
+            return false;
+        }
+
+        for (int i = 1; i < s.length(); i++) {
+            if (!Character.isJavaIdentifierPart(s.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     /**
      * Capitalizes the first letter of the string.
      * 
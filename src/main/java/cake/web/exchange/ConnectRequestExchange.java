@@ -1,15 +1,20 @@
 package cake.web.exchange;
 
 import java.io.IOException;
-import javax.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
 
 import cake.web.exception.AmbiguityException;
+import cake.web.resource.ResourceRegistry;
 
 public class ConnectRequestExchange extends AbstractRequestExchange {
     public ConnectRequestExchange(HttpServletRequest request) throws IOException {
         super(request);
     }
 
+    public ConnectRequestExchange(HttpServletRequest request, ResourceRegistry resourceRegistry) throws IOException {
+        super(request, resourceRegistry);
+    }
+
     @Override
     public Object call() throws IllegalArgumentException, NoSuchMethodException, ClassNotFoundException, AmbiguityException {
         return call(HttpMethodName.CONNECT);
@@ -0,0 +1,239 @@
+package cake.web.exchange;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import cake.web.exception.FrameworkException;
+import cake.web.exchange.content.Convertion;
+
+/**
+ * <p>Populates {@link cake.web.exchange.content.HeaderContent} and
+ * {@link cake.web.exchange.content.QueryParamContent} objects from the request.</p>
+ *
+ * <p>A binder is compiled once per target class: its constructor, one writer per declared field
+ * and the header names each field answers to. The writer is the public setter of the field
+ * (matched case-insensitively, as before) or, when there is none, a direct write to the field.
+ * Both are {@link MethodHandle}s, so binding a request does no reflective lookup and builds no
+ * name variant.</p>
+ *
+ * <h3>Header Names</h3>
+ * <p>Headers are matched case-insensitively. A field answers to its own name and to its
+ * kebab-case form, e.g., field {@code traceId} matches {@code Trace-Id} and {@code traceid}.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>Binders are immutable and cached in a {@link ConcurrentHashMap}.</p>
+ *
+ * @since 0.0.46
+ * @see HttpDataHandle
+ */
+final class ContentBinder {
+    // Cache of compiled binders by target class.
+    private static final Map<Class<?>, ContentBinder> binderCache = new ConcurrentHashMap<>();
+
+    private final Class<?> targetType;
+    private final MethodHandle constructor;
+    private final Attribute[] attributes;
+
+    /**
+     * A field of the target class, with the lower case header names it answers to and its writer.
+     */
+    private record Attribute(String name, String[] headerNames, Class<?> type, MethodHandle writer) {
+        void write(Object instance, String value) {
+            try {
+                writer.invokeExact(instance, Convertion.convert(value, type));
+            } catch (Throwable _) {
+                // The value does not convert to the attribute type, leave the attribute unset.
+            }
+        }
+    }
+
+    private ContentBinder(Class<?> targetType, MethodHandle constructor, Attribute[] attributes) {
+        this.targetType = targetType;
+        this.constructor = constructor;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Get the binder of the target class, compiling it on first use.
+     *
+     * @param targetType the header or query parameter class
+     * @return the binder of the class
+     */
+    static ContentBinder of(Class<?> targetType) {
+        ContentBinder binder = binderCache.get(targetType);
+
+        if (binder == null) {
+            binder = compile(targetType);
+            binderCache.put(targetType, binder);
+        }
+
+        return binder;
+    }
+
+    /**
+     * Create an instance of the target class populated from the request headers.
+     *
+     * @param headers the request headers, keyed by lower case name
+     * @return the populated instance
+     * @throws FrameworkException if the class cannot be instantiated
+     */
+    Object bindHeaders(Map<String, String> headers) {
+        Object result = newInstance("header type");
+
+        for (Attribute attribute : attributes) {
+            for (String headerName : attribute.headerNames()) {
+                String headerValue = headers.get(headerName);
+
+                if (headerValue != null && !headerValue.isEmpty()) {
+                    attribute.write(result, headerValue);
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Create an instance of the target class populated from the query parameters. An empty
+     * parameter sets the attribute to null.
+     *
+     * @param queryParameterMap the query parameters
+     * @return the populated instance
+     * @throws FrameworkException if the class cannot be instantiated
+     */
+    Object bindQueryParameters(Map<String, String[]> queryParameterMap) {
+        Object result = newInstance("query parameter type");
+
+        for (Attribute attribute : attributes) {
+            String[] queryParam = queryParameterMap.get(attribute.name());
+
+            if (queryParam != null && queryParam[0] != null) {
+                attribute.write(result, !queryParam[0].isEmpty() ? queryParam[0] : null);
+            }
+        }
+
+        return result;
+    }
+
+    private Object newInstance(String description) {
+        if (constructor == null) {
+            throw new FrameworkException(
+                    "Failed to create instance of " + description + " " + targetType.getSimpleName() + ": no accessible no-arg constructor");
+        }
+
+        try {
+            return constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new FrameworkException(
+                    "Failed to create instance of " + description + " " + targetType.getSimpleName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static ContentBinder compile(Class<?> targetType) {
+        MethodHandles.Lookup lookup;
+
+        try {
+            lookup = MethodHandles.privateLookupIn(targetType, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new FrameworkException("Cannot access class " + targetType.getName() + ": " + e.getMessage(), e);
+        }
+
+        MethodHandle constructor;
+
+        try {
+            constructor = lookup.findConstructor(targetType, MethodType.methodType(void.class))
+                .asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException _) {
+            constructor = null;
+        }
+
+        List<Attribute> attributes = new ArrayList<>();
+
+        for (Field field : targetType.getDeclaredFields()) {
+            MethodHandle writer = writerOf(lookup, targetType, field);
+
+            if (writer != null) {
+                String name = field.getName();
+                String lowerCaseName = name.toLowerCase(Locale.ROOT);
+                String kebabCaseName = toKebabCase(name);
+                String[] headerNames = lowerCaseName.equals(kebabCaseName) ?
+                    new String[] { lowerCaseName } :
+                    new String[] { lowerCaseName, kebabCaseName };
+
+                attributes.add(new Attribute(name, headerNames, writerType(writer), writer.asType(MethodType.methodType(void.class, Object.class, Object.class))));
+            }
+        }
+
+        return new ContentBinder(targetType, constructor, attributes.toArray(Attribute[]::new));
+    }
+
+    // The public setter of the field, or else the field itself; null if the field cannot be written.
+    private static MethodHandle writerOf(MethodHandles.Lookup lookup, Class<?> targetType, Field field) {
+        String setterName = "set" + field.getName().substring(0, 1).toUpperCase() + field.getName().substring(1);
+
+        for (Method method : targetType.getMethods()) {
+            if (method.getName().equalsIgnoreCase(setterName) && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+                try {
+                    return lookup.unreflect(method);
+                } catch (IllegalAccessException _) {
+                    break;
+                }
+            }
+        }
+
+        int modifiers = field.getModifiers();
+
+        if (field.isSynthetic() || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+            return null;
+        }
+
+        try {
+            return lookup.unreflectSetter(field);
+        } catch (IllegalAccessException _) {
+            return null;
+        }
+    }
+
+    // The type of the value taken by a setter or field writer (the last parameter).
+    private static Class<?> writerType(MethodHandle writer) {
+        return writer.type().parameterType(writer.type().parameterCount() - 1);
+    }
+
+    /**
+     * Converts a camelCase name to lower kebab-case, e.g., {@code traceId} to {@code trace-id}
+     * and {@code requestURL} to {@code request-url}.
+     *
+     * @param name the camelCase name
+     * @return the kebab-case name
+     */
+    static String toKebabCase(String name) {
+        StringBuilder result = new StringBuilder(name.length() + 4);
+
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+
+            if (i > 0 && Character.isUpperCase(c)) {
+                char previous = name.charAt(i - 1);
+                boolean nextIsLowerCase = i + 1 < name.length() && Character.isLowerCase(name.charAt(i + 1));
+
+                if (!Character.isUpperCase(previous) || nextIsLowerCase) {
+                    result.append('-');
+                }
+            }
+
+            result.append(Character.toLowerCase(c));
+        }
+
+        return result.toString();
+    }
+}
@@ -1,50 +1,90 @@
 package cake.web.exchange;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.InputStream;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
-import javax.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
 
+import cake.web.exception.BusinessException;
 
-import cake.web.exception.FrameworkException;
-import cake.web.exchange.content.Convertion;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
 
 /**
+ * <p>Gives access to the data of a request: body, query parameters, headers and
+ * authorization token.</p>
+ *
+ * <p>Each source is extracted on first use and kept for the rest of the request. A request
+ * only pays for the sources consumed by the parameters of the resolved method, e.g., a GET
+ * to a method with only path parameters never reads the body, copies the headers or parses
+ * the query string.</p>
+ *
+ * <p>The number of requests finished without parsing the body is available through
+ * {@link #skippedBodyParsingCount()}.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is not thread-safe. A new instance is created per request.</p>
  */
 public class HttpDataHandle {
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
+    // Reads one field of the body at a time, so the rest of the body is not a trailing token.
+    private static final ObjectReader FIELD_READER = MAPPER.reader().without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+
+    // Requests finished without parsing the body.
+    private static final LongAdder skippedBodyParsings = new LongAdder();
+
     private final HttpServletRequest request;
-    private final Map<String, String[]> queryParameterMap;
-    private final Map<String, String> headers;
-    private final JsonNode bodyContent;
-    private final String authToken;
+    private Map<String, String[]> queryParameterMap;
+    private Map<String, String> headers;
+    private JsonParser bodyParser;
+    private Map<String, JsonNode> skippedBodyFields;
+    private Map<Class<?>, Object> boundBodies;
+    private boolean bodyPresent;
+    private RuntimeException bodyError;
+    private boolean bodyParsed;
+    private String authToken;
+    private boolean authTokenExtracted;
+    private boolean finished;
 
     /**
-     * Constructs a RequestHandle by extracting relevant data from the
-     * HttpServletRequest.
+     * Constructs a RequestHandle over the HttpServletRequest. No data is extracted
+     * until it is needed.
      * 
      * @param request the HttpServletRequest object containing the request data
-     * @throws IOException if an I/O error occurs while reading the request body
      */
-    public HttpDataHandle(HttpServletRequest request) throws IOException {
+    public HttpDataHandle(HttpServletRequest request) {
         this.request = request;
+    }
 
-        // Initializa containers.
-        this.queryParameterMap = request.getParameterMap();
-        this.headers = extractHeaders();
-        this.bodyContent = extractBodyContent();
-        this.authToken = extractAuthToken();
+    /**
+     * Get the number of requests finished without parsing the body, since the start.
+     *
+     * @return the number of requests that skipped body parsing
+     */
+    public static long skippedBodyParsingCount() {
+        return skippedBodyParsings.sum();
     }
 
     /**
      * Builds an instance of the specified type from the JSON body content.
+     * <p>
+     * The body is read as a stream straight from the request input stream. The parser seeks
+     * the top level key of the type and deserializes its value into the type, without building
+     * a tree of the body. Only the top level fields passed over on the way are kept as trees,
+     * for other body parameters of the same method.
+     * </p>
      * @param <T> the type of the object to build
      * @param targetType the class of the object to build
      * @return an instance of the specified type populated from the JSON body content
@@ -52,112 +92,226 @@ public class HttpDataHandle {
      * @throws IllegalArgumentException if the body content cannot be parsed into the target type
      */
     public Object buildFromBody(Class<?> targetType) throws IOException {
-        // There is no body content, so the result is null (e.g., for GET requests)
-        if(bodyContent == null) {
-            return null;
+        if (boundBodies != null && boundBodies.containsKey(targetType)) {
+            return boundBodies.get(targetType);
         }
 
         // Convert to a key (e.g., "Customer" -> "customer")
         String key = targetType.getSimpleName();
         key = Character.toLowerCase(key.charAt(0)) + key.substring(1);
 
-        if (bodyContent.has(key)) {
-            try {
-                // Parse only the subtree for this specific class
-                return MAPPER.treeToValue(bodyContent.get(key), targetType);
-            } catch (Exception e) {
-                throw new IllegalArgumentException(
-                        "Failed to parse JSON body into " + targetType.getSimpleName() + ": " + e.getMessage(), e);
-            }
+        Object result = readBodyField(key, targetType);
+
+        if (boundBodies == null) {
+            boundBodies = new HashMap<>(4);
         }
+        boundBodies.put(targetType, result);
 
-        throw new IllegalArgumentException(
-                "There is no object named " + key + " in the JSON body for type " + targetType.getSimpleName() + ".");
+        return result;
     }
 
     /**
      * Populate an instance of the given header type from the request headers.
+     * Headers are matched case-insensitively, by field name or by its kebab-case form.
      * 
      * @param <T>        the header type
      * @param targetType the class of the header type
      * @return an instance of the header type populated from request headers
      */
     public Object buildFromHeader(Class<?> targetType) {
-        Object result;
+        return ContentBinder.of(targetType).bindHeaders(headers());
+    }
 
-        try {
-            result = targetType.getDeclaredConstructor().newInstance();
-        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-                | NoSuchMethodException e) {
-            throw new FrameworkException(
-                    "Failed to create instance of header type " + targetType.getSimpleName() + ": " + e.getMessage(),
-                    e);
+    /**
+     * Populate an instance of the given query parameter type from the request query parameters.
+     * 
+     * @param <T>        the query parameter type
+     * @param targetType the class of the query parameter type
+     * @return an instance of the query parameter type populated from request query parameters
+     */
+    public Object buildFromQueryParameter(Class<?> targetType) {
+        return ContentBinder.of(targetType).bindQueryParameters(queryParameters());
+    }
+
+    /**
+     * Get the authorization token.
+     * 
+     * @return The authorization token.
+     */
+    public String getAuthToken() {
+        if (!authTokenExtracted) {
+            authToken = extractAuthToken();
+            authTokenExtracted = true;
         }
 
-        for (var field : targetType.getDeclaredFields()) {
-            String headerValue = headers.get(field.getName());
+        return authToken;
+    }
 
-            // In case that header attribute start with uppercase letter.
-            if(headerValue == null) {
-                headerValue = headers.get(
-                    field.getName().substring(0, 1).toUpperCase() + 
-                    field.getName().substring(1));
-            }
+    /**
+     * Check whether the body was parsed during the request.
+     *
+     * @return true if the body was read and parsed
+     */
+    boolean isBodyParsed() {
+        return bodyParsed;
+    }
 
-            if (headerValue != null && !headerValue.isEmpty()) {
-                trySetAttributes(field.getName(), headerValue, targetType, result);
+    /**
+     * Mark the end of the request, releasing the body parser and counting the request in
+     * {@link #skippedBodyParsingCount()} if the body was not parsed. Only the first call counts.
+     */
+    void finish() {
+        if (!finished) {
+            finished = true;
+            closeBody();
+
+            if (!bodyParsed) {
+                skippedBodyParsings.increment();
             }
         }
-
-        return result;
     }
 
     /**
-     * Populate an instance of the given header type from the request headers.
-     * 
-     * @param <T>        the header type
-     * @param targetType the class of the header type
-     * @return an instance of the header type populated from request headers
+     * Read the value of a top level key of the body into the target type.
+     *
+     * @param key        the top level key
+     * @param targetType the type of the value
+     * @return the value, or null if there is no body (e.g., for GET requests)
+     * @throws IOException if an I/O error occurs while reading the request body
+     * @throws IllegalArgumentException if the body is malformed, has no such key or its value does not fit the type
+     * @throws cake.web.exception.BusinessException if reading the body fails with it, e.g., a body too large
      */
-    public Object buildFromQueryParameter(Class<?> targetType) {
-        Object object;
+    private Object readBodyField(String key, Class<?> targetType) throws IOException {
+        if (!bodyParsed) {
+            bodyParsed = true;
+            openBody();
+        }
 
-        try {
-            object = targetType.getDeclaredConstructor().newInstance();
-        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-                | NoSuchMethodException e) {
-            throw new FrameworkException(
-                    "Failed to create instance of query parameter type " + targetType.getSimpleName() + ": " + e.getMessage(),
-                    e);
+        if (bodyError != null) {
+            throw bodyError;
         }
 
-        for (var field : targetType.getDeclaredFields()) {
-            String[] queryParam = queryParameterMap.get(field.getName());
+        if (!bodyPresent) {
+            return null;
+        }
+
+        try {
+            JsonNode skippedField = (skippedBodyFields != null) ? skippedBodyFields.get(key) : null;
+
+            if (skippedField != null) {
+                return MAPPER.treeToValue(skippedField, targetType);
+            }
+
+            while (bodyParser != null) {
+                if (bodyParser.nextToken() != JsonToken.PROPERTY_NAME) {
+                    closeBody();
+                    break;
+                }
 
-            if (queryParam != null && queryParam[0] != null) {
-                String value = !queryParam[0].isEmpty() ? queryParam[0] : null;
+                String name = bodyParser.currentName();
+                bodyParser.nextToken();
 
-                trySetAttributes(field.getName(), value, targetType, object);
+                if (name.equals(key)) {
+                    // Parse only the value for this specific class
+                    return FIELD_READER.forType(targetType).readValue(bodyParser);
+                }
+
+                if (skippedBodyFields == null) {
+                    skippedBodyFields = new HashMap<>(4);
+                }
+                skippedBodyFields.put(name, FIELD_READER.readTree(bodyParser));
             }
+        } catch (JacksonException e) {
+            closeBody();
+            bodyError = bodyError("Failed to parse JSON body into " + targetType.getSimpleName() + ": ", e);
+
+            throw bodyError;
         }
 
-        return object;
+        throw new IllegalArgumentException(
+                "There is no object named " + key + " in the JSON body for type " + targetType.getSimpleName() + ".");
     }
 
     /**
-     * Get the authorization token.
+     * Open a parser over the request body and move it into the root object. The raw input
+     * stream is preferred, Jackson detects its encoding; the reader is used when there is no
+     * input stream.
      * 
-     * @return The authorization token.
+     * @throws IOException if an I/O error occurs while reading the request body
      */
-    public String getAuthToken() {
-        return this.authToken;
+    private void openBody() throws IOException {
+        try {
+            InputStream inputStream = request.getInputStream();
+
+            if (inputStream != null) {
+                bodyParser = MAPPER.createParser(inputStream);
+            } else {
+                BufferedReader reader = request.getReader();
+
+                if (reader == null) {
+                    return;
+                }
+
+                bodyParser = MAPPER.createParser(reader);
+            }
+
+            JsonToken token = bodyParser.nextToken();
+
+            // An empty body is no body at all
+            bodyPresent = (token != null);
+
+            // Only an object has top level keys
+            if (token != JsonToken.START_OBJECT) {
+                closeBody();
+            }
+        } catch (JacksonException e) {
+            closeBody();
+            bodyError = bodyError("Failed to parse JSON body: ", e);
+        }
+    }
+
+    /**
+     * Translate a parsing failure. A business exception raised while reading the body (e.g., a
+     * decompressed body too large) is kept as is, Jackson may have wrapped it.
+     */
+    private static RuntimeException bodyError(String message, JacksonException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof BusinessException businessException) {
+                return businessException;
+            }
+        }
+
+        return new IllegalArgumentException(message + e.getMessage(), e);
+    }
+
+    private void closeBody() {
+        if (bodyParser != null) {
+            bodyParser.close();
+            bodyParser = null;
+        }
+    }
+
+    private Map<String, String> headers() {
+        if (headers == null) {
+            headers = extractHeaders();
+        }
+
+        return headers;
+    }
+
+    private Map<String, String[]> queryParameters() {
+        if (queryParameterMap == null) {
+            queryParameterMap = request.getParameterMap();
+        }
+
+        return queryParameterMap;
     }
 
     /**
      * Extracts headers from the HttpServletRequest into a Map.
      * 
      * @param request the HttpServletRequest object
-     * @return a Map of header names to values
+     * @return a Map of lower case header names to values
      */
     private Map<String, String> extractHeaders() {
         Map<String, String> result = new HashMap<>();
@@ -165,33 +319,12 @@ public class HttpDataHandle {
 
         while (names != null && names.hasMoreElements()) {
             String name = names.nextElement();
-            result.put(name, request.getHeader(name));
+            result.put(name.toLowerCase(Locale.ROOT), request.getHeader(name));
         }
 
         return result;
     }
 
-    /**
-     * Read the body content and convert it to a JSON node.
-     * 
-     * @param request the HttpServletRequest object
-     * @return a JSON node representing the body content
-     * @throws IOException if an I/O error occurs while reading the request body
-     */
-    private JsonNode extractBodyContent() throws IOException {
-        // Get the body lines and concatenate them into a single string
-        String body = request.getReader() != null ? 
-            request.getReader().lines().reduce("", (acc, line) -> acc + line + "\n").trim() : 
-            null;
-
-        // If the body content is not empty, parse it as JSON and store in rootNode
-        if (body != null && !body.isEmpty()) {
-            return MAPPER.readTree(body);
-        } else {
-            return null;
-        }
-    }
-
     /**
      * Extracts the Authorization header as a Bearer token.
      * @param request the HttpServletRequest object
@@ -206,35 +339,4 @@ public class HttpDataHandle {
         
         return auth;
     }
-
-    /**
-     * Tries to set a single attribute on the given instance by name and value.
-     * It first attempts to find a setter method, then falls back to direct field
-     * access.
-     * 
-     * @param name     the attribute name
-     * @param value    the attribute value as string
-     * @param clazz    the class of the instance
-     * @param instance the object instance to set the attribute on
-     */
-    private void trySetAttributes(String name, Object value, Class<?> clazz, Object instance) {
-        String setterName = "set" + name.substring(0, 1).toUpperCase() + name.substring(1);
-
-        // try setter methods first
-        try {
-            for (Method m : clazz.getMethods()) {
-                if (!m.getName().equalsIgnoreCase(setterName) || m.getParameterCount() != 1) {
-                    continue;
-                }
-
-                Class<?> paramType = m.getParameterTypes()[0];
-                Object converted = Convertion.convert(value, paramType);
-                m.invoke(instance, converted);
-
-                return;
-            }
-        } catch (Exception _) {
-            // No setter found, fallback to field
-        }
-    }
 }
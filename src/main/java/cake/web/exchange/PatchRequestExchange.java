@@ -2,15 +2,20 @@ package cake.web.exchange;
 
 import java.io.IOException;
 
-import javax.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
 
 import cake.web.exception.AmbiguityException;
+import cake.web.resource.ResourceRegistry;
 
 public class PatchRequestExchange extends AbstractRequestExchange {
     public PatchRequestExchange(HttpServletRequest request) throws IOException {
         super(request);
     }
 
+    public PatchRequestExchange(HttpServletRequest request, ResourceRegistry resourceRegistry) throws IOException {
+        super(request, resourceRegistry);
+    }
+
     @Override
     public Object call() throws IllegalArgumentException, NoSuchMethodException, ClassNotFoundException, AmbiguityException {
         return call(HttpMethodName.PATCH);
@@ -1,14 +1,17 @@
 package cake.web.exchange.content;
 
+import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * <p>Utility class for converting string values to various Java types based on format recognition.</p>
  * 
- * <p>This class is the core of Cake Web's type conversion system. It uses regular expressions to
- * identify the format of input strings and converts them to appropriate target types. The conversion
+ * <p>This class is the core of Cake Web's type conversion system. It scans the input strings once to
+ * identify their format and converts them to appropriate target types. The conversion
  * is driven by format recognition rather than explicit type mapping, which allows for flexible
  * and intuitive parameter binding.</p>
  * 
@@ -23,8 +26,28 @@ import java.util.UUID;
  *   <li><b>Boolean:</b> "true" and "false" (case-insensitive) are converted to Boolean</li>
  *   <li><b>UUID:</b> Strings matching UUID format are converted to UUID</li>
  *   <li><b>String:</b> All other values are returned as String</li>
+ *   <li><b>Lists:</b> Comma-separated values (e.g., {@code 1,2,3}) are converted element by
+ *       element to a {@link List} or an array of one of the types above</li>
  * </ul>
  * 
+ * <h3>Format Recognition</h3>
+ * <p>{@link #classify(String)} recognizes the format in a single pass over the characters, with no
+ * regular expression and no intermediate string. It accepts exactly the formats below (digits are
+ * ASCII digits):</p>
+ * <ul>
+ *   <li><b>integer:</b> {@code -?\d+}</li>
+ *   <li><b>floating-point:</b> {@code -?\d+(\.\d+)?([eE][+-]?\d+)?}</li>
+ *   <li><b>time:</b> {@code \d{2}:\d{2}:\d{2}(\.\d+)?}, optionally followed by an offset</li>
+ *   <li><b>date:</b> {@code \d{4}-\d{2}-\d{2}}, optionally followed by {@code T} and a time with
+ *       an optional offset and an optional {@code [zone]}</li>
+ *   <li><b>offset:</b> {@code Z} or {@code [+-]\d{2}:\d{2}}</li>
+ *   <li><b>UUID:</b> 8-4-4-4-12 hex digits</li>
+ *   <li><b>boolean:</b> {@code true} or {@code false}, in any case, with surrounding spaces</li>
+ *   <li><b>list:</b> any other value containing a comma</li>
+ * </ul>
+ * <p>The common cases are then parsed by field position (see {@link ValueParser}) instead of
+ * going through the generic parse methods.</p>
+ * 
  * <h3>Design Intention</h3>
  * <p>This class embodies a key framework decision: <b>conversion by format recognition</b>.
  * Instead of requiring annotations or explicit type declarations, the framework infers
@@ -43,22 +66,13 @@ import java.util.UUID;
  * @since 1.0.0
  * @see #convert(Object, Class)
  * @see #kindOfParamType(Object)
+ * @see #classify(String)
  */
 public class Convertion {
     private Convertion() {
         // static class
     }
 
-    private static final String INTEGER_REGEX = "^-?\\d+$";
-    private static final String FLOATING_POINT_REGEX = "^-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?$";
-    private static final String LOCAL_TIME_REGEX = "^\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?$";
-    private static final String LOCAL_DATE_REGEX = "^\\d{4}-\\d{2}-\\d{2}$";
-    private static final String LOCAL_DATE_TIME_REGEX = "^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?$";
-    private static final String OFFSET_DATE_TIME_REGEX = "^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?([+-]\\d{2}:\\d{2}|Z)$";
-    private static final String OFFSET_TIME_REGEX = "^\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?([+-]\\d{2}:\\d{2}|Z)$";
-    private static final String ZONED_DATE_TIME_REGEX = "^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?([+-]\\d{2}:\\d{2}|Z)(\\[.*\\])?$";
-    private static final String UUID_REGEX = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$";
-
     /**
      * Type that framework has capability to convert from String
      */
@@ -100,6 +114,24 @@ public class Convertion {
      * @throws ClassCastException if the conversion cannot be performed due to unsupported types or invalid formats
      */
     public static Object convert(Object object, Class<?> targetType) {
+        if (object == null || targetType.isInstance(object)) {
+            return object;
+        }
+
+        return convert(object, classify(object.toString()), targetType);
+    }
+
+    /**
+     * Converts the given object to the specified target type, using the kind already recognized
+     * in its value. It avoids classifying again a path parameter classified for the method cache key.
+     *
+     * @param object the input object to convert (typically a string representation of a path parameter)
+     * @param kind the kind of the value, as returned by {@link #classify(String)} for {@code object.toString()}
+     * @param targetType the class of the target type to convert to
+     * @return the converted object of the target type
+     * @throws ClassCastException if the conversion cannot be performed due to unsupported types or invalid formats
+     */
+    public static Object convert(Object object, ParamKind kind, Class<?> targetType) {
         if (object == null) {
             return null;
         }
@@ -109,31 +141,19 @@ public class Convertion {
         }
 
         String value = object.toString();
-        Object result = null;
-
-        // Check if the value looks like any integer value (byte, short, int, long)
-        if (value.matches(INTEGER_REGEX) || value.matches(FLOATING_POINT_REGEX)) {
-            result = toNumber(value, targetType);
-        }
-        
-        // Check if the value looks like a date/time string (e.g., "2023-08-15T14:30:00Z", "14:30:00", "2023-08-15T14:30:00", etc.)
-        else if(value.matches(LOCAL_TIME_REGEX) ||
-            value.matches(LOCAL_DATE_REGEX) ||
-            value.matches(LOCAL_DATE_TIME_REGEX) ||
-            value.matches(OFFSET_DATE_TIME_REGEX) ||
-            value.matches(OFFSET_TIME_REGEX) ||
-            value.matches(ZONED_DATE_TIME_REGEX))
-        {
-            result = toDateTime(value, targetType);
-        }
 
-        else if (("true".equals(value.toLowerCase().trim()) || "false".equals(value.toLowerCase().trim())) && targetType == Boolean.class) {
-            result = Boolean.valueOf(value.toLowerCase().trim());
-        }
+        Object result = switch (kind) {
+            // The value looks like any integer value (byte, short, int, long)
+            case INTEGER -> toInteger(value, targetType);
+            case FLOATING_POINT -> toFloatPoint(value, targetType);
 
-        else if(value.matches(UUID_REGEX) && targetType == UUID.class) {
-            result = toUUID(value);
-        }
+            // The value looks like a date/time string (e.g., "2023-08-15T14:30:00Z", "14:30:00", "2023-08-15T14:30:00", etc.)
+            case LOCAL_TIME, LOCAL_DATE, LOCAL_DATE_TIME, OFFSET_DATE_TIME, OFFSET_TIME, ZONED_DATE_TIME -> toDateTime(value, kind, targetType);
+
+            case BOOLEAN -> (targetType == Boolean.class) ? ValueParser.parseBoolean(value) : null;
+            case UUID -> (targetType == UUID.class) ? ValueParser.parseUUID(value) : null;
+            case STRING, LIST -> null;
+        };
 
         if(result != null) {
             return result;
@@ -144,27 +164,16 @@ public class Convertion {
         throw new ClassCastException("Unmatch parameter type and parameter data: " + targetType.getName() + ", value: " + value);
     }
 
-    // Method to convert a string value to the specified java.lang.Number type.
-    private static Object toNumber(String value, Class<?> targetType) {
-        // Check if the value looks like any integer value (byte, short, int, long)
-        if (value.matches(INTEGER_REGEX)) {
-            return toInteger(value, targetType);
-        }
-
-        // Should be a floating point type (float, double, BigDecimal)
-        return toFloatPoint(value, targetType);
-    }
-
     // Helper methods to convert string values to specific integer types.
     private static Object toInteger(String value, Class<?> targetType) {
         if (targetType == Byte.class)
-            return Byte.valueOf(value);
+            return Byte.valueOf((byte) ValueParser.parseLong(value, Byte.MIN_VALUE, Byte.MAX_VALUE));
         if (targetType == Short.class)
-            return Short.valueOf(value);
+            return Short.valueOf((short) ValueParser.parseLong(value, Short.MIN_VALUE, Short.MAX_VALUE));
         if (targetType == Integer.class)
-            return Integer.valueOf(value);
+            return Integer.valueOf((int) ValueParser.parseLong(value, Integer.MIN_VALUE, Integer.MAX_VALUE));
         if (targetType == Long.class)
-            return Long.valueOf(value);
+            return Long.valueOf(ValueParser.parseLong(value, Long.MIN_VALUE, Long.MAX_VALUE));
         if (targetType == java.math.BigInteger.class)
             return new java.math.BigInteger(value);
 
@@ -184,7 +193,11 @@ public class Convertion {
     }
 
     // Helper method to convert string values to specific date/time types.
-    private static Object toDateTime(String value, Class<?> targetType) {
+    private static Object toDateTime(String value, ParamKind kind, Class<?> targetType) {
+        Object result = ValueParser.parseDateTime(value, kind, targetType);
+
+        if (result != null)
+            return result;
         if (targetType == java.time.LocalTime.class)
             return java.time.LocalTime.parse(value);
         if (targetType == java.time.LocalDate.class)
@@ -201,13 +214,45 @@ public class Convertion {
         return null;
     }
 
-    // Helper method to convert string values to UUID type.
-    private static Object toUUID(String value) {
-        try{
-            return UUID.fromString(value);
-        } catch (IllegalArgumentException _) {
-            return null;
+    /**
+     * Converts a path parameter of comma-separated values to a {@link List} or an array, each
+     * element converted to the element type by its own format. A value without a comma gives a
+     * single element.
+     *
+     * @param value the comma-separated values (e.g., {@code "1,2,3"})
+     * @param targetType {@link List} or an array type
+     * @param elementType the type of the elements, the component type for an array
+     * @return an unmodifiable list, or an array, of the converted values
+     * @throws ClassCastException if an element cannot be converted to the element type
+     */
+    public static Object convertValues(String value, Class<?> targetType, Class<?> elementType) {
+        List<Object> values = new ArrayList<>();
+        int start = 0;
+
+        while (true) {
+            int comma = value.indexOf(',', start);
+            String element = (comma < 0) ? value.substring(start) : value.substring(start, comma);
+
+            values.add(convert(element, classify(element), elementType));
+
+            if (comma < 0) {
+                break;
+            }
+
+            start = comma + 1;
         }
+
+        if (!targetType.isArray()) {
+            return Collections.unmodifiableList(values);
+        }
+
+        Object array = Array.newInstance(elementType, values.size());
+
+        for (int i = 0; i < values.size(); i++) {
+            Array.set(array, i, values.get(i));
+        }
+
+        return array;
     }
 
     /**
@@ -220,41 +265,284 @@ public class Convertion {
             return object.getClass().getName();
         }
 
-        String value = (String) object;
+        return classify((String) object).toString();
+    }
+
+    /**
+     * Recognizes the format of the given path parameter value, in a single pass over its characters.
+     * A text with a comma is a list, whatever the parameter it is bound to (see {@link ParamKind}).
+     *
+     * @param value the parameter value
+     * @return the kind of the value, {@link ParamKind#LIST} for comma-separated values,
+     *         {@link ParamKind#STRING} if no other format matches
+     */
+    public static ParamKind classify(String value) {
+        ParamKind kind = scalarKind(value);
+
+        // Only text is searched for a comma, the other formats have none.
+        return (kind == ParamKind.STRING && value.indexOf(',') >= 0) ? ParamKind.LIST : kind;
+    }
+
+    private static ParamKind scalarKind(String value) {
+        int length = value.length();
 
-        if (value.matches(INTEGER_REGEX)) {
-            return "integer";
+        if (length == 0) {
+            return ParamKind.STRING;
         }
 
-        if (value.matches(FLOATING_POINT_REGEX)) {
-            return "floating-point";
+        // Only numbers start with a sign.
+        if (value.charAt(0) == '-') {
+            return numberKind(value, 1);
         }
 
-        if (value.matches(LOCAL_TIME_REGEX)) {
-            return "java.time.LocalTime";
+        int digits = skipDigits(value, 0);
+
+        if (digits == length) {
+            return ParamKind.INTEGER;
         }
 
-        if (value.matches(OFFSET_DATE_TIME_REGEX)) {
-            return "java.time.OffsetDateTime";
+        if (digits > 0) {
+            char next = value.charAt(digits);
+
+            if (digits == 2 && next == ':') {
+                return timeKind(value);
+            }
+            if (digits == 4 && next == '-') {
+                return dateKind(value);
+            }
+            if (next == '.' || next == 'e' || next == 'E') {
+                ParamKind kind = numberKind(value, 0);
+
+                // Otherwise it may still be a UUID (e.g., "12e4...").
+                if (kind != ParamKind.STRING) {
+                    return kind;
+                }
+            }
         }
 
-        if (value.matches(OFFSET_TIME_REGEX)) {
-            return "java.time.OffsetTime";
+        if (isUUID(value)) {
+            return ParamKind.UUID;
         }
 
-        if (value.matches(ZONED_DATE_TIME_REGEX)) {
-            return "java.time.ZonedDateTime";
+        if (isBoolean(value)) {
+            return ParamKind.BOOLEAN;
         }
 
-        if (value.matches(UUID_REGEX)) {
-            return "java.util.UUID";
+        return ParamKind.STRING;
+    }
+
+    // -?\d+(\.\d+)?([eE][+-]?\d+)? from the given index, after the sign.
+    private static ParamKind numberKind(String value, int from) {
+        int length = value.length();
+        int i = skipDigits(value, from);
+
+        if (i == from) {
+            return ParamKind.STRING;
         }
+        if (i == length) {
+            return ParamKind.INTEGER;
+        }
+
+        if (value.charAt(i) == '.') {
+            int fractionEnd = skipDigits(value, i + 1);
+
+            if (fractionEnd == i + 1) {
+                return ParamKind.STRING;
+            }
 
-        if ("true".equals(value.toLowerCase().trim()) || "false".equals(value.toLowerCase().trim())) {
-            return "boolean";
+            i = fractionEnd;
         }
 
-        return "string";
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            int exponentStart = i + 1;
+
+            if (exponentStart < length && (value.charAt(exponentStart) == '+' || value.charAt(exponentStart) == '-')) {
+                exponentStart++;
+            }
+
+            i = skipDigits(value, exponentStart);
+
+            if (i == exponentStart) {
+                return ParamKind.STRING;
+            }
+        }
+
+        return (i == length) ? ParamKind.FLOATING_POINT : ParamKind.STRING;
+    }
+
+    // HH:mm:ss[.fraction] with an optional offset.
+    private static ParamKind timeKind(String value) {
+        int timeEnd = timeEnd(value, 0);
+
+        if (timeEnd < 0) {
+            return ParamKind.STRING;
+        }
+        if (timeEnd == value.length()) {
+            return ParamKind.LOCAL_TIME;
+        }
+
+        return (offsetEnd(value, timeEnd) == value.length()) ? ParamKind.OFFSET_TIME : ParamKind.STRING;
+    }
+
+    // yyyy-MM-dd, optionally followed by T, a time, an offset and a [zone].
+    private static ParamKind dateKind(String value) {
+        int length = value.length();
+
+        if (length < 10 ||
+            !isDigit(value, 5) || !isDigit(value, 6) || value.charAt(7) != '-' ||
+            !isDigit(value, 8) || !isDigit(value, 9))
+        {
+            return ParamKind.STRING;
+        }
+        if (length == 10) {
+            return ParamKind.LOCAL_DATE;
+        }
+        if (value.charAt(10) != 'T') {
+            return ParamKind.STRING;
+        }
+
+        int timeEnd = timeEnd(value, 11);
+
+        if (timeEnd < 0) {
+            return ParamKind.STRING;
+        }
+        if (timeEnd == length) {
+            return ParamKind.LOCAL_DATE_TIME;
+        }
+
+        int offsetEnd = offsetEnd(value, timeEnd);
+
+        if (offsetEnd < 0) {
+            return ParamKind.STRING;
+        }
+        if (offsetEnd == length) {
+            return ParamKind.OFFSET_DATE_TIME;
+        }
+
+        return isZone(value, offsetEnd) ? ParamKind.ZONED_DATE_TIME : ParamKind.STRING;
+    }
+
+    // End index of HH:mm:ss[.fraction] starting at the given index, or -1.
+    private static int timeEnd(String value, int from) {
+        if (value.length() < from + 8 ||
+            !isDigit(value, from) || !isDigit(value, from + 1) || value.charAt(from + 2) != ':' ||
+            !isDigit(value, from + 3) || !isDigit(value, from + 4) || value.charAt(from + 5) != ':' ||
+            !isDigit(value, from + 6) || !isDigit(value, from + 7))
+        {
+            return -1;
+        }
+
+        int i = from + 8;
+
+        if (i < value.length() && value.charAt(i) == '.') {
+            int fractionEnd = skipDigits(value, i + 1);
+
+            return (fractionEnd == i + 1) ? -1 : fractionEnd;
+        }
+
+        return i;
+    }
+
+    // End index of Z or [+-]HH:mm starting at the given index, or -1.
+    private static int offsetEnd(String value, int from) {
+        int length = value.length();
+
+        if (from < length && value.charAt(from) == 'Z') {
+            return from + 1;
+        }
+
+        if (from + 6 <= length &&
+            (value.charAt(from) == '+' || value.charAt(from) == '-') &&
+            isDigit(value, from + 1) && isDigit(value, from + 2) && value.charAt(from + 3) == ':' &&
+            isDigit(value, from + 4) && isDigit(value, from + 5))
+        {
+            return from + 6;
+        }
+
+        return -1;
+    }
+
+    // [zone] up to the end of the value, the zone being any text in one line.
+    private static boolean isZone(String value, int from) {
+        int last = value.length() - 1;
+
+        if (last <= from || value.charAt(from) != '[' || value.charAt(last) != ']') {
+            return false;
+        }
+
+        for (int i = from + 1; i < last; i++) {
+            char c = value.charAt(i);
+
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // 8-4-4-4-12 hex digits.
+    private static boolean isUUID(String value) {
+        if (value.length() != 36) {
+            return false;
+        }
+
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            boolean valid = (i == 8 || i == 13 || i == 18 || i == 23) ?
+                c == '-' :
+                (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+
+            if (!valid) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // "true" or "false" in any case, ignoring the surrounding spaces and control characters.
+    private static boolean isBoolean(String value) {
+        int start = 0;
+        int end = value.length();
+
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        return (end - start == 4 && equalsIgnoreAsciiCase(value, start, "true")) ||
+            (end - start == 5 && equalsIgnoreAsciiCase(value, start, "false"));
+    }
+
+    private static boolean equalsIgnoreAsciiCase(String value, int from, String lowerCaseWord) {
+        for (int i = 0; i < lowerCaseWord.length(); i++) {
+            char c = value.charAt(from + i);
+
+            if (c != lowerCaseWord.charAt(i) && c != Character.toUpperCase(lowerCaseWord.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int skipDigits(String value, int from) {
+        int i = from;
+
+        while (i < value.length() && isDigit(value, i)) {
+            i++;
+        }
+
+        return i;
+    }
+
+    private static boolean isDigit(String value, int index) {
+        char c = value.charAt(index);
+
+        return c >= '0' && c <= '9';
     }
 
     /**
@@ -269,4 +557,16 @@ public class Convertion {
     public static boolean isBasicConversebleType(Class<?> type) {
         return basicConversebleType.contains(type.getName());
     }
+
+    /**
+     * A multi-value type receives the comma-separated values of a path parameter (e.g.,
+     * {@code /customer/1,2,3}): a {@link List}, whose element type comes from its declaration,
+     * or an array of a basic converseble type.
+     *
+     * @param type Type to check if framework can convert comma-separated values into.
+     * @return Return true if the type is List or an array of a basic converseble type.
+     */
+    public static boolean isMultiValueType(Class<?> type) {
+        return type == List.class || (type.isArray() && isBasicConversebleType(type.getComponentType()));
+    }
 }
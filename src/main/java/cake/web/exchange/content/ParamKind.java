@@ -0,0 +1,51 @@
+package cake.web.exchange.content;
+
+/**
+ * The format recognized in a path parameter value by {@link Convertion#classify(String)}.
+ *
+ * <p>The kind is computed once per path token. It is part of the method cache key, and it
+ * drives the conversion of the token to the type of the method parameter. A token of
+ * comma-separated values is a {@link #LIST}, so a method cached for a single value is never
+ * reused for a list, and the other way around.</p>
+ *
+ * <p>Any text with a comma is a {@link #LIST}, even for a method that takes it as a
+ * {@code String}: the value is bound whole to the {@code String} parameter, but it is cached
+ * under a key of its own. Such a method has one more cache entry, for its values with a comma.</p>
+ *
+ * @since 0.0.46
+ * @see Convertion#convert(Object, ParamKind, Class)
+ */
+public enum ParamKind {
+    INTEGER("integer"),
+    FLOATING_POINT("floating-point"),
+    LOCAL_TIME("java.time.LocalTime"),
+    LOCAL_DATE("java.time.LocalDate"),
+    LOCAL_DATE_TIME("java.time.LocalDateTime"),
+    OFFSET_DATE_TIME("java.time.OffsetDateTime"),
+    OFFSET_TIME("java.time.OffsetTime"),
+    ZONED_DATE_TIME("java.time.ZonedDateTime"),
+    UUID("java.util.UUID"),
+    BOOLEAN("boolean"),
+    STRING("string"),
+    LIST("list");
+
+    private final String description;
+
+    private ParamKind(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Check if the kind is one of the date and time formats.
+     *
+     * @return true for the date and time kinds
+     */
+    public boolean isDateTime() {
+        return this.ordinal() >= LOCAL_TIME.ordinal() && this.ordinal() <= ZONED_DATE_TIME.ordinal();
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
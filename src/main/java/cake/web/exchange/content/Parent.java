@@ -0,0 +1,147 @@
+package cake.web.exchange.content;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * <p>The result of a parent resource, loaded only when the child resource asks for it.</p>
+ *
+ * <p>A child method declaring the result of its parent as its first parameter (e.g.,
+ * {@code CustomerResponse}) gets it loaded before the call: the get method of the parent runs
+ * for every request. Declaring it as {@code Parent<CustomerResponse>} defers that call to
+ * {@link #get()}, so a child that only needs the key of the parent, found in
+ * {@link #arguments()}, never loads it:</p>
+ *
+ * <pre>{@code
+ * public class Proposal {
+ *     public void delete(Parent<CustomerResponse> customer, Integer proposalId) {
+ *         Integer customerId = customer.argument(0, Integer.class); // no call to Customer.get
+ *         service.deleteProposal(customerId, proposalId);
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>Two parents are equal when they stand for the same call: the same get method with equal
+ * arguments, themselves compared as parents up the chain. A parent may then be part of the key
+ * of a memoized or coalesced call of its child, whether it was loaded or not.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is not thread-safe. A new instance is created per request by the framework.</p>
+ *
+ * @param <T> the type of the result of the parent
+ *
+ * @since 0.0.46
+ */
+public final class Parent<T> implements Supplier<T> {
+    private final Method method;
+    private final List<Object> arguments;
+    private final Supplier<T> loader;
+
+    private boolean loaded;
+    private T result;
+
+    /**
+     * Create a parent to be loaded on demand. Called by the framework.
+     *
+     * @param method    the get method of the parent
+     * @param arguments the arguments of the get method of the parent
+     * @param loader    calls the get method of the parent
+     */
+    public Parent(Method method, List<Object> arguments, Supplier<T> loader) {
+        this.method = method;
+        this.arguments = Collections.unmodifiableList(arguments);
+        this.loader = loader;
+    }
+
+    /**
+     * Get the result of the parent, calling its get method on the first access.
+     *
+     * @return the result of the parent, may be null
+     */
+    @Override
+    public T get() {
+        if (!loaded) {
+            result = loader.get();
+            loaded = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Check whether the get method of the parent was called.
+     *
+     * @return true if the result is loaded
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Get the declared return type of the get method of the parent.
+     *
+     * @return the type of the result
+     */
+    public Class<?> type() {
+        return method.getReturnType();
+    }
+
+    /**
+     * Get the get method of the parent.
+     *
+     * @return the method called to load the result
+     */
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * Get the converted arguments of the get method of the parent, e.g., its id. They are
+     * available without loading the parent.
+     *
+     * @return the arguments, in the order of the parameters of the get method
+     */
+    public List<Object> arguments() {
+        return arguments;
+    }
+
+    /**
+     * Get one argument of the get method of the parent.
+     *
+     * @param <A>   the type of the argument
+     * @param index the position of the argument
+     * @param type  the type of the argument
+     * @return the argument
+     * @throws IndexOutOfBoundsException if the get method has no such argument
+     * @throws ClassCastException        if the argument is not of the given type
+     */
+    public <A> A argument(int index, Class<A> type) {
+        return type.cast(arguments.get(index));
+    }
+
+    /**
+     * Get the value a parameter slot receives: the result of a parent, loaded if needed, or the
+     * value itself.
+     *
+     * @param value a path parameter value or a parent
+     * @return the value, with a parent replaced by its result
+     */
+    public static Object resolve(Object value) {
+        return (value instanceof Parent<?> parent) ? parent.get() : value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other ||
+            other instanceof Parent<?> parent &&
+            method.equals(parent.method) &&
+            arguments.equals(parent.arguments);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * method.hashCode() + arguments.hashCode();
+    }
+}
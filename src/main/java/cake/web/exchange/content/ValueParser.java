@@ -0,0 +1,214 @@
+package cake.web.exchange.content;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * <p>Parsers for the common formats recognized by {@link Convertion#classify(String)}.</p>
+ *
+ * <p>The value is already known to have the format of its {@link ParamKind}, so the fields are
+ * read at fixed positions, without {@link java.time.format.DateTimeFormatter}, without the
+ * intermediate objects of {@link UUID#fromString(String)} and without the generic number parsing.
+ * When a value cannot be handled here (e.g., an out of range field, a fraction of more than nine
+ * digits), the parsers return null and {@link Convertion} falls back to the standard parse methods,
+ * which throw the same exceptions as before.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is stateless and thread-safe.</p>
+ *
+ * @since 0.0.46
+ * @see Convertion
+ */
+final class ValueParser {
+    // More digits than this may overflow a long and are parsed by Long.parseLong.
+    private static final int SAFE_LONG_DIGITS = 18;
+    private static final int MAX_NANO_DIGITS = 9;
+
+    private ValueParser() {
+        // static class
+    }
+
+    /**
+     * Parse an {@link ParamKind#INTEGER} value, checking the range of the target type.
+     *
+     * @param value the integer value
+     * @param min the minimum value of the target type
+     * @param max the maximum value of the target type
+     * @return the parsed value
+     * @throws NumberFormatException if the value is out of range
+     */
+    static long parseLong(String value, long min, long max) {
+        boolean negative = value.charAt(0) == '-';
+        int start = negative ? 1 : 0;
+        long result;
+
+        if (value.length() - start > SAFE_LONG_DIGITS) {
+            result = Long.parseLong(value);
+        } else {
+            result = 0;
+
+            for (int i = start; i < value.length(); i++) {
+                result = result * 10 + (value.charAt(i) - '0');
+            }
+
+            result = negative ? -result : result;
+        }
+
+        if (result < min || result > max) {
+            throw new NumberFormatException("Value out of range. Value:\"" + value + "\" Radix:10");
+        }
+
+        return result;
+    }
+
+    /**
+     * Parse a {@link ParamKind#BOOLEAN} value: "true" or "false", in any case, with surrounding spaces.
+     *
+     * @param value the boolean value
+     * @return the parsed value
+     */
+    static Boolean parseBoolean(String value) {
+        int i = 0;
+
+        while (value.charAt(i) <= ' ') {
+            i++;
+        }
+
+        return (value.charAt(i) == 't' || value.charAt(i) == 'T') ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    /**
+     * Parse a {@link ParamKind#UUID} value, reading the hex digits straight into the two halves.
+     *
+     * @param value the UUID value
+     * @return the parsed value
+     */
+    static UUID parseUUID(String value) {
+        long mostSigBits = hex(value, 0, 8) << 32 | hex(value, 9, 13) << 16 | hex(value, 14, 18);
+        long leastSigBits = hex(value, 19, 23) << 48 | hex(value, 24, 36);
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Parse a date or time value to the target type, when the kind of the value is the format of that type.
+     *
+     * @param value the date or time value
+     * @param kind the kind of the value
+     * @param targetType the date or time type
+     * @return the parsed value, or null if the standard parse method must be used
+     */
+    static Object parseDateTime(String value, ParamKind kind, Class<?> targetType) {
+        try {
+            if (targetType == LocalTime.class && kind == ParamKind.LOCAL_TIME) {
+                return localTime(value, 0, value.length());
+            }
+            if (targetType == LocalDate.class && kind == ParamKind.LOCAL_DATE) {
+                return localDate(value);
+            }
+            if (targetType == LocalDateTime.class && kind == ParamKind.LOCAL_DATE_TIME) {
+                return localDateTime(value, value.length());
+            }
+            if (targetType == OffsetTime.class && kind == ParamKind.OFFSET_TIME) {
+                int offset = offsetStart(value);
+                LocalTime time = localTime(value, 0, offset);
+
+                return (time == null) ? null : OffsetTime.of(time, zoneOffset(value, offset));
+            }
+            if ((targetType == OffsetDateTime.class || targetType == ZonedDateTime.class) && kind == ParamKind.OFFSET_DATE_TIME) {
+                int offset = offsetStart(value);
+                LocalDateTime dateTime = localDateTime(value, offset);
+
+                if (dateTime == null) {
+                    return null;
+                }
+
+                return (targetType == OffsetDateTime.class) ?
+                    OffsetDateTime.of(dateTime, zoneOffset(value, offset)) :
+                    ZonedDateTime.of(dateTime, zoneOffset(value, offset));
+            }
+        } catch (DateTimeException _) {
+            // Invalid field value, the standard parse method reports it.
+        }
+
+        return null;
+    }
+
+    // yyyy-MM-dd at the start of the value.
+    private static LocalDate localDate(String value) {
+        return LocalDate.of(digits(value, 0, 4), digits(value, 5, 7), digits(value, 8, 10));
+    }
+
+    // yyyy-MM-ddTHH:mm:ss[.fraction] ending at the given index.
+    private static LocalDateTime localDateTime(String value, int end) {
+        LocalTime time = localTime(value, 11, end);
+
+        return (time == null) ? null : LocalDateTime.of(localDate(value), time);
+    }
+
+    // HH:mm:ss[.fraction] between the given indexes.
+    private static LocalTime localTime(String value, int start, int end) {
+        int nano = 0;
+
+        if (end > start + 8) {
+            int fractionDigits = end - start - 9;
+
+            if (fractionDigits > MAX_NANO_DIGITS) {
+                return null;
+            }
+
+            nano = digits(value, start + 9, end);
+
+            for (int i = fractionDigits; i < MAX_NANO_DIGITS; i++) {
+                nano *= 10;
+            }
+        }
+
+        return LocalTime.of(digits(value, start, start + 2), digits(value, start + 3, start + 5), digits(value, start + 6, start + 8), nano);
+    }
+
+    // Index of the offset ('Z' or +HH:mm / -HH:mm) at the end of the value.
+    private static int offsetStart(String value) {
+        return (value.charAt(value.length() - 1) == 'Z') ? value.length() - 1 : value.length() - 6;
+    }
+
+    private static ZoneOffset zoneOffset(String value, int start) {
+        if (value.charAt(start) == 'Z') {
+            return ZoneOffset.UTC;
+        }
+
+        int hours = digits(value, start + 1, start + 3);
+        int minutes = digits(value, start + 4, start + 6);
+
+        return (value.charAt(start) == '-') ?
+            ZoneOffset.ofHoursMinutes(-hours, -minutes) :
+            ZoneOffset.ofHoursMinutes(hours, minutes);
+    }
+
+    private static int digits(String value, int start, int end) {
+        int result = 0;
+
+        for (int i = start; i < end; i++) {
+            result = result * 10 + (value.charAt(i) - '0');
+        }
+
+        return result;
+    }
+
+    private static long hex(String value, int start, int end) {
+        long result = 0;
+
+        for (int i = start; i < end; i++) {
+            result = result << 4 | Character.digit(value.charAt(i), 16);
+        }
+
+        return result;
+    }
+}
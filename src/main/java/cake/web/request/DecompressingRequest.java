@@ -0,0 +1,178 @@
+package cake.web.request;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import cake.web.exception.BadRequestException;
+import cake.web.exception.PayloadTooLargeException;
+
+/**
+ * <p>Request whose body is inflated, with gzip or deflate, as it is read.</p>
+ *
+ * <p>The decompressing stream is opened on first use and counts the bytes it gives out: past
+ * the maximum decompressed size it throws {@link PayloadTooLargeException}. A corrupted or
+ * truncated body throws {@link BadRequestException}. The content length of the request is the
+ * compressed one, so it is reported as unknown.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is not thread-safe. A new instance is created per request.</p>
+ *
+ * @since 0.0.46
+ * @see RequestDecompression
+ */
+final class DecompressingRequest extends HttpServletRequestWrapper {
+    private final boolean gzip;
+    private final long maxDecompressedSize;
+
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    DecompressingRequest(HttpServletRequest request, boolean gzip, long maxDecompressedSize) {
+        super(request);
+
+        this.gzip = gzip;
+        this.maxDecompressedSize = maxDecompressedSize;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            ServletInputStream source = super.getInputStream();
+
+            if (source == null) {
+                return null;
+            }
+
+            inputStream = new InflatedServletInputStream(source, open(source), maxDecompressedSize);
+        }
+
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            ServletInputStream decompressed = getInputStream();
+
+            if (decompressed == null) {
+                return null;
+            }
+
+            reader = new BufferedReader(new InputStreamReader(decompressed, charset()));
+        }
+
+        return reader;
+    }
+
+    @Override
+    public int getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return -1;
+    }
+
+    private InputStream open(InputStream source) throws IOException {
+        if (!gzip) {
+            return new InflaterInputStream(source);
+        }
+
+        try {
+            // Reads the gzip header right away
+            return new GZIPInputStream(source);
+        } catch (ZipException | EOFException e) {
+            throw new BadRequestException("Malformed gzip request body: " + e.getMessage());
+        }
+    }
+
+    private Charset charset() {
+        String characterEncoding = getCharacterEncoding();
+
+        return (characterEncoding == null) ? StandardCharsets.UTF_8 : Charset.forName(characterEncoding);
+    }
+
+    /**
+     * Servlet stream reading the inflated body, bounded to the maximum decompressed size.
+     */
+    private static final class InflatedServletInputStream extends ServletInputStream {
+        private final ServletInputStream source;
+        private final InputStream inflater;
+        private final long maxDecompressedSize;
+
+        private final byte[] single = new byte[1];
+
+        private long count;
+        private boolean finished;
+
+        InflatedServletInputStream(ServletInputStream source, InputStream inflater, long maxDecompressedSize) {
+            this.source = source;
+            this.inflater = inflater;
+            this.maxDecompressedSize = maxDecompressedSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return (read(single, 0, 1) < 0) ? -1 : (single[0] & 0xFF);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read;
+
+            try {
+                read = inflater.read(b, off, len);
+            } catch (ZipException | EOFException e) {
+                throw new BadRequestException("Malformed compressed request body: " + e.getMessage());
+            }
+
+            if (read < 0) {
+                finished = true;
+                return read;
+            }
+
+            count += read;
+
+            if (count > maxDecompressedSize) {
+                throw new PayloadTooLargeException(
+                        "The decompressed request body exceeds " + maxDecompressedSize + " bytes.");
+            }
+
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflater.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return source.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            source.setReadListener(readListener);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package cake.web.request;
+
+import java.util.Locale;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * <p>Decodes request bodies sent with {@code Content-Encoding: gzip} or {@code deflate}.</p>
+ *
+ * <p>The request is wrapped so that the body is inflated while the JSON parser reads it: no
+ * decompressed copy of the body is built. Inflating beyond the maximum decompressed size fails
+ * the request with HTTP 413, which stops decompression bombs after at most that many bytes.
+ * Nothing is read until a parameter of the resource method needs the body.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is immutable and thread-safe.</p>
+ *
+ * @since 0.0.46
+ */
+public class RequestDecompression {
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    private final long maxDecompressedSize;
+
+    /**
+     * Create the decompression of request bodies.
+     *
+     * @param maxDecompressedSize the maximum size of a decompressed body, in bytes; zero or less means no limit
+     */
+    public RequestDecompression(long maxDecompressedSize) {
+        this.maxDecompressedSize = (maxDecompressedSize > 0) ? maxDecompressedSize : Long.MAX_VALUE;
+    }
+
+    /**
+     * Wrap the request to decompress its body, if it is encoded with gzip or deflate.
+     * Any other encoding is left to the request as is.
+     *
+     * @param request the HTTP request
+     * @return the request to read the body from: a decompressing wrapper or the request itself
+     */
+    public HttpServletRequest wrap(HttpServletRequest request) {
+        String contentEncoding = request.getHeader("Content-Encoding");
+
+        if (contentEncoding == null) {
+            return request;
+        }
+
+        return switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case GZIP, "x-gzip" -> new DecompressingRequest(request, true, maxDecompressedSize);
+            case DEFLATE -> new DecompressingRequest(request, false, maxDecompressedSize);
+            default -> request;
+        };
+    }
+}
@@ -0,0 +1,223 @@
+package cake.web.resource;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.List;
+
+import cake.web.exception.PrimitiveNotAllowedException;
+import cake.web.exchange.HttpDataHandle;
+import cake.web.exchange.content.BodyContent;
+import cake.web.exchange.content.Convertion;
+import cake.web.exchange.content.HeaderContent;
+import cake.web.exchange.content.ParamKind;
+import cake.web.exchange.content.Parent;
+import cake.web.exchange.content.QueryParamContent;
+
+/**
+ * <p>The way each parameter of a resource method gets its value, decided once per method.</p>
+ *
+ * <p>The plan has one {@link Binder} per parameter slot. The source of the slot (body, query
+ * parameters, headers, path parameter, comma-separated path parameter, parent result or lazy
+ * {@link Parent}) and the converter of a path parameter are chosen when the plan is compiled,
+ * from the parameter types. The element type of a {@code List} slot comes from its generic
+ * declaration (e.g., {@code List<UUID>}). Binding
+ * the arguments of a request is then a plain loop over the binders, with no reflection and no
+ * type check.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>A plan is immutable and shared by all requests to its method.</p>
+ *
+ * @since 0.0.46
+ * @see MethodHandler
+ */
+final class BindingPlan {
+    /**
+     * Produces the value of one parameter slot for a request.
+     */
+    @FunctionalInterface
+    interface Binder {
+        /**
+         * @param pathParams the path parameter values and parent results
+         * @param pathParamKinds the kind of each String path parameter, or null if they were not classified
+         * @param httpDataHandle the request data
+         * @return the argument of the slot
+         * @throws IOException if the body can not be read
+         */
+        Object bind(List<Object> pathParams, ParamKind[] pathParamKinds, HttpDataHandle httpDataHandle) throws IOException;
+    }
+
+    /**
+     * Failure of a source read while binding: the get method of a parent resource, or the body
+     * (e.g., malformed or too large). It is not a binding failure: the cause is rethrown as is.
+     */
+    static final class SourceFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SourceFailure(RuntimeException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized RuntimeException getCause() {
+            return (RuntimeException) super.getCause();
+        }
+    }
+
+    private final Binder[] binders;
+
+    private BindingPlan(Binder[] binders) {
+        this.binders = binders;
+    }
+
+    /**
+     * Compile the plan for the parameters of the given method.
+     *
+     * @param method the resource method
+     * @return the binding plan
+     */
+    static BindingPlan compile(Method method) {
+        return compile(method.getParameterTypes(), method.getGenericParameterTypes());
+    }
+
+    /**
+     * Compile the plan for the given parameter types. The elements of a {@code List} slot are
+     * left as strings.
+     *
+     * @param parameterTypes the parameter types of the method
+     * @return the binding plan
+     */
+    static BindingPlan compile(Class<?>[] parameterTypes) {
+        return compile(parameterTypes, parameterTypes);
+    }
+
+    private static BindingPlan compile(Class<?>[] parameterTypes, Type[] genericParameterTypes) {
+        Binder[] binders = new Binder[parameterTypes.length];
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            binders[i] = binderOf(parameterTypes[i], genericParameterTypes[i], i);
+        }
+
+        return new BindingPlan(binders);
+    }
+
+    /**
+     * Get the number of parameter slots.
+     *
+     * @return the number of parameters of the method
+     */
+    int size() {
+        return binders.length;
+    }
+
+    /**
+     * Bind the arguments of the method for a request.
+     *
+     * @param pathParams the path parameter values and parent results
+     * @param pathParamKinds the kind of each String path parameter, or null to classify them
+     * @param httpDataHandle the request data
+     * @return one argument per parameter slot
+     * @throws IOException if the body can not be read
+     * @throws ArrayIndexOutOfBoundsException if there are more path parameters than parameter slots
+     * @throws PrimitiveNotAllowedException if a parameter type is a primitive type
+     * @throws ClassCastException if a path parameter does not fit its slot
+     */
+    List<Object> bind(List<Object> pathParams, ParamKind[] pathParamKinds, HttpDataHandle httpDataHandle) throws IOException {
+        if (binders.length < pathParams.size()) {
+            throw new ArrayIndexOutOfBoundsException("The number of path parameters (" + pathParams.size() + ") is bigger than the number of parameter types (" + binders.length + ").");
+        }
+
+        Object[] args = new Object[binders.length];
+
+        for (int i = 0; i < binders.length; i++) {
+            args[i] = binders[i].bind(pathParams, pathParamKinds, httpDataHandle);
+        }
+
+        return Arrays.asList(args);
+    }
+
+    // Load a parent, keeping the failures of its get method apart from the binding failures.
+    private static Object load(Object value) {
+        try {
+            return Parent.resolve(value);
+        } catch (RuntimeException e) {
+            throw new SourceFailure(e);
+        }
+    }
+
+    // Choose the source of the slot, in the same order of precedence as the method resolution.
+    private static Binder binderOf(Class<?> parameterType, Type genericType, int index) {
+        if (parameterType.isPrimitive()) {
+            return (_, _, _) -> {
+                throw new PrimitiveNotAllowedException("Parameter with type " + parameterType.getName() + " is not allowed");
+            };
+        }
+
+        List<Class<?>> interfaces = Arrays.asList(parameterType.getInterfaces());
+
+        if (interfaces.contains(BodyContent.class)) {
+            return (_, _, httpDataHandle) -> {
+                try {
+                    return httpDataHandle.buildFromBody(parameterType);
+                } catch (RuntimeException e) {
+                    throw new SourceFailure(e);
+                }
+            };
+        }
+        if (interfaces.contains(QueryParamContent.class)) {
+            return (_, _, httpDataHandle) -> httpDataHandle.buildFromQueryParameter(parameterType);
+        }
+        if (interfaces.contains(HeaderContent.class)) {
+            return (_, _, httpDataHandle) -> httpDataHandle.buildFromHeader(parameterType);
+        }
+        if (Convertion.isBasicConversebleType(parameterType)) {
+            return (pathParams, pathParamKinds, _) -> {
+                Object pathParam = load(pathParams.get(index));
+                ParamKind kind = (pathParamKinds == null) ? null : pathParamKinds[index];
+
+                return (kind == null) ?
+                    Convertion.convert(pathParam, parameterType) :
+                    Convertion.convert(pathParam, kind, parameterType);
+            };
+        }
+
+        if (Convertion.isMultiValueType(parameterType)) {
+            Class<?> elementType = elementTypeOf(parameterType, genericType);
+
+            return (pathParams, _, _) -> {
+                Object pathParam = load(pathParams.get(index));
+
+                // A parent result is not split: a List or an array is bound as is, anything else fails the cast.
+                return (pathParam instanceof String value) ?
+                    Convertion.convertValues(value, parameterType, elementType) :
+                    parameterType.cast(pathParam);
+            };
+        }
+
+        // The parent resource, left unloaded.
+        if (parameterType == Parent.class) {
+            return (pathParams, _, _) -> pathParams.get(index);
+        }
+
+        // The result of a parent resource, loaded now.
+        return (pathParams, _, _) -> parameterType.cast(load(pathParams.get(index)));
+    }
+
+    // The component type of an array, or the declared element type of a List (String if unknown).
+    private static Class<?> elementTypeOf(Class<?> parameterType, Type genericType) {
+        if (parameterType.isArray()) {
+            return parameterType.getComponentType();
+        }
+
+        Type elementType = (genericType instanceof ParameterizedType list) ? list.getActualTypeArguments()[0] : String.class;
+
+        if (elementType instanceof WildcardType wildcard) {
+            elementType = wildcard.getUpperBounds()[0];
+        }
+
+        return (elementType instanceof Class<?> type && type != Object.class) ? type : String.class;
+    }
+}
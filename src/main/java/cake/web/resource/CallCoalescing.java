@@ -0,0 +1,174 @@
+package cake.web.resource;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import cake.web.configuration.CoalescingConfig;
+import cake.web.configuration.PackageSettings;
+import cake.web.exception.AsyncTimeoutException;
+import cake.web.exception.MethodInvocationException;
+
+/**
+ * <p>Runs identical concurrent calls of a resource method once, and hands the result to every
+ * caller (single flight).</p>
+ *
+ * <p>Calls are identical when they resolve to the same method with equal arguments: the path
+ * parameters converted by the method cache, the parent results and the bound contents. The first
+ * call runs the method; the calls arriving while it runs wait for its result, or its exception,
+ * for at most the maximum wait of the resource, and then run the method themselves.</p>
+ *
+ * <p>A result that can only be consumed once (a {@link Stream}, an {@link Iterator}, a
+ * {@link ByteBuffer} or an {@link AutoCloseable}), or a {@link CompletionStage}, is not shared:
+ * the waiting calls run the method themselves. Arguments that do not override {@code equals}
+ * are never identical, so their calls are never coalesced.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is thread-safe. The calls in flight are kept in a {@link ConcurrentHashMap} and
+ * removed when they complete.</p>
+ *
+ * @since 0.0.46
+ * @see CoalescingConfig
+ */
+public class CallCoalescing {
+    private static final CallCoalescing DISABLED = new CallCoalescing(new CoalescingConfig());
+
+    // Completes a flight whose result cannot be shared.
+    private static final Object NOT_SHARED = new Object();
+
+    private final boolean enabled;
+    private final PackageSettings<Long> maxWaits;
+
+    private final Map<CallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder expiredWaits = new LongAdder();
+
+    /**
+     * Identity of a call: the resolved method and its arguments.
+     */
+    private record CallKey(Method method, List<Object> args) {}
+
+    /**
+     * Create the coalescing of the given configuration.
+     *
+     * @param config the coalescing settings
+     */
+    public CallCoalescing(CoalescingConfig config) {
+        this.enabled = config.isEnabled();
+        this.maxWaits = new PackageSettings<>(config.getMaxWaits(), 0L);
+    }
+
+    /**
+     * Get a coalescing that runs every call.
+     *
+     * @return the disabled coalescing
+     */
+    public static CallCoalescing disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Call the resolved method on the resource, or wait for the identical call in flight.
+     *
+     * @param resource         the resource instance
+     * @param methodResolution the resolved method and its arguments
+     * @return the result of the method
+     * @throws MethodInvocationException if the invocation fails
+     * @throws AsyncTimeoutException     if the thread is interrupted while waiting
+     */
+    public Object call(Object resource, MethodResolution methodResolution) {
+        long maxWait = enabled ? TimeUnit.MILLISECONDS.toNanos(maxWaits.of(resource.getClass())) : 0;
+
+        if (maxWait <= 0) {
+            return methodResolution.call(resource);
+        }
+
+        CallKey key = new CallKey(methodResolution.method(), methodResolution.args());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+
+        if (leader == null) {
+            return lead(key, flight, resource, methodResolution);
+        }
+
+        Object result = await(leader, maxWait);
+
+        return (result == NOT_SHARED) ? methodResolution.call(resource) : result;
+    }
+
+    /**
+     * Get the number of calls answered with the result of an identical call.
+     *
+     * @return the number of coalesced calls
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Get the number of calls that gave up waiting and ran the method themselves.
+     *
+     * @return the number of expired waits
+     */
+    public long expiredWaits() {
+        return expiredWaits.sum();
+    }
+
+    private Object lead(CallKey key, CompletableFuture<Object> flight, Object resource, MethodResolution methodResolution) {
+        try {
+            Object result = methodResolution.call(resource);
+            flight.complete(isShareable(result) ? result : NOT_SHARED);
+
+            return result;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> leader, long maxWait) {
+        try {
+            Object result = leader.get(maxWait, TimeUnit.NANOSECONDS);
+
+            if (result != NOT_SHARED) {
+                coalesced.increment();
+            }
+
+            return result;
+        } catch (TimeoutException _) {
+            expiredWaits.increment();
+            return NOT_SHARED;
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+            throw new AsyncTimeoutException("Interrupted while waiting for an identical call");
+        } catch (ExecutionException e) {
+            // The identical call failed, and so does this one.
+            coalesced.increment();
+
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+
+            throw new MethodInvocationException("Error in the identical call", e.getCause());
+        }
+    }
+
+    // A Stream is AutoCloseable. A CompletionStage could be cancelled by one of its callers.
+    private static boolean isShareable(Object result) {
+        return !(result instanceof Iterator<?> || result instanceof ByteBuffer
+            || result instanceof AutoCloseable || result instanceof CompletionStage<?>);
+    }
+}
@@ -0,0 +1,212 @@
+package cake.web.resource;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import cake.web.exception.MethodInvocationException;
+import cake.web.exception.ResourceResolutionException;
+
+/**
+ * <p>Compiles resource constructors and methods into plain functional calls.</p>
+ *
+ * <p>Instead of {@link Method#invoke(Object, Object...)} and
+ * {@link java.lang.reflect.Constructor#newInstance(Object...)} on every request, each
+ * constructor and method is compiled once through {@link LambdaMetafactory} into an
+ * implementation of a small functional interface. The JIT can inline these calls like
+ * any lambda, and they need no varargs array and no reflective access check.</p>
+ *
+ * <h3>Compilation Strategy</h3>
+ * <ul>
+ *   <li><b>Up to {@value #MAX_LAMBDA_ARITY} parameters:</b> a lambda generated by {@link LambdaMetafactory}</li>
+ *   <li><b>More parameters:</b> a {@link MethodHandle} spreading the arguments array</li>
+ *   <li><b>Inaccessible methods:</b> the reflective call, as a last resort</li>
+ * </ul>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class uses {@link ConcurrentHashMap} for thread-safe caching of the constructors.</p>
+ *
+ * @since 0.0.46
+ * @see MethodInvoker
+ * @see MethodResolution
+ */
+public final class Invokers {
+    private static final int MAX_LAMBDA_ARITY = 4;
+
+    // Cache of compiled no-arg constructors by resource class.
+    private static final Map<Class<?>, Supplier<Object>> constructorCache = new ConcurrentHashMap<>();
+
+    private Invokers() {
+        // static class
+    }
+
+    /*
+     * Functional shapes implemented by the generated lambdas. They must be public because the
+     * lambdas are generated inside the resource classes, in the user packages.
+     */
+
+    /** Shape of a compiled method with no parameter and a result. */
+    @FunctionalInterface public interface Call0 { Object invoke(Object r); }
+    /** Shape of a compiled method with one parameter and a result. */
+    @FunctionalInterface public interface Call1 { Object invoke(Object r, Object a0); }
+    /** Shape of a compiled method with two parameters and a result. */
+    @FunctionalInterface public interface Call2 { Object invoke(Object r, Object a0, Object a1); }
+    /** Shape of a compiled method with three parameters and a result. */
+    @FunctionalInterface public interface Call3 { Object invoke(Object r, Object a0, Object a1, Object a2); }
+    /** Shape of a compiled method with four parameters and a result. */
+    @FunctionalInterface public interface Call4 { Object invoke(Object r, Object a0, Object a1, Object a2, Object a3); }
+
+    /** Shape of a compiled void method with no parameter. */
+    @FunctionalInterface public interface Run0 { void invoke(Object r); }
+    /** Shape of a compiled void method with one parameter. */
+    @FunctionalInterface public interface Run1 { void invoke(Object r, Object a0); }
+    /** Shape of a compiled void method with two parameters. */
+    @FunctionalInterface public interface Run2 { void invoke(Object r, Object a0, Object a1); }
+    /** Shape of a compiled void method with three parameters. */
+    @FunctionalInterface public interface Run3 { void invoke(Object r, Object a0, Object a1, Object a2); }
+    /** Shape of a compiled void method with four parameters. */
+    @FunctionalInterface public interface Run4 { void invoke(Object r, Object a0, Object a1, Object a2, Object a3); }
+
+    private static final Class<?>[] CALL_SHAPES = { Call0.class, Call1.class, Call2.class, Call3.class, Call4.class };
+    private static final Class<?>[] RUN_SHAPES = { Run0.class, Run1.class, Run2.class, Run3.class, Run4.class };
+
+    /**
+     * Get the compiled no-arg constructor of the resource class, compiling it on first use.
+     *
+     * @param resourceClass the resource class
+     * @return a supplier of new resource instances
+     * @throws ResourceResolutionException if the class has no public no-arg constructor
+     */
+    public static Supplier<Object> forConstructor(Class<?> resourceClass) {
+        Supplier<Object> constructor = constructorCache.get(resourceClass);
+
+        if (constructor == null) {
+            constructor = compileConstructor(resourceClass);
+            constructorCache.put(resourceClass, constructor);
+        }
+
+        return constructor;
+    }
+
+    /**
+     * Compiles the resource method into a {@link MethodInvoker}.
+     *
+     * @param method the public, non-static resource method
+     * @return the compiled invoker
+     */
+    public static MethodInvoker forMethod(Method method) {
+        MethodHandle target;
+        MethodHandles.Lookup lookup;
+
+        try {
+            lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            target = lookup.unreflect(method);
+        } catch (IllegalAccessException | RuntimeException _) {
+            return reflective(method);
+        }
+
+        int arity = method.getParameterCount();
+
+        if (arity <= MAX_LAMBDA_ARITY) {
+            try {
+                return lambda(lookup, target, arity, method.getReturnType() == void.class);
+            } catch (Throwable _) {
+                // The lambda cannot be generated for this method, use the method handle.
+            }
+        }
+
+        return spreader(target, arity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> compileConstructor(Class<?> resourceClass) {
+        try {
+            resourceClass.getConstructor();
+
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(resourceClass, MethodHandles.lookup());
+            MethodHandle constructor = lookup.findConstructor(resourceClass, MethodType.methodType(void.class));
+
+            CallSite callSite = LambdaMetafactory.metafactory(
+                lookup,
+                "get",
+                MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class),
+                constructor,
+                MethodType.methodType(resourceClass));
+
+            return (Supplier<Object>) callSite.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new ResourceResolutionException(
+                    "Resource class " + resourceClass.getName() + " must have a public no-arg constructor.", e);
+        }
+    }
+
+    // Build the lambda of the right shape and adapt it to the MethodInvoker interface.
+    private static MethodInvoker lambda(MethodHandles.Lookup lookup, MethodHandle target, int arity, boolean isVoid) throws Throwable {
+        Class<?> shape = isVoid ? RUN_SHAPES[arity] : CALL_SHAPES[arity];
+        MethodType erased = MethodType.genericMethodType(arity + 1);
+
+        if (isVoid) {
+            erased = erased.changeReturnType(void.class);
+        }
+
+        MethodType instantiated = target.type().wrap();
+
+        if (isVoid) {
+            instantiated = instantiated.changeReturnType(void.class);
+        }
+
+        CallSite callSite = LambdaMetafactory.metafactory(
+            lookup,
+            "invoke",
+            MethodType.methodType(shape),
+            erased,
+            target,
+            instantiated);
+
+        Object function = callSite.getTarget().invoke();
+
+        return switch (function) {
+            case Call0 c -> (r, args) -> c.invoke(r);
+            case Call1 c -> (r, args) -> c.invoke(r, args.get(0));
+            case Call2 c -> (r, args) -> c.invoke(r, args.get(0), args.get(1));
+            case Call3 c -> (r, args) -> c.invoke(r, args.get(0), args.get(1), args.get(2));
+            case Call4 c -> (r, args) -> c.invoke(r, args.get(0), args.get(1), args.get(2), args.get(3));
+            case Run0 c -> (r, args) -> { c.invoke(r); return null; };
+            case Run1 c -> (r, args) -> { c.invoke(r, args.get(0)); return null; };
+            case Run2 c -> (r, args) -> { c.invoke(r, args.get(0), args.get(1)); return null; };
+            case Run3 c -> (r, args) -> { c.invoke(r, args.get(0), args.get(1), args.get(2)); return null; };
+            case Run4 c -> (r, args) -> { c.invoke(r, args.get(0), args.get(1), args.get(2), args.get(3)); return null; };
+            default -> throw new IllegalStateException("Unexpected lambda shape: " + function.getClass().getName());
+        };
+    }
+
+    // A method handle taking the resource and the arguments array, returning Object (null for void).
+    private static MethodInvoker spreader(MethodHandle target, int arity) {
+        MethodHandle spread = target
+            .asSpreader(Object[].class, arity)
+            .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+
+        return (r, args) -> spread.invokeExact(r, args.toArray());
+    }
+
+    // Last resort when the method cannot be looked up: the reflective call, unwrapping the target exception.
+    private static MethodInvoker reflective(Method method) {
+        return (r, args) -> {
+            try {
+                return method.invoke(r, args.toArray());
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } catch (IllegalAccessException e) {
+                throw new MethodInvocationException("Failed to invoke method: " + method.getName(), e);
+            }
+        };
+    }
+}
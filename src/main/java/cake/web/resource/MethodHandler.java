@@ -1,15 +1,19 @@
 package cake.web.resource;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
 import java.util.concurrent.ConcurrentHashMap;
 
 import cake.web.exception.AmbiguityException;
 import cake.web.exchange.HttpDataHandle;
 import cake.web.exchange.HttpMethodName;
 import cake.web.exchange.content.Convertion;
+import cake.web.exchange.content.ParamKind;
+import cake.web.exchange.content.Parent;
 
 /**
  * <p>Handles method resolution with caching for performance optimization.</p>
@@ -20,16 +24,20 @@ import cake.web.exchange.content.Convertion;
  * 
  * <h3>Caching Strategy</h3>
  * <ul>
- *   <li><b>Cache Key:</b> {@code <className>#<parameterTypeHints>#<httpMethodName>}</li>
- *   <li><b>Parameter Type Hints:</b> For String values, the framework uses {@code kindOfParamType()}
- *       to infer the type; for other objects, the class name is used</li>
+ *   <li><b>Cache Key:</b> a {@link CacheKey} of the resource class, the HTTP method and the parameter kinds</li>
+ *   <li><b>Parameter Kinds:</b> For String values, the framework uses {@link Convertion#classify(String)}
+ *       to infer the {@link ParamKind}, {@link ParamKind#LIST} for comma-separated values; for a {@link Parent}, the declared result type of its get method;
+ *       for other objects, the class is used. The kinds are computed once per path token and reused to
+ *       convert the values</li>
  *   <li><b>Cache Validation:</b> On cache hit, the framework verifies that conversion still works
  *       with the current path parameters</li>
  * </ul>
  * 
  * <h3>Design Intention</h3>
  * <p>Method resolution via reflection is relatively expensive. This class reduces the cost
- * to O(1) after the first request for a given method signature. The cache key uses
+ * to O(1) after the first request for a given method signature. The cached entry also holds
+ * the invoker compiled by {@link Invokers}, so the resolved method is not called reflectively,
+ * and the {@link BindingPlan} of its parameters, so a cache hit binds the arguments without reflection. The cache key uses
  * type hints rather than full parameter types to handle cases where the actual values
  * differ but the type signature is the same (e.g., "123" and "456" are both integers).</p>
  * 
@@ -45,8 +53,25 @@ public class MethodHandler {
         // static class
     }
     
+    /**
+     * Name of the optional method of a resource giving the entity tag of its GET representation.
+     */
+    public static final String ENTITY_TAG_METHOD = "etag";
+
     // Cache to store resolved methods based on resource class, HTTP method name, and parameter types
-    private static final Map<String, Method> methodCache = new ConcurrentHashMap<>();
+    private static final Map<CacheKey, ResolvedMethod> methodCache = new ConcurrentHashMap<>();
+
+    // Cache of the etag methods, keyed as the get method they stand for.
+    private static final Map<CacheKey, ResolvedMethod> entityTagMethodCache = new ConcurrentHashMap<>();
+
+    /**
+     * A resolved method with its invoker and its parameter binding plan, compiled once when the method enters the cache.
+     */
+    record ResolvedMethod(Method method, MethodInvoker invoker, BindingPlan bindingPlan) {
+        ResolvedMethod(Method method) {
+            this(method, Invokers.forMethod(method), BindingPlan.compile(method));
+        }
+    }
 
     /**
      * Finds the appropriate method on the resource class to handle the HTTP request.
@@ -75,18 +100,50 @@ public class MethodHandler {
             throw new NoSuchMethodException("Path parameters list cannot be null");
         }        
         
-        String methodName = httpMethodName.toString().toLowerCase();
-        String cacheKey = buildCacheKey(resourceClass, methodName, pathParams);
+        return resolve(methodCache, resourceClass, httpMethodName, httpMethodName.toString(), pathParams, httpDataHandle);
+    }
+
+    /**
+     * Finds the etag method of the resource class, which takes the same parameters as its get
+     * method. The etag method is not an HTTP method: it is resolved and cached apart from them.
+     * 
+     * @param resourceClass the class of the resource
+     * @param pathParams the list of path parameter values from the URL
+     * @param httpDataHandle the data of the request
+     * @return a MethodResolution object containing the resolved method and converted arguments
+     * @throws NoSuchMethodException if no etag method accepts the path parameters
+     * @throws IllegalArgumentException if path parameters cannot be converted to the required types
+     * @throws AmbiguityException if more than one etag method accepts the path parameters
+     */
+    public static MethodResolution findEntityTagMethod(Class<?> resourceClass, List<Object> pathParams, HttpDataHandle httpDataHandle) 
+            throws NoSuchMethodException, IllegalArgumentException, AmbiguityException 
+    {
+        if(resourceClass == null) {
+            throw new IllegalArgumentException("Resource class cannot be null");
+        }
+        if(pathParams == null) {
+            throw new NoSuchMethodException("Path parameters list cannot be null");
+        }
+
+        return resolve(entityTagMethodCache, resourceClass, HttpMethodName.GET, ENTITY_TAG_METHOD, pathParams, httpDataHandle);
+    }
+
+    private static MethodResolution resolve(Map<CacheKey, ResolvedMethod> cache, Class<?> resourceClass, HttpMethodName httpMethodName, String methodName, List<Object> pathParams, HttpDataHandle httpDataHandle) 
+            throws NoSuchMethodException, IllegalArgumentException, AmbiguityException 
+    {
+        // Recognize the kind of each path parameter once, for the cache key and the conversion.
+        ParamKind[] pathParamKinds = new ParamKind[pathParams.size()];
+        CacheKey cacheKey = new CacheKey(resourceClass, httpMethodName, pathParams, pathParamKinds);
                 
         Optional<List<Object>> convertedArgsOptional;
 
         // Look for the method in the cache.
-        Method methodFromCache = methodCache.get(cacheKey);
+        ResolvedMethod methodFromCache = cache.get(cacheKey);
 
         // If method is is the cache, it will be used ...
         if(methodFromCache != null) {
             // ... to convert path parameters to the required method's parameters types.
-            convertedArgsOptional = MethodResolver.createParameterDataList(methodFromCache, pathParams, httpDataHandle);
+            convertedArgsOptional = MethodResolver.createParameterDataList(methodFromCache.bindingPlan(), pathParams, pathParamKinds, httpDataHandle);
 
             // If the conversion fail, path parameters is not compatible with the parameter's types of the method.
             if(convertedArgsOptional.isEmpty()) {
@@ -94,14 +151,17 @@ public class MethodHandler {
             }
 
             // Every thing is ok, return the method and converted arguments.
-            return new MethodResolution(methodFromCache, convertedArgsOptional.get());
+            return new MethodResolution(methodFromCache.method(), methodFromCache.invoker(), convertedArgsOptional.get());
         }
 
         // So. The method is not in the cache. Then, resuolve the proper method to call.
-        Method method = MethodResolver.methodResolution(resourceClass, httpMethodName, pathParams);
+        Method method = MethodResolver.namedMethodResolution(resourceClass, methodName, pathParams);
+
+        // Compile its invoker and binding plan.
+        ResolvedMethod resolved = new ResolvedMethod(method);
 
         // Try to convert the path parameters to the required method's parameters types.
-        convertedArgsOptional = MethodResolver.createParameterDataList(method, pathParams, httpDataHandle);
+        convertedArgsOptional = MethodResolver.createParameterDataList(resolved.bindingPlan(), pathParams, pathParamKinds, httpDataHandle);
 
         // If convertion fails, there is no compatibility between path parameters and method parameters.
         if(convertedArgsOptional.isEmpty()) {
@@ -109,37 +169,78 @@ public class MethodHandler {
         }
 
         // The method was found. Put it in the cache.
-        methodCache.put(cacheKey, method);
+        cache.put(cacheKey, resolved);
 
         // Everything is ok, return the resolved method.
-        return new MethodResolution(method, convertedArgsOptional.get());
+        return new MethodResolution(resolved.method(), resolved.invoker(), convertedArgsOptional.get());
     }
 
     /**
-     * Builds a cache key based on the resource class name, HTTP method name, and parameter count.
-     * @param resourceClass the class of the resource
-     * @param httpMethodName the HTTP method name (e.g., GET, POST)
-     * @param paramCount the number of parameters
-     * @return a unique cache key string
+     * Key of the method cache: the resource class, the HTTP method and the kind of each path parameter.
+     * The kind is a {@link ParamKind} for String values and the class for other objects (e.g., the
+     * result of a parent resource). The hash is computed once, and equality compares references only,
+     * so looking up the cache allocates nothing.
      */
-    public static String buildCacheKey(Class<?> resourceClass, String httpMethodName, List<Object> pathParams) {
-        StringBuilder sb = new StringBuilder();
+    static final class CacheKey {
+        private final Class<?> resourceClass;
+        private final int httpMethod;
+        private final Object[] paramKinds;
+        private final int hash;
+
+        /**
+         * Build the key, recognizing the kind of each path parameter.
+         *
+         * @param resourceClass the class of the resource
+         * @param httpMethodName the HTTP method name
+         * @param pathParams the path parameter values
+         * @param pathParamKinds receives the kind of each String path parameter, for the conversion
+         */
+        CacheKey(Class<?> resourceClass, HttpMethodName httpMethodName, List<Object> pathParams, ParamKind[] pathParamKinds) {
+            this.resourceClass = resourceClass;
+            this.httpMethod = httpMethodName.ordinal();
+            this.paramKinds = new Object[pathParams.size()];
+
+            for (int i = 0; i < paramKinds.length; i++) {
+                Object param = pathParams.get(i);
+
+                if (param instanceof String value) {
+                    pathParamKinds[i] = Convertion.classify(value);
+                    paramKinds[i] = pathParamKinds[i];
+                } else if (param instanceof Parent<?> parent) {
+                    // The declared result type, the parent is not loaded for the key.
+                    paramKinds[i] = parent.type();
+                } else {
+                    paramKinds[i] = param.getClass();
+                }
+            }
+
+            this.hash = 31 * (31 * resourceClass.hashCode() + httpMethod) + Arrays.hashCode(paramKinds);
+        }
 
-        if(!pathParams.isEmpty()) {
-            pathParams.forEach(param -> 
-                sb.append((param instanceof String) ? 
-                        Convertion.kindOfParamType(param) : 
-                        param.getClass().getName())
-                    .append(", "));
+        @Override
+        public boolean equals(Object other) {
+            return this == other ||
+                other instanceof CacheKey key &&
+                hash == key.hash &&
+                resourceClass == key.resourceClass &&
+                httpMethod == key.httpMethod &&
+                Arrays.equals(paramKinds, key.paramKinds);
+        }
 
-            sb.setLength(sb.length() - 2); // Remove trailing comma
+        @Override
+        public int hashCode() {
+            return hash;
         }
 
-        return new StringBuilder(resourceClass.getName())
-            .append("#")
-            .append(sb.toString())
-            .append("#")
-            .append(httpMethodName)
-            .toString();
+        @Override
+        public String toString() {
+            StringJoiner kinds = new StringJoiner(", ", "[", "]");
+
+            for (Object kind : paramKinds) {
+                kinds.add((kind instanceof Class<?> type) ? type.getName() : kind.toString());
+            }
+
+            return resourceClass.getName() + "#" + kinds + "#" + HttpMethodName.values()[httpMethod];
+        }
     }
 }
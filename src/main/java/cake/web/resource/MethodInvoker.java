@@ -0,0 +1,26 @@
+package cake.web.resource;
+
+import java.util.List;
+
+/**
+ * A compiled call to a resource method, built once per method by {@link Invokers}.
+ *
+ * <p>Exceptions thrown by the resource method are thrown unchanged (they are not wrapped
+ * in {@link java.lang.reflect.InvocationTargetException}). The translation of checked and
+ * infrastructure exceptions is done by {@link MethodResolution#call(Object)}.</p>
+ *
+ * @since 0.0.46
+ * @see Invokers#forMethod(java.lang.reflect.Method)
+ */
+@FunctionalInterface
+public interface MethodInvoker {
+    /**
+     * Invokes the method on the resource instance.
+     *
+     * @param resource the object instance to invoke the method on
+     * @param args     the converted arguments, one per method parameter
+     * @return the result of the method, or null for void methods
+     * @throws Throwable whatever the resource method throws
+     */
+    Object invoke(Object resource, List<Object> args) throws Throwable;
+}
@@ -3,18 +3,20 @@ package cake.web.resource;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import cake.web.exception.AmbiguityException;
+import cake.web.exception.BusinessException;
 import cake.web.exception.PrimitiveNotAllowedException;
 import cake.web.exchange.HttpDataHandle;
 import cake.web.exchange.HttpMethodName;
 import cake.web.exchange.content.BodyContent;
 import cake.web.exchange.content.Convertion;
 import cake.web.exchange.content.HeaderContent;
+import cake.web.exchange.content.ParamKind;
+import cake.web.exchange.content.Parent;
 import cake.web.exchange.content.QueryParamContent;
 
 /**
@@ -57,6 +59,19 @@ import cake.web.exchange.content.QueryParamContent;
  * @see #buildFromQueryParameter(Class)
  */
 public class MethodResolver {
+    // The result of methodParameterMatch for a method that does not fit.
+    private static final int NO_MATCH = -1;
+
+    /**
+     * How a path parameter fits a parameter slot.
+     */
+    private enum Fit {
+        EXACT,
+        LOOSE,
+        NONE,
+        NOT_PATH
+    }
+
     private MethodResolver() {
         // static class
     }
@@ -72,7 +87,26 @@ public class MethodResolver {
      * @throws NoSuchMethodException if no compatible method is found or if the call is ambiguous
      */
     public static Method methodResolution(Class<?> resourceClass, HttpMethodName httpMethodName, List<Object> pathParams) throws NoSuchMethodException, AmbiguityException {
-        if(resourceClass == null || httpMethodName == null || pathParams == null) {
+        if(httpMethodName == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+
+        return namedMethodResolution(resourceClass, httpMethodName.toString(), pathParams);
+    }
+
+    /**
+     * Finds the method of the given name in the resource class that can accept the given path
+     * parameters, e.g., the etag method of a resource.
+     * 
+     * @param resourceClass the class that represents the endpoint
+     * @param methodName the name of the method want to call
+     * @param pathParams the path parameter values from the request
+     * @return The method to call
+     * @throws NoSuchMethodException if no compatible method is found
+     * @throws AmbiguityException if more than one method is compatible
+     */
+    static Method namedMethodResolution(Class<?> resourceClass, String methodName, List<Object> pathParams) throws NoSuchMethodException, AmbiguityException {
+        if(resourceClass == null || methodName == null || pathParams == null) {
             throw new IllegalArgumentException("Arguments cannot be null");
         }
  
@@ -90,26 +124,36 @@ public class MethodResolver {
         }
 
         // Search for public and non-static http method in the resource class.
-        List<Method> filteredMethods = Arrays.stream(resourceClass.getMethods())
+        List<Method> matchingMethods = Arrays.stream(resourceClass.getMethods())
             .filter(m -> (
-                m.getName().equals(httpMethodName.toString()) &&
+                m.getName().equals(methodName) &&
                 java.lang.reflect.Modifier.isPublic(m.getModifiers()) &&
                 !java.lang.reflect.Modifier.isStatic(m.getModifiers())) &&
-                methodParameterMatch(m, pathParams)
+                methodParameterMatch(m, pathParams) != NO_MATCH
             )
             .toList();
 
+        // Keep the methods whose slots fit the kinds of the path parameters best, e.g., a single
+        // value goes to get(Integer) rather than get(List<Integer>).
+        int fewestLooseFits = matchingMethods.stream()
+            .mapToInt(m -> methodParameterMatch(m, pathParams))
+            .min()
+            .orElse(NO_MATCH);
+        List<Method> filteredMethods = matchingMethods.stream()
+            .filter(m -> methodParameterMatch(m, pathParams) == fewestLooseFits)
+            .toList();
+
         // There is no correspondent http method.
         if(filteredMethods.isEmpty()) { 
             throw new NoSuchMethodException(
-                "No public non-static method named " + resourceClass.getName() + "." + httpMethodName + " found."
+                "No public non-static method named " + resourceClass.getName() + "." + methodName + " found."
             );
         }
 
         // Only one method with the same number of path parameters is allowed. Otherwise, it is ambiguous.
         if (filteredMethods.size() > 1) {
             throw new AmbiguityException(
-                "Ambiguity call to " + resourceClass.getName() + "." + httpMethodName +  
+                "Ambiguity call to " + resourceClass.getName() + "." + methodName +  
                 ". Endpoint overload is not allowed.\n" +
                 filteredMethods.stream()
                     .map(m -> m.getName() + "(" + formatParamTypes(m.getParameterTypes()) + ")")
@@ -126,40 +170,43 @@ public class MethodResolver {
      * The method can has a mix of parameter that source is a path parameter, body constent, header attribute 
      * or query parameter. This method check if every source match with method parameter.
      * 
+     * <p>A path parameter value fits a slot according to its {@link ParamKind}:</p>
+     * <ul>
+     *   <li>a single value fits a basic converseble slot, and loosely a multi-value slot, as a list of one value;</li>
+     *   <li>comma-separated values ({@link ParamKind#LIST}) fit a multi-value slot, and loosely a
+     *       {@code String} slot, which takes the text whole; they do not fit any other slot.</li>
+     * </ul>
+     * 
      * @param method the method to check
      * @param pathParams the path parameters
-     * @return Return true if maethod parameters match with the sources
+     * @return the number of path parameters that only fit their slot loosely, or {@link #NO_MATCH}
+     *         if the method parameters do not match with the sources
      */
-    private static boolean methodParameterMatch(Method method, List<Object> pathParams) {
+    private static int methodParameterMatch(Method method, List<Object> pathParams) {
         // If null or empty, the result is an empty list.
         if(method == null || pathParams == null || (method.getParameterCount() < pathParams.size())) {
-            return false;
+            return NO_MATCH;
         }
 
-        List<Class<?>> parameterTypes = Arrays.asList(method.getParameterTypes());
-        
         // Counters of parameters already found
-        int numberOfPathParam = pathParams.size();
+        int numberOfPathParam = 0;
+        int numberOfLooseFits = 0;
         int numberOfBodyContent = 0;
         int numberOfQueryParam = 0;
         int numberOfHeaderContent = 0;
         
         // Count what kind of parameters are already found
-        for(var paramIterator = parameterTypes.iterator(); paramIterator.hasNext(); ) {
-            Class<?> paramType = paramIterator.next();
-            
-            // Parameter type should correspond to a path parameter type if:
-            //     1. The parameter type is a converseble type for the framework or;
-            //     2. There is path parameter(s) and;
-            //     3. All path parameters has not been checked and;
-            //     4. The types are equals.
-            boolean shouldCorrespondType = Convertion.isBasicConversebleType(paramType) ||
-                !pathParams.isEmpty() &&
-                ((pathParams.size() - numberOfPathParam) < pathParams.size() && 
-                paramType.equals(pathParams.get(pathParams.size() - numberOfPathParam).getClass()));
-
-            if(shouldCorrespondType) {
-                numberOfPathParam--;
+        for(Class<?> paramType : method.getParameterTypes()) {
+            Object pathParam = (numberOfPathParam < pathParams.size()) ? pathParams.get(numberOfPathParam) : null;
+            Fit fit = fitOf(pathParam, paramType);
+
+            if(fit == Fit.NONE) {
+                return NO_MATCH;
+            }
+
+            if(fit != Fit.NOT_PATH) {
+                numberOfPathParam++;
+                numberOfLooseFits += (fit == Fit.LOOSE) ? 1 : 0;
             } else if(BodyContent.class.isAssignableFrom(paramType)) {
                 numberOfBodyContent++;
             } else if(QueryParamContent.class.isAssignableFrom(paramType)) {
@@ -170,7 +217,63 @@ public class MethodResolver {
         }
 
         // The method will be choose if it has all parameters of path param and one or none of body, header and query data.
-        return (numberOfPathParam == 0 && numberOfBodyContent <= 1 && numberOfQueryParam <= 1 && numberOfHeaderContent <= 1);
+        boolean match = numberOfPathParam == pathParams.size() && numberOfBodyContent <= 1 && numberOfQueryParam <= 1 && numberOfHeaderContent <= 1;
+
+        return match ? numberOfLooseFits : NO_MATCH;
+    }
+
+    /**
+     * Check how the next path parameter fits a parameter slot. The slot takes a path parameter if:
+     * <ol>
+     *   <li>The parameter type is a converseble type for the framework or;</li>
+     *   <li>The parameter type takes comma-separated values (List or array), or the result of a
+     *       parent returning a List or an array, bound as is, or;</li>
+     *   <li>The type of the path parameter equals the parameter type.</li>
+     * </ol>
+     * 
+     * @param pathParam the next path parameter, or null if all of them are already taken
+     * @param paramType the type of the parameter slot
+     * @return how the path parameter fits, {@link Fit#NOT_PATH} if the slot takes no path parameter
+     */
+    private static Fit fitOf(Object pathParam, Class<?> paramType) {
+        boolean basic = Convertion.isBasicConversebleType(paramType);
+        boolean multiValue = Convertion.isMultiValueType(paramType);
+
+        if(!basic && !multiValue) {
+            return (pathParam != null && paramType.equals(typeOf(pathParam, paramType))) ? Fit.EXACT : Fit.NOT_PATH;
+        }
+        if(pathParam == null) {
+            return Fit.NONE;
+        }
+        if(!(pathParam instanceof String value)) {
+            return Fit.EXACT;
+        }
+        if(Convertion.classify(value) != ParamKind.LIST) {
+            return basic ? Fit.EXACT : Fit.LOOSE;
+        }
+        if(multiValue) {
+            return Fit.EXACT;
+        }
+
+        return (paramType == String.class) ? Fit.LOOSE : Fit.NONE;
+    }
+
+    /**
+     * Get the type a path parameter offers to a parameter slot. A {@link Parent} offers itself to
+     * a slot of type {@link Parent}; to another slot it offers the declared return type of its get
+     * method, as the method cache key does. The parent is not loaded to match a method, only to
+     * bind its result.
+     * 
+     * @param pathParam the path parameter value, parent result or parent
+     * @param paramType the type of the parameter slot
+     * @return the type to compare with the slot
+     */
+    private static Class<?> typeOf(Object pathParam, Class<?> paramType) {
+        if (pathParam instanceof Parent<?> parent && paramType != Parent.class) {
+            return parent.type();
+        }
+
+        return pathParam.getClass();
     }
 
     // Helper method to format parameter types for error messages
@@ -185,18 +288,45 @@ public class MethodResolver {
      * @return an Optional containing the list of converted parameter values if successful, or empty if conversion fails
      */
     public static Optional<List<Object>> createParameterDataList(Method method, List<Object> pathParams, HttpDataHandle httpDataHandle) {
+        return createParameterDataList(method, pathParams, null, httpDataHandle);
+    }
+
+    /**
+     * Attempts to convert the path parameters to the types required by the method's parameters,
+     * reusing the kinds already recognized in the path parameter values.
+     * @param method the method for which to create the parameter data list
+     * @param pathParams the original path parameters as objects
+     * @param pathParamKinds the kind of each String path parameter (null for other objects), or null to classify them again
+     * @return an Optional containing the list of converted parameter values if successful, or empty if conversion fails
+     */
+    public static Optional<List<Object>> createParameterDataList(Method method, List<Object> pathParams, ParamKind[] pathParamKinds, HttpDataHandle httpDataHandle) {
         if(method == null || pathParams == null) {
             return Optional.empty();
         }
 
-        Class<?>[] parameterTypes = method.getParameterTypes();
+        return createParameterDataList(BindingPlan.compile(method), pathParams, pathParamKinds, httpDataHandle);
+    }
 
-        if (pathParams.size() > parameterTypes.length) {
+    /**
+     * Attempts to bind the path parameters and the request data following the binding plan of a method.
+     * @param bindingPlan the binding plan of the method
+     * @param pathParams the original path parameters as objects
+     * @param pathParamKinds the kind of each String path parameter (null for other objects), or null to classify them again
+     * @return an Optional containing the list of converted parameter values if successful, or empty if conversion fails
+     * @throws BusinessException if reading a source fails with it, e.g., a body too large
+     * @throws IllegalArgumentException if the body is malformed or does not fit its parameter
+     */
+    static Optional<List<Object>> createParameterDataList(BindingPlan bindingPlan, List<Object> pathParams, ParamKind[] pathParamKinds, HttpDataHandle httpDataHandle) {
+        if (pathParams.size() > bindingPlan.size()) {
             return Optional.empty();
         }
 
         try {
-            return Optional.of(convertPathParams(parameterTypes, pathParams, httpDataHandle));
+            return Optional.of(bindingPlan.bind(pathParams, pathParamKinds, httpDataHandle));
+        } catch (BindingPlan.SourceFailure e) {
+            throw e.getCause();
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception _) {
             return Optional.empty();
         }
@@ -212,37 +342,6 @@ public class MethodResolver {
      * @throws PrimitiveNotAllowedException if a parameter type is a primitive type.
      */
     protected static List<Object> convertPathParams(Class<?>[] parameterTypes, List<Object> pathParams, HttpDataHandle httpDataHandle) throws IOException {
-        if(parameterTypes.length < pathParams.size()) {
-            throw new ArrayIndexOutOfBoundsException("The number of path parameters (" + pathParams.size() + ") is bigger than the number of parameter types (" + parameterTypes.length + ").");
-        }
-
-        List<Object> result = new ArrayList<>(parameterTypes.length);
-        List<Class<?>> interfaces;
-
-        for(int i = 0; i < parameterTypes.length; i++) {
-            if(parameterTypes[i].isPrimitive()) {
-                throw new PrimitiveNotAllowedException("Parameter with type " + parameterTypes[i].getName() + " is not allowed");
-            }
-
-            interfaces = Arrays.asList(parameterTypes[i].getInterfaces());
-
-            if(interfaces.contains(BodyContent.class)) {
-                result.add(httpDataHandle.buildFromBody(parameterTypes[i]));
-            }
-            else if(interfaces.contains(QueryParamContent.class)) {
-                result.add(httpDataHandle.buildFromQueryParameter(parameterTypes[i]));
-            }
-            else if(interfaces.contains(HeaderContent.class)) {
-                result.add(httpDataHandle.buildFromHeader(parameterTypes[i]));
-            }
-            else if(Convertion.isBasicConversebleType(parameterTypes[i])) {
-                result.add(Convertion.convert(pathParams.get(i), parameterTypes[i]));
-            }
-            else if(parameterTypes[i].isAssignableFrom(pathParams.get(i).getClass())) {
-                result.add(pathParams.get(i));
-            }
-        }
-
-        return result;
+        return BindingPlan.compile(parameterTypes).bind(pathParams, null, httpDataHandle);
     }
 }
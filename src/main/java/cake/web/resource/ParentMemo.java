@@ -0,0 +1,162 @@
+package cake.web.resource;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import cake.web.cache.BoundedCache;
+import cake.web.cache.CacheStats;
+import cake.web.configuration.PackageSettings;
+import cake.web.configuration.ParentMemoConfig;
+import cake.web.exception.MethodInvocationException;
+
+/**
+ * <p>Short-lived memo of the results of parent resources, shared by the requests to nested URIs.</p>
+ *
+ * <p>For {@code /customer/123/proposal/456}, the result of {@code Customer.get(123)} is kept for
+ * the time to live of {@code Customer}, keyed by the resolved get method and its converted
+ * arguments, so the next requests under {@code /customer/123} skip the parent call. The results
+ * are kept in a {@link BoundedCache}; a stale result is dropped when it is looked up.</p>
+ *
+ * <p>A write addressed to the path of a parent, or above it (e.g., {@code PUT /customer/123} or
+ * {@code DELETE /customer}), invalidates its results through {@link #invalidate(String)}. A
+ * memoized result is shared by the requests: child resources must not modify it.</p>
+ *
+ * <p>Every invalidation starts a new generation. A parent call that started before an
+ * invalidation does not memoize its result, which may have been read before the write.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is thread-safe. A result is memoized and the memo invalidated under a lock, so
+ * a result of a previous generation is never memoized after the invalidation.</p>
+ *
+ * @since 0.0.46
+ * @see ParentMemoConfig
+ */
+public class ParentMemo {
+    private static final ParentMemo DISABLED = new ParentMemo(new ParentMemoConfig());
+
+    private final boolean enabled;
+    private final PackageSettings<Long> ttls;
+    private final BoundedCache<MemoKey, Memo> memos;
+
+    // Guards the generation, so a result is never memoized across an invalidation.
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long generation;
+
+    /**
+     * Identity of a parent call: the resolved get method and its arguments. A parent among the
+     * arguments is compared by its own call, so a nested parent is found again by the next
+     * requests.
+     */
+    private record MemoKey(Method method, List<Object> args) {}
+
+    /**
+     * A parent result, with the path of the parent for the invalidation.
+     */
+    private record Memo(Object result, String path, long expiresAt) {}
+
+    /**
+     * Create the memo of the given configuration.
+     *
+     * @param config the parent memo settings
+     */
+    public ParentMemo(ParentMemoConfig config) {
+        this.enabled = config.isEnabled();
+        this.ttls = new PackageSettings<>(config.getTtls(), 0L);
+        this.memos = new BoundedCache<>(config.isEnabled() ? config.getMaxEntries() : 0);
+    }
+
+    /**
+     * Get a memo that calls every parent.
+     *
+     * @return the disabled memo
+     */
+    public static ParentMemo disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Get the result of the parent: the memoized one if it is fresh, or else the result of the
+     * call, memoized if the parent has a time to live.
+     *
+     * @param parentResource   the parent resource instance
+     * @param methodResolution the resolved get method of the parent and its arguments
+     * @param parentPath       the path of the parent (e.g., {@code /customer/123})
+     * @return the result of the parent
+     * @throws MethodInvocationException if the invocation fails
+     */
+    public Object call(Object parentResource, MethodResolution methodResolution, String parentPath) {
+        long ttl = enabled ? TimeUnit.MILLISECONDS.toNanos(ttls.of(parentResource.getClass())) : 0;
+
+        if (ttl <= 0) {
+            return methodResolution.call(parentResource);
+        }
+
+        MemoKey key = new MemoKey(methodResolution.method(), methodResolution.args());
+        Memo memo = memos.get(key);
+        long now = System.nanoTime();
+
+        if (memo != null) {
+            if (now - memo.expiresAt() < 0) {
+                return memo.result();
+            }
+
+            memos.remove(key);
+        }
+
+        long called = generation;
+        Object result = methodResolution.call(parentResource);
+
+        if (result != null) {
+            put(key, new Memo(result, parentPath, now + ttl), called);
+        }
+
+        return result;
+    }
+
+    /**
+     * Invalidate the results of the parents at the path written to, or under it.
+     *
+     * @param path the path written to
+     * @return the number of results removed
+     */
+    public int invalidate(String path) {
+        if (!enabled) {
+            return 0;
+        }
+
+        String written = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+
+        lock.lock();
+        try {
+            generation++;
+
+            return memos.removeIf(memo -> memo.path().equals(written)
+                || written.isEmpty() || memo.path().startsWith(written + "/"));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Memoize the result, unless the memo was invalidated since the parent was called.
+    private void put(MemoKey key, Memo memo, long called) {
+        lock.lock();
+        try {
+            if (called == generation) {
+                memos.put(key, memo);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get a snapshot of the hit, miss and eviction counters of the memo.
+     *
+     * @return the memo counters
+     */
+    public CacheStats stats() {
+        return memos.stats();
+    }
+}
@@ -0,0 +1,223 @@
+package cake.web.resource;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import cake.web.cache.BoundedCache;
+import cake.web.cache.CacheStats;
+import cake.web.configuration.CakeWebConfig;
+import cake.web.configuration.PackageSettings;
+import cake.web.configuration.ResourceScope;
+import cake.web.exception.ResourceResolutionException;
+import cake.web.exchange.HttpMethodName;
+
+/**
+ * <p>Holds the resource resolution state that is prepared once, when the application starts.</p>
+ *
+ * <p>When the configuration lists resource packages, the registry scans them into a
+ * {@link RouteTrie} and the request exchanges walk the trie. Otherwise the registry is empty
+ * and the exchanges fall back to the lazy discovery, probing the class loader per URI token.
+ * In that mode the registry also keeps a bounded cache of the class names already known not
+ * to exist, so package segments are not passed to {@link Class#forName(String)} again.</p>
+ *
+ * <h3>Resource Scopes</h3>
+ * <p>The registry also creates the resource instances, following the {@link ResourceScope}
+ * configured for the class or its package. Singletons of the scanned resources, and of the
+ * resources named in the configuration, are created when the registry is built: a class is a
+ * resource if it has a public no-arg constructor and a public method named after an HTTP
+ * method. Other classes of the packages (e.g., models) are left alone, and singletons of
+ * packages discovered lazily are created on their first request.</p>
+ *
+ * <h3>Call Coalescing and Parent Memo</h3>
+ * <p>The registry holds the {@link CallCoalescing} and the {@link ParentMemo} of the
+ * configuration, shared by the exchanges so identical concurrent GET and HEAD calls run once,
+ * and parent results are reused for their time to live.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>A registry is built once and shared by all requests. Its state is immutable or thread-safe.</p>
+ *
+ * @since 0.0.46
+ * @see RouteTrie
+ */
+public class ResourceRegistry {
+    private static final ResourceRegistry LAZY = new ResourceRegistry(null, new CakeWebConfig().getNegativeLookupCacheSize(), Map.of(), CallCoalescing.disabled(), ParentMemo.disabled());
+
+    private static final Set<String> HTTP_METHODS = Arrays.stream(HttpMethodName.values())
+        .map(HttpMethodName::toString)
+        .collect(Collectors.toUnmodifiableSet());
+
+    private final RouteTrie routeTrie;
+    private final BoundedCache<String, Boolean> negativeLookups;
+    private final PackageSettings<ResourceScope> resourceScopes;
+    private final CallCoalescing callCoalescing;
+    private final ParentMemo parentMemo;
+
+    // Instance providers by resource class, built from the scope of the class.
+    private final Map<Class<?>, Supplier<Object>> providers = new ConcurrentHashMap<>();
+
+    private ResourceRegistry(RouteTrie routeTrie, int negativeLookupCacheSize, Map<String, ResourceScope> resourceScopes, CallCoalescing callCoalescing, ParentMemo parentMemo) {
+        this.routeTrie = routeTrie;
+        this.negativeLookups = new BoundedCache<>(negativeLookupCacheSize);
+        this.resourceScopes = new PackageSettings<>(resourceScopes, ResourceScope.PER_REQUEST);
+        this.callCoalescing = callCoalescing;
+        this.parentMemo = parentMemo;
+    }
+
+    /**
+     * Build the registry for the given configuration, scanning the resource packages if any.
+     *
+     * @param config application configuration settings
+     * @return the registry ready to serve requests
+     */
+    public static ResourceRegistry build(CakeWebConfig config) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        CallCoalescing callCoalescing = new CallCoalescing(config.getCoalescing());
+        ParentMemo parentMemo = new ParentMemo(config.getParentMemo());
+        ResourceRegistry registry;
+
+        if (config.getResourcePackages().isEmpty()) {
+            registry = new ResourceRegistry(null, config.getNegativeLookupCacheSize(), config.getResourceScopes(), callCoalescing, parentMemo);
+        } else {
+            RouteTrie routeTrie = RouteTrie.scan(config.getResourcePackages(), classLoader);
+            registry = new ResourceRegistry(routeTrie, 0, config.getResourceScopes(), callCoalescing, parentMemo);
+
+            routeTrie.resourceClasses().forEach(registry::createSingleton);
+        }
+
+        // Classes named in the configuration are known without scanning.
+        for (String name : config.getResourceScopes().keySet()) {
+            Class<?> resourceClass = loadClass(name, classLoader);
+
+            if (resourceClass != null) {
+                registry.createSingleton(resourceClass);
+            }
+        }
+
+        return registry;
+    }
+
+    /**
+     * Get the registry for the lazy discovery mode, used when no configuration is given.
+     *
+     * @return the shared lazy registry
+     */
+    public static ResourceRegistry lazy() {
+        return LAZY;
+    }
+
+    /**
+     * Get the route trie compiled at startup.
+     *
+     * @return the route trie, or empty in the lazy discovery mode
+     */
+    public Optional<RouteTrie> routeTrie() {
+        return Optional.ofNullable(routeTrie);
+    }
+
+    /**
+     * Get an instance of the resource class, new or shared according to its scope.
+     *
+     * @param resourceClass the resource class
+     * @return the resource instance
+     * @throws ResourceResolutionException if the class has no public no-arg constructor
+     */
+    public Object instantiate(Class<?> resourceClass) {
+        Supplier<Object> provider = providers.get(resourceClass);
+
+        if (provider == null) {
+            // Computed atomically, so a singleton is never created twice.
+            provider = providers.computeIfAbsent(resourceClass, this::providerOf);
+        }
+
+        return provider.get();
+    }
+
+    /**
+     * Get the coalescing of identical concurrent GET and HEAD calls.
+     *
+     * @return the call coalescing, disabled in the lazy discovery mode without configuration
+     */
+    public CallCoalescing callCoalescing() {
+        return callCoalescing;
+    }
+
+    /**
+     * Get the memo of the results of parent resources.
+     *
+     * @return the parent memo, disabled in the lazy discovery mode without configuration
+     */
+    public ParentMemo parentMemo() {
+        return parentMemo;
+    }
+
+    /**
+     * Get the cache of fully qualified names already known not to be classes, used by the lazy discovery.
+     *
+     * @return the negative lookup cache
+     */
+    public BoundedCache<String, Boolean> negativeLookups() {
+        return negativeLookups;
+    }
+
+    /**
+     * Get the hit, miss and eviction counters of the negative lookup cache.
+     *
+     * @return the negative lookup cache counters
+     */
+    public CacheStats negativeLookupStats() {
+        return negativeLookups.stats();
+    }
+
+    private void createSingleton(Class<?> resourceClass) {
+        if (resourceScopes.of(resourceClass) == ResourceScope.SINGLETON && isResource(resourceClass)) {
+            instantiate(resourceClass);
+        }
+    }
+
+    // Whether the class can be created and answers at least one HTTP method.
+    private static boolean isResource(Class<?> candidate) {
+        try {
+            candidate.getConstructor();
+        } catch (NoSuchMethodException | SecurityException _) {
+            return false;
+        }
+
+        for (Method method : candidate.getMethods()) {
+            if (!Modifier.isStatic(method.getModifiers()) && HTTP_METHODS.contains(method.getName().toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private Supplier<Object> providerOf(Class<?> resourceClass) {
+        Supplier<Object> constructor = Invokers.forConstructor(resourceClass);
+
+        return switch (resourceScopes.of(resourceClass)) {
+            case SINGLETON -> {
+                Object instance = constructor.get();
+                yield () -> instance;
+            }
+            case PER_THREAD -> ThreadLocal.withInitial(constructor)::get;
+            case PER_REQUEST -> constructor;
+        };
+    }
+
+    // Load a class named in the configuration, or null if the name is a package.
+    private static Class<?> loadClass(String name, ClassLoader classLoader) {
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError _) {
+            return null;
+        }
+    }
+}
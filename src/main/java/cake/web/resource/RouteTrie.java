@@ -0,0 +1,259 @@
+package cake.web.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import cake.web.exception.ResourceResolutionException;
+
+/**
+ * <p>Immutable prefix tree of package segments and resource classes, compiled once at startup.</p>
+ *
+ * <p>The trie is built by scanning the root packages listed in the configuration. Each node
+ * represents a Java package: its children are the sub packages, keyed by segment name, and its
+ * resources are the public concrete classes of that package, keyed by the URI token that
+ * reaches them (e.g., {@code customer} and {@code Customer} for class {@code Customer}).</p>
+ *
+ * <h3>Design Intention</h3>
+ * <p>In the lazy discovery mode every URI token is probed with {@link Class#forName(String)},
+ * and every miss costs a {@link ClassNotFoundException}. Walking the trie costs one hash lookup
+ * per token and never reaches the class loader, and an unknown prefix can be rejected right away.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>Instances are immutable after {@link #scan(Collection, ClassLoader)} and safe to share.</p>
+ *
+ * @since 0.0.46
+ * @see ResourceRegistry
+ */
+public final class RouteTrie {
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final Node root;
+    private final List<Class<?>> resourceClasses;
+
+    private RouteTrie(Node root, List<Class<?>> resourceClasses) {
+        this.root = root;
+        this.resourceClasses = resourceClasses;
+    }
+
+    /**
+     * Scans the given root packages (recursively) and compiles the found resource classes into a trie.
+     *
+     * @param packages the root packages to scan (e.g., {@code com.thebank.loan}); an empty name means the default package
+     * @param classLoader the class loader used to list and load the classes
+     * @return the compiled trie
+     * @throws ResourceResolutionException if the class path cannot be read
+     */
+    public static RouteTrie scan(Collection<String> packages, ClassLoader classLoader) {
+        Builder root = new Builder();
+        Set<Class<?>> resourceClasses = new LinkedHashSet<>();
+
+        for (String packageName : packages) {
+            for (String className : listClassNames(packageName, classLoader)) {
+                Class<?> resourceClass = loadResourceClass(className, classLoader);
+
+                if (resourceClass != null) {
+                    root.add(resourceClass);
+                    resourceClasses.add(resourceClass);
+                }
+            }
+        }
+
+        return new RouteTrie(root.build(), List.copyOf(resourceClasses));
+    }
+
+    /**
+     * Get the node that represents the default package, where every URI walk begins.
+     *
+     * @return the root node
+     */
+    public Node root() {
+        return root;
+    }
+
+    /**
+     * Get the number of resource classes compiled into the trie.
+     *
+     * @return the number of resource classes
+     */
+    public int size() {
+        return resourceClasses.size();
+    }
+
+    /**
+     * Get the resource classes compiled into the trie, in scan order.
+     *
+     * @return the resource classes
+     */
+    public List<Class<?>> resourceClasses() {
+        return resourceClasses;
+    }
+
+    /**
+     * A package in the trie, with its sub packages and resource classes.
+     */
+    public static final class Node {
+        private final Map<String, Node> packages;
+        private final Map<String, Class<?>> resources;
+
+        private Node(Map<String, Node> packages, Map<String, Class<?>> resources) {
+            this.packages = packages;
+            this.resources = resources;
+        }
+
+        /**
+         * Get the sub package named by the given URI token.
+         *
+         * @param token the URI token
+         * @return the sub package node, or null if there is none
+         */
+        public Node child(String token) {
+            return packages.get(token);
+        }
+
+        /**
+         * Get the resource class of this package named by the given URI token.
+         *
+         * @param token the URI token (e.g., {@code customer})
+         * @return the resource class, or null if there is none
+         */
+        public Class<?> resource(String token) {
+            return resources.get(token);
+        }
+    }
+
+    // Mutable node used only while scanning.
+    private static final class Builder {
+        private final Map<String, Builder> packages = new HashMap<>();
+        private final Map<String, Class<?>> resources = new HashMap<>();
+
+        void add(Class<?> resourceClass) {
+            Builder node = this;
+
+            if (!resourceClass.getPackageName().isEmpty()) {
+                for (String segment : resourceClass.getPackageName().split("\\.")) {
+                    node = node.packages.computeIfAbsent(segment, _ -> new Builder());
+                }
+            }
+
+            String simpleName = resourceClass.getSimpleName();
+
+            // The lazy discovery capitalizes the token, so both "customer" and "Customer" reach Customer.
+            node.resources.put(simpleName, resourceClass);
+            node.resources.put(Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1), resourceClass);
+        }
+
+        Node build() {
+            Map<String, Node> builtPackages = new HashMap<>();
+
+            packages.forEach((segment, child) -> builtPackages.put(segment, child.build()));
+
+            return new Node(Map.copyOf(builtPackages), Map.copyOf(resources));
+        }
+    }
+
+    /**
+     * Loads a scanned class and checks whether it can be a resource: a public, concrete,
+     * top level class whose simple name starts with an uppercase letter.
+     */
+    private static Class<?> loadResourceClass(String className, ClassLoader classLoader) {
+        Class<?> candidate;
+
+        try {
+            candidate = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError _) {
+            return null;
+        }
+
+        int modifiers = candidate.getModifiers();
+
+        boolean isResource = Modifier.isPublic(modifiers) &&
+            !Modifier.isAbstract(modifiers) &&
+            !candidate.isInterface() &&
+            !candidate.isEnum() &&
+            !candidate.isMemberClass() &&
+            !candidate.getSimpleName().isEmpty() &&
+            Character.isUpperCase(candidate.getSimpleName().charAt(0));
+
+        return isResource ? candidate : null;
+    }
+
+    // List the fully qualified names of the classes under the package, from directories and jars.
+    private static Collection<String> listClassNames(String packageName, ClassLoader classLoader) {
+        String packagePath = packageName.replace('.', '/');
+        Collection<String> classNames = new TreeSet<>();
+
+        try {
+            Enumeration<URL> urls = classLoader.getResources(packagePath);
+
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+
+                if ("file".equals(url.getProtocol())) {
+                    listFromDirectory(Paths.get(url.toURI()), packageName, classNames);
+                } else if ("jar".equals(url.getProtocol())) {
+                    listFromJar((JarURLConnection) url.openConnection(), packagePath, classNames);
+                }
+            }
+        } catch (IOException | URISyntaxException | UncheckedIOException e) {
+            throw new ResourceResolutionException("Failed to scan resource package " + packageName, e);
+        }
+
+        return classNames;
+    }
+
+    private static void listFromDirectory(Path directory, String packageName, Collection<String> classNames) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(file -> isTopLevelClassFile(file.getFileName().toString()))
+                .forEach(file -> {
+                    String relative = directory.relativize(file).toString().replace(File.separatorChar, '.');
+                    String simpleName = relative.substring(0, relative.length() - CLASS_SUFFIX.length());
+
+                    classNames.add(packageName.isEmpty() ? simpleName : packageName + "." + simpleName);
+                });
+        }
+    }
+
+    private static void listFromJar(JarURLConnection connection, String packagePath, Collection<String> classNames) throws IOException {
+        connection.setUseCaches(false);
+
+        try (JarFile jarFile = connection.getJarFile()) {
+            String prefix = packagePath.isEmpty() ? "" : packagePath + "/";
+            Enumeration<JarEntry> entries = jarFile.entries();
+
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                String fileName = name.substring(name.lastIndexOf('/') + 1);
+
+                if (name.startsWith(prefix) && isTopLevelClassFile(fileName)) {
+                    classNames.add(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+                }
+            }
+        }
+    }
+
+    private static boolean isTopLevelClassFile(String fileName) {
+        return fileName.endsWith(CLASS_SUFFIX) &&
+            fileName.indexOf('$') < 0 &&
+            !fileName.equals("package-info.class") &&
+            !fileName.equals("module-info.class");
+    }
+}
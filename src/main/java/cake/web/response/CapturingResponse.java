@@ -0,0 +1,159 @@
+package cake.web.response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import cake.web.cache.CachedResponse;
+
+/**
+ * <p>Response that keeps a copy of its body, status and content headers while they are
+ * written, for the response cache.</p>
+ *
+ * <p>Only a body whose Content-Length is set before it is written is copied, into a buffer of
+ * that length; a streamed body is written through and never cached.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is not thread-safe. A new instance is created per response.</p>
+ *
+ * @since 0.0.46
+ * @see ResponseCaching
+ */
+final class CapturingResponse extends HttpServletResponseWrapper {
+    private final String key;
+    private final String path;
+    private final Class<?> resourceClass;
+    private final long ttlNanos;
+    private final long generation;
+
+    private int status = HttpServletResponse.SC_OK;
+    private String contentType;
+    private String entityTag;
+    private long contentLength = -1;
+    private ByteArrayOutputStream body;
+    private ServletOutputStream outputStream;
+
+    CapturingResponse(HttpServletResponse response, String key, String path, Class<?> resourceClass, long ttlNanos, long generation) {
+        super(response);
+
+        this.key = key;
+        this.path = path;
+        this.resourceClass = resourceClass;
+        this.ttlNanos = ttlNanos;
+        this.generation = generation;
+    }
+
+    String key() {
+        return key;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+        super.setStatus(status);
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+        super.setContentType(contentType);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (EntityTags.ETAG.equalsIgnoreCase(name)) {
+            entityTag = value;
+        }
+
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        this.contentLength = length;
+        super.setContentLength(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        this.contentLength = length;
+        super.setContentLengthLong(length);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            ServletOutputStream target = super.getOutputStream();
+
+            if (contentLength < 0 || contentLength > Integer.MAX_VALUE) {
+                outputStream = target;
+            } else {
+                body = new ByteArrayOutputStream((int) contentLength);
+                outputStream = new TeeServletOutputStream(target, body);
+            }
+        }
+
+        return outputStream;
+    }
+
+    /**
+     * Get the response to cache, if it is a complete 200 response with a known length.
+     *
+     * @return the response to cache, or null if it cannot be cached
+     */
+    CachedResponse toCachedResponse() {
+        if (status != HttpServletResponse.SC_OK || body == null || body.size() != contentLength) {
+            return null;
+        }
+
+        return new CachedResponse(path, resourceClass, contentType, entityTag, body.toByteArray(), System.nanoTime() + ttlNanos);
+    }
+
+    /**
+     * Servlet stream writing to the response and to the copy of the body.
+     */
+    private static final class TeeServletOutputStream extends ServletOutputStream {
+        private final ServletOutputStream target;
+        private final ByteArrayOutputStream copy;
+
+        TeeServletOutputStream(ServletOutputStream target, ByteArrayOutputStream copy) {
+            this.target = target;
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            target.setWriteListener(writeListener);
+        }
+    }
+}
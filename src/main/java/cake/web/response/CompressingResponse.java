@@ -0,0 +1,230 @@
+package cake.web.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * <p>Response that compresses its body as it is written, with gzip or deflate.</p>
+ *
+ * <p>A Content-Length set before the body decides: below the minimum size the body is sent as
+ * is, with its length; otherwise the length is dropped (the compressed length is not known
+ * upfront) and the body is compressed. A body written without a length, e.g., a stream of
+ * elements, is always compressed. Flushes are sync flushes, so a streamed element reaches the
+ * client without waiting for the end of the body.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is not thread-safe. A new instance is created per response.</p>
+ *
+ * @since 0.0.46
+ * @see ResponseCompression
+ */
+final class CompressingResponse extends HttpServletResponseWrapper {
+    private final String encoding;
+    private final int level;
+    private final int minSize;
+
+    private boolean bypass;
+    private boolean finished;
+    private Deflater deflater;
+    private DeflaterOutputStream compressedStream;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CompressingResponse(HttpServletResponse response, String encoding, int level, int minSize) {
+        super(response);
+
+        this.encoding = encoding;
+        this.level = level;
+        this.minSize = minSize;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        setContentLengthLong(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        if (compressedStream == null && length < minSize) {
+            bypass = true;
+            super.setContentLengthLong(length);
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (bypass) {
+            return super.getOutputStream();
+        }
+
+        if (outputStream == null) {
+            ServletOutputStream target = super.getOutputStream();
+
+            setHeader("Content-Encoding", encoding);
+
+            // The compressed representation has a tag of its own
+            String entityTag = getHeader(EntityTags.ETAG);
+            if (entityTag != null) {
+                setHeader(EntityTags.ETAG, EntityTags.withCoding(entityTag, encoding));
+            }
+            compressedStream = compress(target);
+            outputStream = new CompressedServletOutputStream(target, compressedStream);
+        }
+
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (bypass) {
+            return super.getWriter();
+        }
+
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset()));
+        }
+
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (compressedStream != null) {
+            compressedStream.flush();
+        }
+
+        super.flushBuffer();
+    }
+
+    /**
+     * Write the end of the compressed body, if any, and release the deflater.
+     *
+     * @throws IOException if an I/O error occurs while writing the end of the body
+     */
+    void finish() throws IOException {
+        if (compressedStream == null) {
+            return;
+        }
+
+        try {
+            if (writer != null) {
+                writer.flush();
+            }
+
+            compressedStream.finish();
+            compressedStream.flush();
+            finished = true;
+        } finally {
+            deflater.end();
+            compressedStream = null;
+        }
+    }
+
+    /**
+     * Give up a body that was not finished, e.g., the writer failed: release the deflater and,
+     * if nothing was sent yet, reset the response, so the error response is written as is,
+     * without the Content-Encoding, the tag of the compressed body or its first bytes.
+     */
+    void release() {
+        if (finished) {
+            return;
+        }
+
+        if (compressedStream != null) {
+            deflater.end();
+            compressedStream = null;
+        }
+
+        if (!isCommitted()) {
+            reset();
+        }
+    }
+
+    private DeflaterOutputStream compress(OutputStream target) throws IOException {
+        if (ResponseCompression.GZIP.equals(encoding)) {
+            LeveledGzipOutputStream gzip = new LeveledGzipOutputStream(target, level);
+            deflater = gzip.deflater();
+
+            return gzip;
+        }
+
+        deflater = new Deflater(level);
+
+        return new DeflaterOutputStream(target, deflater, true);
+    }
+
+    private Charset charset() {
+        String characterEncoding = getCharacterEncoding();
+
+        return (characterEncoding == null) ? StandardCharsets.UTF_8 : Charset.forName(characterEncoding);
+    }
+
+    /**
+     * Gzip stream with a compression level, exposing its deflater to release it without
+     * closing the servlet stream.
+     */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        LeveledGzipOutputStream(OutputStream target, int level) throws IOException {
+            super(target, true);
+            def.setLevel(level);
+        }
+
+        Deflater deflater() {
+            return def;
+        }
+    }
+
+    /**
+     * Servlet stream writing through the compressing stream, with the readiness of the
+     * underlying servlet stream.
+     */
+    private static final class CompressedServletOutputStream extends ServletOutputStream {
+        private final ServletOutputStream target;
+        private final DeflaterOutputStream compressedStream;
+
+        CompressedServletOutputStream(ServletOutputStream target, DeflaterOutputStream compressedStream) {
+            this.target = target;
+            this.compressedStream = compressedStream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            compressedStream.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            compressedStream.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            compressedStream.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            target.setWriteListener(writeListener);
+        }
+    }
+}
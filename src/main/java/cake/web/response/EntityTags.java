@@ -0,0 +1,166 @@
+package cake.web.response;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * <p>Entity tags (ETag) of GET responses and the If-None-Match check of conditional requests.</p>
+ *
+ * <p>The tag of a serialized body is a strong tag made of its length and a 64-bit
+ * non-cryptographic hash of its bytes, read eight at a time. It detects a changed body, it is
+ * not meant to resist forgery. A resource may instead supply a tag of its own, e.g., a version
+ * number, through a method named {@code etag}; see {@link #of(Object)}.</p>
+ *
+ * <p>A compressed body gets the tag of its uncompressed bytes with the content coding
+ * appended (e.g., {@code "1f-9a3c...-gzip"}), so both representations have distinct strong
+ * tags; the check of If-None-Match ignores that suffix.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is stateless and thread-safe.</p>
+ *
+ * @since 0.0.46
+ */
+public class EntityTags {
+    public static final String ETAG = "ETag";
+    public static final String IF_NONE_MATCH = "If-None-Match";
+
+    // Content codings appended to the tags of compressed bodies.
+    private static final String[] CODING_SUFFIXES = { "-" + ResponseCompression.GZIP + '"', "-" + ResponseCompression.DEFLATE + '"' };
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+
+    private EntityTags() {
+        // static class
+    }
+
+    /**
+     * Check whether the request takes entity tags: a GET or a HEAD.
+     *
+     * @param request the HTTP request
+     * @return true if the response of the request is tagged
+     */
+    public static boolean appliesTo(HttpServletRequest request) {
+        String method = request.getMethod();
+
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    /**
+     * Compute the strong tag of a serialized body.
+     *
+     * @param bytes  the array holding the body
+     * @param offset the offset of the body in the array
+     * @param length the length of the body
+     * @return the quoted entity tag
+     */
+    public static String of(byte[] bytes, int offset, int length) {
+        return '"' + Integer.toHexString(length) + '-' + Long.toHexString(hash(bytes, offset, length)) + '"';
+    }
+
+    /**
+     * Build the tag of a value supplied by a resource (e.g., a version number or a timestamp).
+     * A value already quoted, or weak, is kept as is.
+     *
+     * @param value the value of the tag
+     * @return the quoted entity tag
+     */
+    public static String of(Object value) {
+        String tag = value.toString();
+
+        if (tag.startsWith("W/") || (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\""))) {
+            return tag;
+        }
+
+        return '"' + tag + '"';
+    }
+
+    /**
+     * Append a content coding to a tag, keeping it quoted.
+     *
+     * @param entityTag the quoted entity tag
+     * @param coding    the content coding (e.g., gzip)
+     * @return the tag of the encoded representation
+     */
+    public static String withCoding(String entityTag, String coding) {
+        if (!entityTag.endsWith("\"")) {
+            return entityTag;
+        }
+
+        return entityTag.substring(0, entityTag.length() - 1) + '-' + coding + '"';
+    }
+
+    /**
+     * Check the If-None-Match header against the tag of the current representation, with the
+     * weak comparison required for If-None-Match. A content coding appended by
+     * {@link #withCoding(String, String)} is ignored.
+     *
+     * @param ifNoneMatch the If-None-Match header, may be null
+     * @param entityTag   the tag of the current representation
+     * @return true if the client already has the representation (answer 304)
+     */
+    public static boolean matches(String ifNoneMatch, String entityTag) {
+        if (ifNoneMatch == null || entityTag == null) {
+            return false;
+        }
+
+        String current = opaque(entityTag);
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+
+            if (tag.equals("*") || opaque(tag).equals(current)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // The opaque part of a tag, without the weak prefix and the content coding.
+    private static String opaque(String tag) {
+        String opaque = tag.startsWith("W/") ? tag.substring(2) : tag;
+
+        for (String suffix : CODING_SUFFIXES) {
+            if (opaque.endsWith(suffix)) {
+                return opaque.substring(0, opaque.length() - suffix.length()) + '"';
+            }
+        }
+
+        return opaque;
+    }
+
+    /**
+     * 64-bit hash of the bytes, eight bytes per step, with a final avalanche.
+     */
+    static long hash(byte[] bytes, int offset, int length) {
+        long hash = PRIME_3 ^ (length * PRIME_1);
+        int end = offset + length;
+        int i = offset;
+
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            long k = (long) LONGS.get(bytes, i) * PRIME_2;
+            hash ^= Long.rotateLeft(k, 31) * PRIME_1;
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_3;
+        }
+
+        for (; i < end; i++) {
+            hash ^= (bytes[i] & 0xFFL) * PRIME_3;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+
+        return hash;
+    }
+}
@@ -0,0 +1,247 @@
+package cake.web.response;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+/**
+ * <p>Default implementation of {@link ResponseWriter}, which serializes results as JSON.</p>
+ *
+ * <p>A result is written with status 200 as bytes straight to the {@link ServletOutputStream},
+ * with its Content-Type and, unless it is streamed, its Content-Length. Text and JSON are
+ * encoded as UTF-8.</p>
+ * <ul>
+ *   <li>{@code null} (including void methods): status 204 and no body</li>
+ *   <li>{@code String}: the text as is, {@code text/plain; charset=UTF-8}</li>
+ *   <li>{@code byte[]} and {@code ByteBuffer}: the bytes as is, {@code application/octet-stream}</li>
+ *   <li>{@code Stream}, {@code Iterator} and {@code Iterable} (other than collections): a JSON
+ *       array, or NDJSON if the request accepts {@code application/x-ndjson}, streamed</li>
+ *   <li>any other type: its JSON, {@code application/json}</li>
+ * </ul>
+ *
+ * <h3>Entity Tags</h3>
+ * <p>The response of a GET or HEAD that is not streamed carries a strong ETag computed from its
+ * bytes (see {@link EntityTags}), unless the resource supplied one. When the If-None-Match
+ * header of the request matches it, the response is HTTP 304 with no body. A {@link NotModified}
+ * result is answered with 304 directly.</p>
+ *
+ * <h3>Streaming</h3>
+ * <p>The elements of a streamed result are serialized one by one and the output stream is
+ * flushed every {@value #STREAM_FLUSH_BYTES} bytes, so the response goes out in chunks and
+ * memory stays flat whatever the number of elements. A collection is already in memory and is
+ * written as any other object, unless NDJSON is requested. The result is closed (if it is
+ * {@link AutoCloseable}, as a {@link Stream}) when the elements end or the client disconnects;
+ * a disconnection ends the response silently.</p>
+ *
+ * <p>The JSON is produced by an {@link ObjectWriter} of the mapper, created once per result
+ * (or element) type. A result that is not streamed is serialized before anything is written,
+ * so a serialization failure still reaches the exception mapper with a clean response.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is thread-safe. Object writers are immutable and cached in a
+ * {@link ConcurrentHashMap}.</p>
+ *
+ * @since 0.0.46
+ * @see ResponseWriter
+ */
+public class JsonResponseWriter implements ResponseWriter {
+    public static final String JSON_CONTENT_TYPE = "application/json";
+    public static final String TEXT_CONTENT_TYPE = "text/plain; charset=UTF-8";
+    public static final String BINARY_CONTENT_TYPE = "application/octet-stream";
+    public static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+    // Bytes of streamed elements written between flushes.
+    static final int STREAM_FLUSH_BYTES = 8192;
+
+    private static final byte[] NULL_BYTES = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectMapper mapper;
+
+    // Cache of object writers by result type.
+    private final Map<Class<?>, ObjectWriter> writerCache = new ConcurrentHashMap<>();
+
+    /**
+     * Create a writer with a default object mapper.
+     */
+    public JsonResponseWriter() {
+        this(new ObjectMapper());
+    }
+
+    /**
+     * Create a writer serializing with the given object mapper.
+     *
+     * @param mapper the object mapper shared by all responses
+     */
+    public JsonResponseWriter(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void write(Object result, HttpServletResponse response) throws IOException {
+        write(result, null, response);
+    }
+
+    @Override
+    public void write(Object result, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean ndjson = (request != null) && acceptsNdjson(request);
+
+        switch (result) {
+            case null -> response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            case NotModified notModified -> writeNotModified(notModified.entityTag(), response);
+            case String text -> writeBytes(text.getBytes(StandardCharsets.UTF_8), TEXT_CONTENT_TYPE, request, response);
+            case byte[] bytes -> writeBytes(bytes, BINARY_CONTENT_TYPE, request, response);
+            case ByteBuffer buffer -> writeBuffer(buffer, request, response);
+            case Stream<?> stream -> writeElements(stream.iterator(), stream, ndjson, response);
+            case Iterator<?> iterator -> writeElements(iterator, iterator, ndjson, response);
+            case Collection<?> _ when !ndjson -> writeBytes(writerFor(result.getClass()).writeValueAsBytes(result), JSON_CONTENT_TYPE, request, response);
+            case Iterable<?> iterable -> writeElements(iterable.iterator(), iterable, ndjson, response);
+            default -> writeBytes(writerFor(result.getClass()).writeValueAsBytes(result), JSON_CONTENT_TYPE, request, response);
+        }
+    }
+
+    /**
+     * Get the object writer of the result type, creating it on first use.
+     *
+     * @param resultType the class of the result
+     * @return the object writer of the type
+     */
+    ObjectWriter writerFor(Class<?> resultType) {
+        ObjectWriter writer = writerCache.get(resultType);
+
+        if (writer == null) {
+            writer = mapper.writerFor(resultType);
+            writerCache.put(resultType, writer);
+        }
+
+        return writer;
+    }
+
+    /**
+     * Write the elements one by one, as a JSON array or as NDJSON, flushing in chunks. The
+     * source of the elements is closed at the end, or when the client disconnects.
+     *
+     * @param elements the elements to write
+     * @param source   the result, closed at the end if it is {@link AutoCloseable}
+     * @param ndjson   true to write one JSON value per line instead of an array
+     * @param response the response
+     */
+    private void writeElements(Iterator<?> elements, Object source, boolean ndjson, HttpServletResponse response) {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(ndjson ? NDJSON_CONTENT_TYPE : JSON_CONTENT_TYPE);
+
+        try (AutoCloseable _ = closerOf(source)) {
+            ServletOutputStream outputStream = response.getOutputStream();
+            int pending = 0;
+            boolean first = true;
+
+            if (!ndjson) {
+                outputStream.write('[');
+            }
+
+            while (elements.hasNext()) {
+                Object element = elements.next();
+                byte[] bytes = (element == null) ? NULL_BYTES : writerFor(element.getClass()).writeValueAsBytes(element);
+
+                if (!ndjson && !first) {
+                    outputStream.write(',');
+                }
+
+                outputStream.write(bytes);
+
+                if (ndjson) {
+                    outputStream.write('\n');
+                }
+
+                first = false;
+                pending += bytes.length + 1;
+
+                if (pending >= STREAM_FLUSH_BYTES) {
+                    outputStream.flush();
+                    pending = 0;
+                }
+            }
+
+            if (!ndjson) {
+                outputStream.write(']');
+            }
+
+            outputStream.flush();
+        } catch (IOException _) {
+            // The client disconnected, there is nobody to answer.
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // Failure closing the source, after the response was sent.
+            throw new IllegalStateException("Failed to close the streamed result: " + e.getMessage(), e);
+        }
+    }
+
+    private static AutoCloseable closerOf(Object source) {
+        return (source instanceof AutoCloseable closeable) ? closeable : () -> {};
+    }
+
+    private static boolean acceptsNdjson(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+
+        return accept != null && accept.contains(NDJSON_CONTENT_TYPE);
+    }
+
+    private static void writeBytes(byte[] bytes, String contentType, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        writeBytes(bytes, 0, bytes.length, contentType, request, response);
+    }
+
+    /**
+     * Write the bytes with status 200, or answer 304 if they are the representation the client
+     * already has. The entity tag of a GET or HEAD is computed from the bytes, unless the
+     * resource supplied one.
+     */
+    private static void writeBytes(byte[] bytes, int offset, int length, String contentType,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (request != null && EntityTags.appliesTo(request) && !response.containsHeader(EntityTags.ETAG)) {
+            String entityTag = EntityTags.of(bytes, offset, length);
+
+            if (EntityTags.matches(request.getHeader(EntityTags.IF_NONE_MATCH), entityTag)) {
+                writeNotModified(entityTag, response);
+                return;
+            }
+
+            response.setHeader(EntityTags.ETAG, entityTag);
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(contentType);
+        response.setContentLength(length);
+
+        ServletOutputStream outputStream = response.getOutputStream();
+        outputStream.write(bytes, offset, length);
+    }
+
+    private static void writeNotModified(String entityTag, HttpServletResponse response) {
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        response.setHeader(EntityTags.ETAG, entityTag);
+    }
+
+    // The remaining bytes of the buffer, without moving its position. Heap buffers are written without a copy.
+    private static void writeBuffer(ByteBuffer buffer, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (buffer.hasArray()) {
+            writeBytes(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), BINARY_CONTENT_TYPE, request, response);
+        } else {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+
+            writeBytes(bytes, BINARY_CONTENT_TYPE, request, response);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package cake.web.response;
+
+/**
+ * Result of a conditional GET whose entity tag matches the If-None-Match header of the request:
+ * the resource method was not called, and the response is HTTP 304 with the tag and no body.
+ *
+ * @param entityTag the quoted entity tag of the current representation
+ * @since 0.0.46
+ * @see EntityTags
+ */
+public record NotModified(String entityTag) {
+}
@@ -0,0 +1,200 @@
+package cake.web.response;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import cake.web.cache.CacheStats;
+import cake.web.cache.CachedResponse;
+import cake.web.cache.ResponseCache;
+import cake.web.configuration.PackageSettings;
+import cake.web.configuration.ResponseCacheConfig;
+
+/**
+ * <p>Serves GET requests from the {@link ResponseCache}, fills it with the responses of the
+ * resources that have a time to live, and invalidates it on writes.</p>
+ *
+ * <p>A cached response is the serialized body with its Content-Type and ETag, before any
+ * compression: a hit is written again through the compression of the request, and answers
+ * 304 when the If-None-Match header matches its tag. The resource method is not called.</p>
+ *
+ * <p>A miss keeps the {@link ResponseCache#generation()} of the cache in the request, before
+ * the resource reads its data. The response is then stored only if no write invalidated the
+ * cache in the meantime, so a GET running alongside a PUT never caches the data from before
+ * the PUT.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is thread-safe. The responses are kept in a {@link ResponseCache}.</p>
+ *
+ * @since 0.0.46
+ * @see ResponseCacheConfig
+ */
+public class ResponseCaching {
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    // Request attribute holding the generation of the cache when the request missed it.
+    private static final String GENERATION = ResponseCaching.class.getName() + ".generation";
+
+    private final boolean enabled;
+    private final PackageSettings<Long> ttls;
+    private final ResponseCache cache;
+
+    /**
+     * Create the response caching of the given configuration.
+     *
+     * @param config the response cache settings
+     */
+    public ResponseCaching(ResponseCacheConfig config) {
+        this.enabled = config.isEnabled();
+        this.ttls = new PackageSettings<>(config.getTtls(), 0L);
+        this.cache = new ResponseCache(config.isEnabled() ? config.getMaxBytes() : 0);
+    }
+
+    /**
+     * Get the cache, e.g., to read its counters or to invalidate a path.
+     *
+     * @return the response cache
+     */
+    public ResponseCache cache() {
+        return cache;
+    }
+
+    /**
+     * Get a snapshot of the hit, miss and eviction counters of the cache.
+     *
+     * @return the cache counters
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Look for a fresh cached response to a GET request. On a miss, the generation of the
+     * cache is kept in the request for {@link #store(HttpServletResponse)}.
+     *
+     * @param request the HTTP request
+     * @return the cached response, or null if there is none (or the request is not a GET)
+     */
+    public CachedResponse lookup(HttpServletRequest request) {
+        if (!enabled || !"GET".equals(request.getMethod())) {
+            return null;
+        }
+
+        long generation = cache.generation();
+        CachedResponse cached = cache.get(keyOf(request));
+
+        if (cached == null) {
+            request.setAttribute(GENERATION, generation);
+        }
+
+        return cached;
+    }
+
+    /**
+     * Write a cached response, or answer 304 if the client already has it.
+     *
+     * @param cached   the cached response
+     * @param request  the HTTP request
+     * @param response the HTTP response
+     * @throws IOException if an I/O error occurs while writing the response
+     */
+    public static void serve(CachedResponse cached, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (cached.entityTag() != null) {
+            if (EntityTags.matches(request.getHeader(EntityTags.IF_NONE_MATCH), cached.entityTag())) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                response.setHeader(EntityTags.ETAG, cached.entityTag());
+                return;
+            }
+
+            response.setHeader(EntityTags.ETAG, cached.entityTag());
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        response.setContentLength(cached.body().length);
+
+        ServletOutputStream outputStream = response.getOutputStream();
+        outputStream.write(cached.body());
+    }
+
+    /**
+     * Wrap the response to keep a copy of its body, if the request is a GET to a resource
+     * with a time to live.
+     *
+     * @param resourceClass the class of the resource answering the request, or null if unknown
+     * @param request       the HTTP request
+     * @param response      the HTTP response
+     * @return the response to write the body to: a capturing wrapper or the response itself
+     */
+    public HttpServletResponse capture(Class<?> resourceClass, HttpServletRequest request, HttpServletResponse response) {
+        if (!enabled || resourceClass == null || !"GET".equals(request.getMethod())) {
+            return response;
+        }
+
+        long ttl = TimeUnit.MILLISECONDS.toNanos(ttls.of(resourceClass));
+
+        if (ttl <= 0) {
+            return response;
+        }
+
+        long generation = (request.getAttribute(GENERATION) instanceof Long missed) ? missed : cache.generation();
+
+        return new CapturingResponse(response, keyOf(request), pathOf(request), resourceClass, ttl, generation);
+    }
+
+    /**
+     * Cache the response written, if it was captured and is complete, and no write invalidated
+     * the cache since the request missed it.
+     *
+     * @param response the response returned by {@link #capture(Class, HttpServletRequest, HttpServletResponse)}
+     */
+    public void store(HttpServletResponse response) {
+        if (response instanceof CapturingResponse capturingResponse) {
+            CachedResponse cached = capturingResponse.toCachedResponse();
+
+            if (cached != null) {
+                cache.put(capturingResponse.key(), cached, capturingResponse.generation());
+            }
+        }
+    }
+
+    /**
+     * Invalidate the cached responses related to a path written to.
+     *
+     * @param writtenPath the path returned by {@link #writtenPathOf(HttpServletRequest)}, may be null
+     */
+    public void invalidate(String writtenPath) {
+        if (writtenPath != null) {
+            cache.invalidate(writtenPath);
+        }
+    }
+
+    /**
+     * Get the path a write request (a POST, PUT, PATCH or DELETE) changes, read once so it can
+     * be invalidated after the request is recycled (e.g., an async write completing after its
+     * timeout).
+     *
+     * @param request the HTTP request
+     * @return the normalized path, or null if the request is not a write or caching is disabled
+     */
+    public String writtenPathOf(HttpServletRequest request) {
+        return (enabled && WRITE_METHODS.contains(request.getMethod())) ? pathOf(request) : null;
+    }
+
+    private static String keyOf(HttpServletRequest request) {
+        return ResponseCache.key(pathOf(request), request.getQueryString(), request.getHeader("Accept"));
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+
+        String path = (contextPath != null && uri.startsWith(contextPath)) ? uri.substring(contextPath.length()) : uri;
+
+        return ResponseCache.normalizePath(path);
+    }
+}
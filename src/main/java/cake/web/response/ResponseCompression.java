@@ -0,0 +1,149 @@
+package cake.web.response;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import cake.web.configuration.CompressionConfig;
+import cake.web.configuration.PackageSettings;
+
+/**
+ * <p>Decides whether the response of a request is compressed, and with which encoding.</p>
+ *
+ * <p>The response is wrapped so that compression streams on top of the {@link ResponseWriter}:
+ * the bytes written are compressed as they go, and the whole payload is never buffered a second
+ * time. The decision to compress a body of known length is taken when its Content-Length is
+ * set, against the minimum size of the configuration.</p>
+ *
+ * <h3>Thread Safety</h3>
+ * <p>This class is thread-safe. Each response has a wrapper of its own.</p>
+ *
+ * @since 0.0.46
+ * @see CompressionConfig
+ */
+public class ResponseCompression {
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    private final CompressionConfig config;
+
+    private final PackageSettings<Boolean> excluded;
+
+    /**
+     * Create the compression policy of the given configuration.
+     *
+     * @param config the compression settings
+     */
+    public ResponseCompression(CompressionConfig config) {
+        this.config = config;
+        this.excluded = new PackageSettings<>(config.getExcluded().stream().collect(Collectors.toMap(name -> name, _ -> Boolean.TRUE)), Boolean.FALSE);
+    }
+
+    /**
+     * Wrap the response to compress its body, if compression is enabled, the resource is not
+     * excluded and the client accepts gzip or deflate.
+     *
+     * @param resourceClass the class of the resource answering the request, or null if unknown
+     * @param request       the HTTP request
+     * @param response      the HTTP response
+     * @return the response to write the body to: a compressing wrapper or the response itself
+     */
+    public HttpServletResponse wrap(Class<?> resourceClass, HttpServletRequest request, HttpServletResponse response) {
+        if (!config.isEnabled() || (resourceClass != null && excluded.of(resourceClass))) {
+            return response;
+        }
+
+        // The body depends on Accept-Encoding, caches must not mix the encodings.
+        response.addHeader("Vary", "Accept-Encoding");
+
+        String encoding = negotiate(request.getHeader("Accept-Encoding"));
+
+        return (encoding == null) ? response : new CompressingResponse(response, encoding, config.getLevel(), config.getMinSize());
+    }
+
+    /**
+     * Finish the compressed body, if the response was wrapped for compression.
+     *
+     * @param response the response returned by {@link #wrap(Class, HttpServletRequest, HttpServletResponse)}
+     * @throws IOException if an I/O error occurs while writing the end of the body
+     */
+    public static void finish(HttpServletResponse response) throws IOException {
+        if (response instanceof CompressingResponse compressingResponse) {
+            compressingResponse.finish();
+        }
+    }
+
+    /**
+     * Release a compressed body that was not finished, e.g., because writing it failed. If
+     * nothing was sent yet, the response is reset for the error response: it is no longer
+     * compressed and loses the tag of the compressed body. Does nothing after
+     * {@link #finish(HttpServletResponse)} succeeded.
+     *
+     * @param response the response returned by {@link #wrap(Class, HttpServletRequest, HttpServletResponse)}
+     */
+    public static void release(HttpServletResponse response) {
+        if (response instanceof CompressingResponse compressingResponse) {
+            compressingResponse.release();
+        }
+    }
+
+    /**
+     * Choose the encoding of the response from the Accept-Encoding header: gzip if accepted,
+     * else deflate. An encoding with {@code q=0} is refused, {@code *} accepts both.
+     *
+     * @param acceptEncoding the Accept-Encoding header, may be null
+     * @return {@link #GZIP}, {@link #DEFLATE} or null for no compression
+     */
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+
+        Boolean gzip = null;
+        Boolean deflate = null;
+        Boolean any = null;
+
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = true;
+
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+
+                if (parameter.startsWith("q=")) {
+                    accepted = isPositive(parameter.substring(2).trim());
+                }
+            }
+
+            switch (coding) {
+                case GZIP, "x-gzip" -> gzip = accepted;
+                case DEFLATE -> deflate = accepted;
+                case "*" -> any = accepted;
+                default -> {
+                    // Not supported (e.g., br, identity).
+                }
+            }
+        }
+
+        if (gzip != null ? gzip : Boolean.TRUE.equals(any)) {
+            return GZIP;
+        }
+        if (deflate != null ? deflate : Boolean.TRUE.equals(any)) {
+            return DEFLATE;
+        }
+
+        return null;
+    }
+
+    private static boolean isPositive(String quality) {
+        try {
+            return Double.parseDouble(quality) > 0;
+        } catch (NumberFormatException _) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package cake.web.response;
+
+import java.io.IOException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Interface for writing the result of a resource method to the HTTP response.
+ *
+ * @since 0.0.46
+ */
+public interface ResponseWriter {
+    /**
+     * Writes the given result, with its status and content headers, to the response.
+     *
+     * @param result   The value returned by the resource method, null for void methods.
+     * @param response The HttpServletResponse to write the result to.
+     * @throws IOException if an I/O error occurs while writing the response.
+     */
+    void write(Object result, HttpServletResponse response) throws IOException;
+
+    /**
+     * Writes the given result to the response, according to the request (e.g., its Accept header).
+     * By default the request is ignored.
+     *
+     * @param result   The value returned by the resource method, null for void methods.
+     * @param request  The HttpServletRequest the result answers.
+     * @param response The HttpServletResponse to write the result to.
+     * @throws IOException if an I/O error occurs while writing the response.
+     */
+    default void write(Object result, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        write(result, response);
+    }
+}
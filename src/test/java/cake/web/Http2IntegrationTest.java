@@ -0,0 +1,81 @@
+package cake.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.thebank.loan.fixture.Rendezvous;
+
+import cake.web.configuration.CakeWebConfig;
+
+class Http2IntegrationTest {
+    private Tomcat tomcat;
+    private HttpClient client;
+    private String baseUri;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CakeWebConfig config = new CakeWebConfig();
+        config.setPort(0);
+        config.setBaseDir(Files.createTempDirectory("cake-web-h2").toString());
+        config.getHttp2().setEnabled(true);
+        config.getHttp2().setMaxConcurrentStreams(100L);
+
+        Rendezvous.reset();
+
+        tomcat = CakeWebApplication.start(config);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        baseUri = "http://localhost:" + tomcat.getConnector().getLocalPort();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Test
+    void shouldUpgradeToH2c() throws Exception {
+        HttpResponse<String> response = client.send(get("/about"), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals(HttpClient.Version.HTTP_2, response.version());
+        assertEquals("The Bank Loan System v1.0", response.body());
+    }
+
+    @Test
+    void shouldDispatchMultiplexedStreamsConcurrently() throws Exception {
+        // The first request upgrades the connection, the next ones are streams on it.
+        client.send(get("/about"), HttpResponse.BodyHandlers.discarding());
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+
+        for (int i = 0; i < Rendezvous.PARTIES; i++) {
+            responses.add(client.sendAsync(get("/com/thebank/loan/fixture/rendezvous"), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // Rendezvous answers only when all the requests are in RootServlet at the same time.
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get().statusCode());
+            assertEquals(HttpClient.Version.HTTP_2, response.get().version());
+            assertEquals("met", response.get().body());
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUri + path)).GET().build();
+    }
+}
@@ -0,0 +1,98 @@
+package cake.web;
+
+import static org.mockito.Mockito.*;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.CompletableFuture;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.thebank.loan.fixture.Ledger;
+
+import cake.web.configuration.CakeWebConfig;
+
+class RootServletTest {
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private AsyncContext asyncContext;
+
+    @Mock
+    private ServletOutputStream outputStream;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        when(request.getRequestURI()).thenReturn("/com/thebank/loan/fixture/health");
+        when(request.getContextPath()).thenReturn("");
+        when(request.startAsync(request, response)).thenReturn(asyncContext);
+        when(response.getOutputStream()).thenReturn(outputStream);
+        when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+    }
+
+    @Test
+    void shouldAnswerCompletionStageAsynchronously() throws Exception {
+        CakeWebConfig config = new CakeWebConfig();
+        config.setAsyncTimeout(5_000);
+
+        when(request.isAsyncSupported()).thenReturn(true);
+
+        new RootServlet(config).doGet(request, response);
+
+        verify(request).startAsync(request, response);
+        verify(asyncContext).setTimeout(5_000);
+        verify(asyncContext, timeout(1_000)).complete();
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void shouldWaitForCompletionStageWhenAsyncIsNotSupported() throws Exception {
+        when(request.isAsyncSupported()).thenReturn(false);
+
+        new RootServlet(new CakeWebConfig()).doGet(request, response);
+
+        verify(request, never()).startAsync(request, response);
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void shouldNotReadRequestWhenWriteCompletesAfterTimeout() throws Exception {
+        CakeWebConfig config = new CakeWebConfig();
+        config.getResponseCache().setEnabled(true);
+        Ledger.PUT_DONE = new CompletableFuture<>();
+
+        when(request.getMethod()).thenReturn("PUT");
+        when(request.getRequestURI()).thenReturn("/com/thebank/loan/fixture/ledger/7");
+        when(request.isAsyncSupported()).thenReturn(true);
+
+        new RootServlet(config).doPut(request, response);
+
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+
+        listener.getValue().onTimeout(null);
+        verify(asyncContext).complete();
+
+        // The container may recycle the request once the timeout completed it.
+        clearInvocations(request);
+        Ledger.PUT_DONE.complete(null);
+
+        verifyNoInteractions(request);
+    }
+}
@@ -0,0 +1,227 @@
+package cake.web.batch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import cake.web.configuration.BatchConfig;
+import cake.web.exception.BadRequestException;
+import cake.web.exception.DefaultExceptionMapper;
+import cake.web.exception.PayloadTooLargeException;
+
+class BatchHandlerTest {
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getRequestURI()).thenReturn("/api/_batch");
+        when(request.getContextPath()).thenReturn("/api");
+    }
+
+    private static BatchConfig config(int maxSize, int maxConcurrency) {
+        BatchConfig config = new BatchConfig();
+        config.setEnabled(true);
+        config.setMaxSize(maxSize);
+        config.setMaxConcurrency(maxConcurrency);
+
+        return config;
+    }
+
+    private List<BatchHandler.Result> handle(BatchHandler handler, String batch) throws Exception {
+        when(request.getInputStream()).thenReturn(servletInputStream(batch.getBytes(StandardCharsets.UTF_8)));
+
+        try {
+            return handler.handle(request, response);
+        } finally {
+            handler.close();
+        }
+    }
+
+    @Test
+    void shouldAnswerSubRequestsInOrder() throws Exception {
+        BatchHandler handler = new BatchHandler(config(10, 4), (subRequest, subResponse) -> {
+            subResponse.setStatus("DELETE".equals(subRequest.getMethod()) ? HttpServletResponse.SC_NO_CONTENT : HttpServletResponse.SC_OK);
+
+            if (!"DELETE".equals(subRequest.getMethod())) {
+                subResponse.setContentType("application/json");
+                subResponse.getOutputStream().write(("{\"uri\":\"" + subRequest.getRequestURI() + "\"}").getBytes(StandardCharsets.UTF_8));
+            }
+        }, new DefaultExceptionMapper());
+
+        List<BatchHandler.Result> results = handle(handler, """
+            [{"method": "GET", "path": "/customer/1"},
+             {"path": "/customer/2"},
+             {"method": "delete", "path": "/customer/3"}]
+            """);
+
+        assertEquals(3, results.size());
+        assertEquals(200, results.get(0).status());
+        assertEquals("{\"uri\":\"/api/customer/1\"}", results.get(0).body().toString());
+        assertEquals("{\"uri\":\"/api/customer/2\"}", results.get(1).body().toString());
+        assertEquals(204, results.get(2).status());
+        assertNull(results.get(2).body());
+    }
+
+    @Test
+    void shouldPassQueryHeadersAndBodyOfSubRequest() throws Exception {
+        BatchHandler handler = new BatchHandler(config(10, 1), (subRequest, subResponse) -> {
+            String body = new String(subRequest.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+            subResponse.setContentType("text/plain; charset=UTF-8");
+            subResponse.getWriter().print(subRequest.getParameter("status") + " "
+                + subRequest.getHeader("x-channel") + " " + subRequest.getContentType() + " " + body);
+        }, new DefaultExceptionMapper());
+
+        List<BatchHandler.Result> results = handle(handler, """
+            [{"method": "PUT", "path": "/customer/1?status=OPEN%20NOW", "headers": {"X-Channel": "MOBILE"},
+              "body": {"customerRequest": {"name": "John Doe"}}}]
+            """);
+
+        assertEquals("OPEN NOW MOBILE application/json {\"customerRequest\":{\"name\":\"John Doe\"}}", results.get(0).body());
+    }
+
+    @Test
+    void shouldRunSubRequestsConcurrently() throws Exception {
+        CountDownLatch together = new CountDownLatch(2);
+
+        BatchHandler handler = new BatchHandler(config(10, 2), (_, subResponse) -> {
+            together.countDown();
+
+            try {
+                subResponse.setStatus(together.await(5, TimeUnit.SECONDS) ? HttpServletResponse.SC_OK : HttpServletResponse.SC_GATEWAY_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, new DefaultExceptionMapper());
+
+        List<BatchHandler.Result> results = handle(handler, "[{\"path\": \"/customer/1\"}, {\"path\": \"/customer/2\"}]");
+
+        assertEquals(200, results.get(0).status());
+        assertEquals(200, results.get(1).status());
+    }
+
+    @Test
+    void shouldNotRunMoreSubRequestsThanMaxConcurrency() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        BatchHandler handler = new BatchHandler(config(10, 2), (_, _) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        }, new DefaultExceptionMapper());
+
+        List<BatchHandler.Result> results = handle(handler, "[" + "{\"path\": \"/customer/1\"},".repeat(5) + "{\"path\": \"/customer/1\"}]");
+
+        assertEquals(6, results.size());
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    void shouldAnswerInvalidSubRequestInItsResponse() throws Exception {
+        BatchHandler handler = new BatchHandler(config(10, 4), (_, _) -> {
+            throw new IllegalStateException("Resource failed");
+        }, new DefaultExceptionMapper());
+
+        List<BatchHandler.Result> results = handle(handler, """
+            [{"method": "TRACE", "path": "/customer/1"},
+             {"method": "POST", "path": "/_batch"},
+             {"path": "customer/1"},
+             {"path": "/customer/1"}]
+            """);
+
+        assertEquals(405, results.get(0).status());
+        assertEquals(400, results.get(1).status());
+        assertEquals(400, results.get(2).status());
+        assertEquals(500, results.get(3).status());
+        assertTrue(results.get(3).body().toString().contains("Resource failed"));
+    }
+
+    @Test
+    void shouldRejectBatchLargerThanMaxSize() {
+        BatchHandler handler = new BatchHandler(config(2, 4), (_, _) -> fail("No sub-request of the batch may run"), new DefaultExceptionMapper());
+
+        assertThrows(PayloadTooLargeException.class,
+            () -> handle(handler, "[{\"path\": \"/a\"}, {\"path\": \"/b\"}, {\"path\": \"/c\"}]"));
+    }
+
+    @Test
+    void shouldRejectMalformedBatch() {
+        BatchHandler handler = new BatchHandler(config(10, 4), (_, _) -> fail("No sub-request of the batch may run"), new DefaultExceptionMapper());
+
+        assertThrows(BadRequestException.class, () -> handle(handler, "{\"path\": \"/a\"}"));
+    }
+
+    @Test
+    void shouldHandleOnlyPostToBatchPath() {
+        BatchHandler handler = new BatchHandler(config(10, 1), (_, _) -> {}, new DefaultExceptionMapper());
+        BatchHandler disabled = new BatchHandler(new BatchConfig(), (_, _) -> {}, new DefaultExceptionMapper());
+
+        assertTrue(handler.handles(request));
+        assertFalse(disabled.handles(request));
+
+        when(request.getMethod()).thenReturn("GET");
+
+        assertFalse(handler.handles(request));
+    }
+
+    private static ServletInputStream servletInputStream(byte[] bytes) {
+        ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                // blocking stream
+            }
+        };
+    }
+}
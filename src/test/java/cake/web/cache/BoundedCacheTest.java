@@ -0,0 +1,68 @@
+package cake.web.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+    @Test
+    void shouldCountHitsAndMisses() {
+        BoundedCache<String, Boolean> cache = new BoundedCache<>(4);
+
+        cache.put("com", Boolean.TRUE);
+
+        assertEquals(Boolean.TRUE, cache.get("com"));
+        assertNull(cache.get("thebank"));
+
+        CacheStats stats = cache.stats();
+
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRatio());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntry() {
+        BoundedCache<String, Boolean> cache = new BoundedCache<>(2);
+
+        cache.put("a", Boolean.TRUE);
+        cache.put("b", Boolean.TRUE);
+        cache.get("a");
+        cache.put("c", Boolean.TRUE);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().evictions());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    void shouldNotStoreWhenDisabled() {
+        BoundedCache<String, Boolean> cache = new BoundedCache<>(0);
+
+        cache.put("a", Boolean.TRUE);
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void shouldRemoveMatchingEntries() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(4);
+
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        assertEquals(2, cache.removeIf(value -> value > 1));
+        cache.remove("a");
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldRejectNegativeSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<String, Boolean>(-1));
+    }
+}
@@ -0,0 +1,122 @@
+package cake.web.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+
+    private static CachedResponse response(String path, int bodyLength) {
+        return new CachedResponse(path, Object.class, "application/json", null, new byte[bodyLength], System.nanoTime() + 60_000_000_000L);
+    }
+
+    @Test
+    void shouldNormalizeKey() {
+        assertEquals("/customer/1", ResponseCache.normalizePath("//customer/1/"));
+        assertEquals("/", ResponseCache.normalizePath(""));
+        assertEquals(ResponseCache.key("/customer", "b=2&a=1", "application/json"), ResponseCache.key("/customer/", "a=1&b=2", "application/json"));
+        assertNotEquals(ResponseCache.key("/customer", null, "application/json"), ResponseCache.key("/customer", null, "text/plain"));
+    }
+
+    @Test
+    void shouldCountHitsAndMisses() {
+        ResponseCache cache = new ResponseCache(1024);
+
+        cache.put("/customer", response("/customer", 10));
+
+        assertNotNull(cache.get("/customer"));
+        assertNull(cache.get("/proposal"));
+
+        CacheStats stats = cache.stats();
+
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void shouldDropExpiredResponse() {
+        ResponseCache cache = new ResponseCache(1024);
+
+        cache.put("/customer", new CachedResponse("/customer", Object.class, "application/json", null, new byte[10], System.nanoTime() - 1));
+
+        assertNull(cache.get("/customer"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedBeyondMemoryBound() {
+        CachedResponse a = response("/a", 100);
+        ResponseCache cache = new ResponseCache(2 * a.weight());
+
+        cache.put("/a", a);
+        cache.put("/b", response("/b", 100));
+        cache.get("/a");
+        cache.put("/c", response("/c", 100));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().evictions());
+        assertNotNull(cache.get("/a"));
+        assertNull(cache.get("/b"));
+        assertTrue(cache.bytes() <= 2 * a.weight());
+    }
+
+    @Test
+    void shouldNotStoreResponseHeavierThanBound() {
+        ResponseCache cache = new ResponseCache(64);
+
+        cache.put("/a", response("/a", 100));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldInvalidatePathDescendantsAndAncestors() {
+        ResponseCache cache = new ResponseCache(4096);
+
+        cache.put("/customer", response("/customer", 10));
+        cache.put("/customer/1", response("/customer/1", 10));
+        cache.put("/customer/1/proposal", response("/customer/1/proposal", 10));
+        cache.put("/customer/10", response("/customer/10", 10));
+        cache.put("/product", response("/product", 10));
+
+        assertEquals(3, cache.invalidate("/customer/1/"));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("/customer/10"));
+        assertNotNull(cache.get("/product"));
+    }
+
+    @Test
+    void shouldInvalidateEverythingFromRoot() {
+        ResponseCache cache = new ResponseCache(4096);
+
+        cache.put("/", response("/", 10));
+        cache.put("/customer/1", response("/customer/1", 10));
+        cache.put("/product", response("/product", 10));
+
+        assertEquals(2, cache.invalidate("/product/7"));
+        assertEquals(1, cache.invalidate("/"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+    }
+
+    @Test
+    void shouldNotStoreResponseReadBeforeInvalidation() {
+        ResponseCache cache = new ResponseCache(4096);
+
+        long generation = cache.generation();
+        cache.invalidate("/customer/1");
+
+        assertFalse(cache.put("/customer/1", response("/customer/1", 10), generation));
+        assertNull(cache.get("/customer/1"));
+
+        assertTrue(cache.put("/customer/1", response("/customer/1", 10), cache.generation()));
+        assertNotNull(cache.get("/customer/1"));
+    }
+
+    @Test
+    void shouldRejectNegativeSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCache(-1));
+    }
+}
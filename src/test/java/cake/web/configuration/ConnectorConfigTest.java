@@ -0,0 +1,47 @@
+package cake.web.configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ConnectorConfigTest {
+    @Test
+    void shouldKeepTomcatDefaultsWhenNothingIsSet() {
+        ConnectorConfig config = new CakeWebConfig().getConnector();
+
+        assertNull(config.getProtocol());
+        assertTrue(config.toConnectorProperties().isEmpty());
+    }
+
+    @Test
+    void shouldMapSettingsToConnectorAttributes() {
+        ConnectorConfig config = new ConnectorConfig();
+        config.setMaxThreads(300);
+        config.setSocketReceiveBufferSize(32_768);
+        config.setTcpNoDelay(false);
+
+        assertEquals(Map.of("maxThreads", "300", "socket.rxBufSize", "32768", "tcpNoDelay", "false"), config.toConnectorProperties());
+    }
+
+    @Test
+    void shouldKeepConnectionsWarmForLowLatency() {
+        Map<String, String> properties = ConnectorConfig.lowLatency().toConnectorProperties();
+
+        assertEquals("-1", properties.get("maxKeepAliveRequests"));
+        assertEquals("50", properties.get("minSpareThreads"));
+        assertEquals("true", properties.get("tcpNoDelay"));
+    }
+
+    @Test
+    void shouldWidenPoolsAndBuffersForHighThroughput() {
+        ConnectorConfig config = ConnectorConfig.highThroughput();
+        Map<String, String> properties = config.toConnectorProperties();
+
+        assertEquals(ConnectorConfig.Protocol.NIO, config.getProtocol());
+        assertEquals("800", properties.get("maxThreads"));
+        assertEquals("20000", properties.get("maxConnections"));
+        assertEquals("65536", properties.get("socket.txBufSize"));
+    }
+}
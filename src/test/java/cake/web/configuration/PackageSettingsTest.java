@@ -0,0 +1,31 @@
+package cake.web.configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class PackageSettingsTest {
+    @Test
+    void shouldPreferClassOverNearestPackage() {
+        PackageSettings<Long> settings = new PackageSettings<>(Map.of("cake", 1L, "cake.web.configuration", 2L, PackageSettingsTest.class.getName(), 3L), 0L);
+
+        assertEquals(3L, settings.of(PackageSettingsTest.class));
+        assertEquals(2L, settings.of(ConnectorConfig.class));
+        assertEquals(1L, settings.of("cake.web.Release"));
+    }
+
+    @Test
+    void shouldFallBackToRootPackageThenDefault() {
+        assertEquals(0L, new PackageSettings<>(Map.of("cake.web.exchange", 1L), 0L).of(ConnectorConfig.class));
+        assertEquals(5L, new PackageSettings<>(Map.of("", 5L), 0L).of(ConnectorConfig.class));
+    }
+
+    @Test
+    void shouldNotMatchPackageByNamePrefix() {
+        PackageSettings<Boolean> settings = new PackageSettings<>(Map.of("cake.web.config", Boolean.TRUE), Boolean.FALSE);
+
+        assertFalse(settings.of(ConnectorConfig.class));
+    }
+}
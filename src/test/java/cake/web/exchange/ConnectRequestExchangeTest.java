@@ -10,8 +10,8 @@ import org.mockito.MockitoAnnotations;
 
 import java.util.Map;
 
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 class ConnectRequestExchangeTest {
     @Mock
@@ -0,0 +1,73 @@
+package cake.web.exchange;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import cake.web.exchange.content.HeaderContent;
+import cake.web.exchange.content.QueryParamContent;
+
+class ContentBinderTest {
+    public static class TraceHeaders implements HeaderContent {
+        private String xRequestId;
+        private String traceId;
+        private Integer retryCount;
+        String tenant;
+
+        public String getXRequestId() { return xRequestId; }
+        public void setXRequestId(String xRequestId) { this.xRequestId = xRequestId; }
+        public String getTraceId() { return traceId; }
+        public void setTraceId(String traceId) { this.traceId = traceId; }
+        public Integer getRetryCount() { return retryCount; }
+        public void setRetryCount(Integer retryCount) { this.retryCount = retryCount; }
+    }
+
+    public static class Filter implements QueryParamContent {
+        private String city;
+        private Integer age;
+
+        public String getCity() { return city; }
+        public void setCity(String city) { this.city = city; }
+        public Integer getAge() { return age; }
+        public void setAge(Integer age) { this.age = age; }
+    }
+
+    @Test
+    void shouldConvertCamelCaseToKebabCase() {
+        assertEquals("trace-id", ContentBinder.toKebabCase("traceId"));
+        assertEquals("x-request-id", ContentBinder.toKebabCase("xRequestId"));
+        assertEquals("request-url", ContentBinder.toKebabCase("requestURL"));
+        assertEquals("authorization", ContentBinder.toKebabCase("authorization"));
+    }
+
+    @Test
+    void shouldBindKebabCaseAndLowerCaseHeaders() {
+        TraceHeaders headers = (TraceHeaders) ContentBinder.of(TraceHeaders.class).bindHeaders(Map.of(
+            "x-request-id", "req-1",
+            "traceid", "trace-1",
+            "retry-count", "3",
+            "tenant", "acme"));
+
+        assertEquals("req-1", headers.getXRequestId());
+        assertEquals("trace-1", headers.getTraceId());
+        assertEquals(3, headers.getRetryCount());
+        assertEquals("acme", headers.tenant);
+    }
+
+    @Test
+    void shouldLeaveAttributeUnsetWhenValueDoesNotConvert() {
+        Filter filter = (Filter) ContentBinder.of(Filter.class).bindQueryParameters(Map.of(
+            "city", new String[] { "Recife" },
+            "age", new String[] { "unknown" }));
+
+        assertEquals("Recife", filter.getCity());
+        assertNull(filter.getAge());
+    }
+
+    @Test
+    void shouldReuseCompiledBinder() {
+        assertSame(ContentBinder.of(Filter.class), ContentBinder.of(Filter.class));
+    }
+}
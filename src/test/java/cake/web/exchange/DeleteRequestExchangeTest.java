@@ -9,14 +9,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.thebank.loan.fixture.Ledger;
 import com.thebank.loan.model.AddressResponse;
 import com.thebank.loan.service.LoanService;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 class DeleteRequestExchangeTest {
     @Mock
@@ -29,6 +31,9 @@ class DeleteRequestExchangeTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+
+        Ledger.GET_CALLS.set(0);
+        Ledger.DELETE_DONE = new CompletableFuture<>();
     }
 
     @Test
@@ -60,4 +65,24 @@ class DeleteRequestExchangeTest {
 
         assertEquals(null, result, "The address resource still there");
     }
+
+    @Test
+    void deleteDoesNotLoadLazyParent() throws Exception {
+        when(request.getRequestURI()).thenReturn("thebank.com/com/thebank/loan/fixture/ledger/7/entry/9");
+        when(request.getContextPath()).thenReturn("thebank.com/");
+
+        assertEquals("entry 9 deleted from ledger 7", new DeleteRequestExchange(request).call());
+        assertEquals(0, Ledger.GET_CALLS.get());
+    }
+
+    @Test
+    void cancellingAsyncDeleteCancelsResourceStage() throws Exception {
+        when(request.getRequestURI()).thenReturn("thebank.com/com/thebank/loan/fixture/ledger/7");
+        when(request.getContextPath()).thenReturn("thebank.com/");
+
+        CompletableFuture<?> answer = (CompletableFuture<?>) new DeleteRequestExchange(request).call();
+        answer.cancel(true);
+
+        assertTrue(Ledger.DELETE_DONE.isCancelled());
+    }
 }
@@ -2,6 +2,7 @@ package cake.web.exchange;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.when;
@@ -15,12 +16,20 @@ import org.mockito.MockitoAnnotations;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
+import com.thebank.loan.fixture.Ledger;
+import com.thebank.loan.fixture.Page;
+import com.thebank.loan.fixture.Release;
 import com.thebank.loan.model.AddressResponse;
 import com.thebank.loan.service.LoanService;
 
+import cake.web.configuration.CakeWebConfig;
+import cake.web.exception.NotFoundException;
+import cake.web.resource.ResourceRegistry;
+import cake.web.response.NotModified;
+
 class GetRequestExchangeTest {
     @Mock
     private HttpServletRequest request;
@@ -43,6 +52,10 @@ class GetRequestExchangeTest {
         MockitoAnnotations.openMocks(this);
 
         addresses = loanService.getAllAddresses();
+
+        Ledger.GET_CALLS.set(0);
+        Page.GET_CALLS.set(0);
+        Release.GET_CALLS.set(0);
     }
 
     //---------------------------------------------------------------------//
@@ -125,4 +138,134 @@ class GetRequestExchangeTest {
         assertEquals(responseExpected.getCity(), address.getCity(), "The city is different");
         assertEquals(responseExpected.getState(), address.getState(), "The state is different");
     }
+
+    //---------------------------------------------------------------------//
+    @Test
+    void getRequestExchangeThroughRouteTrie() throws IOException {
+        AddressResponse responseExpected = addresses.get(0);
+
+        CakeWebConfig config = new CakeWebConfig();
+        config.setResourcePackages("loan.capture");
+
+        when(request.getRequestURI()).thenReturn("thebank.com/loan/capture/address/" + responseExpected.getId());
+        when(request.getContextPath()).thenReturn("thebank.com/");
+
+        GetRequestExchange getRequestExchange = new GetRequestExchange(request, ResourceRegistry.build(config));
+
+        Object result = null;
+        
+        try {
+            result = getRequestExchange.call();
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+
+        assertEquals(responseExpected, result, "The return of get method is different than expected");
+    }
+
+    //---------------------------------------------------------------------//
+    @Test
+    void getRequestExchangeUnknownPrefixThroughRouteTrie() throws IOException {
+        CakeWebConfig config = new CakeWebConfig();
+        config.setResourcePackages("loan.capture");
+
+        when(request.getRequestURI()).thenReturn("thebank.com/loan/unknown/address/1");
+        when(request.getContextPath()).thenReturn("thebank.com/");
+
+        GetRequestExchange getRequestExchange = new GetRequestExchange(request, ResourceRegistry.build(config));
+
+        assertThrows(NotFoundException.class, getRequestExchange::call);
+    }
+
+    //---------------------------------------------------------------------//
+    @Test
+    void getRequestExchangeRemembersMissingPackageClasses() throws Exception {
+        AddressResponse responseExpected = addresses.get(0);
+        ResourceRegistry registry = ResourceRegistry.build(new CakeWebConfig());
+
+        when(request.getRequestURI()).thenReturn("thebank.com/loan/capture/address/" + responseExpected.getId());
+        when(request.getContextPath()).thenReturn("thebank.com/");
+
+        new GetRequestExchange(request, registry).call();
+        new GetRequestExchange(request, registry).call();
+
+        // "loan.Capture" and "Loan" are remembered as missing; the path parameter is never probed.
+        assertEquals(2, registry.negativeLookupStats().hits());
+        assertEquals(2, registry.negativeLookups().size());
+    }
+
+    //---------------------------------------------------------------------//
+    @Test
+    void getRequestExchangeLoadsParentForResultParameter() throws Exception {
+        when(request.getRequestURI()).thenReturn("thebank.com/com/thebank/loan/fixture/ledger/7/entry/9");
+        when(request.getContextPath()).thenReturn("thebank.com/");
+
+        assertEquals("entry 9 of ledger 7", new GetRequestExchange(request).call());
+        assertEquals(1, Ledger.GET_CALLS.get());
+    }
+
+    //---------------------------------------------------------------------//
+    @Test
+    void getRequestExchangeMemoizesParentResult() throws Exception {
+        CakeWebConfig config = new CakeWebConfig();
+        config.getParentMemo().setEnabled(true);
+        config.getParentMemo().setTtl("com.thebank.loan.fixture.Release", 60_000);
+
+        ResourceRegistry registry = ResourceRegistry.build(config);
+
+        when(request.getRequestURI()).thenReturn("thebank.com/com/thebank/loan/fixture/release/changelog");
+        when(request.getContextPath()).thenReturn("thebank.com/");
+
+        assertEquals("Changes of The Bank Loan System 1.0.7", new GetRequestExchange(request, registry).call());
+        assertEquals("Changes of The Bank Loan System 1.0.7", new GetRequestExchange(request, registry).call());
+
+        assertEquals(1, Release.GET_CALLS.get());
+        assertEquals(1, registry.parentMemo().stats().hits());
+    }
+
+    //---------------------------------------------------------------------//
+    @Test
+    void getRequestExchangeMemoizesParentNestedInParent() throws Exception {
+        CakeWebConfig config = new CakeWebConfig();
+        config.getParentMemo().setEnabled(true);
+        config.getParentMemo().setTtl("com.thebank.loan.fixture.Page", 60_000);
+
+        ResourceRegistry registry = ResourceRegistry.build(config);
+
+        when(request.getRequestURI()).thenReturn("thebank.com/com/thebank/loan/fixture/ledger/7/page/2/line");
+        when(request.getContextPath()).thenReturn("thebank.com/");
+
+        // The key of Page.get holds the ledger as a Parent, never loaded.
+        assertEquals("lines of page 2 of ledger 7", new GetRequestExchange(request, registry).call());
+        assertEquals("lines of page 2 of ledger 7", new GetRequestExchange(request, registry).call());
+        assertEquals("lines of page 2 of ledger 7", new GetRequestExchange(request, registry).call());
+
+        assertEquals(1, Page.GET_CALLS.get());
+        assertEquals(2, registry.parentMemo().stats().hits());
+    }
+
+    //---------------------------------------------------------------------//
+    @Test
+    void getRequestExchangeTagsResultWithEtagMethod() throws Exception {
+        when(request.getRequestURI()).thenReturn("thebank.com/com/thebank/loan/fixture/release");
+        when(request.getContextPath()).thenReturn("thebank.com/");
+
+        GetRequestExchange getRequestExchange = new GetRequestExchange(request);
+
+        assertEquals("The Bank Loan System 1.0.7", getRequestExchange.call());
+        assertEquals("\"1.0.7\"", getRequestExchange.getEntityTag());
+    }
+
+    //---------------------------------------------------------------------//
+    @Test
+    void getRequestExchangeAnswersNotModifiedWithoutCallingGet() throws Exception {
+        when(request.getRequestURI()).thenReturn("thebank.com/com/thebank/loan/fixture/release");
+        when(request.getContextPath()).thenReturn("thebank.com/");
+        when(request.getHeader("If-None-Match")).thenReturn("\"1.0.6\", \"1.0.7\"");
+
+        Object result = new GetRequestExchange(request).call();
+
+        assertEquals(new NotModified("\"1.0.7\""), result);
+        assertEquals(0, Release.GET_CALLS.get());
+    }
 }
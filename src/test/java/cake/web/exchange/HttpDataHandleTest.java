@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -15,11 +17,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import cake.web.exception.PayloadTooLargeException;
 import cake.web.exchange.content.BodyContent;
 import cake.web.exchange.content.HeaderContent;
 import cake.web.exchange.content.QueryParamContent;
 
-import javax.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
 
 class HttpDataHandleTest {
 
@@ -73,6 +76,13 @@ class HttpDataHandleTest {
         public void setXRequestId(String xRequestId) { this.xRequestId = xRequestId; }
     }
 
+    public static class TestQueryBody implements BodyContent {
+        private String city;
+
+        public String getCity() { return city; }
+        public void setCity(String city) { this.city = city; }
+    }
+
     // ==================== BUILD FROM BODY TESTS ====================
 
     @Test
@@ -116,6 +126,39 @@ class HttpDataHandleTest {
         );
     }
 
+    @Test
+    void shouldKeepBusinessExceptionRaisedWhileReadingBody() throws Exception {
+        String json = "{\"testBody\": {\"id\": 123, \"name\": \"" + "a".repeat(10_000) + "\"}}";
+        StringReader source = new StringReader(json);
+        Reader tooLarge = new Reader() {
+            private int count;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                if (count > 5_000) {
+                    throw new PayloadTooLargeException("The request body exceeds 5000 bytes.");
+                }
+
+                int read = source.read(buffer, offset, Math.min(length, 1_000));
+                count += Math.max(read, 0);
+
+                return read;
+            }
+
+            @Override
+            public void close() {
+                source.close();
+            }
+        };
+        when(request.getReader()).thenReturn(new BufferedReader(tooLarge));
+
+        HttpDataHandle handle = new HttpDataHandle(request);
+
+        assertThrows(PayloadTooLargeException.class, () ->
+            handle.buildFromBody(TestBody.class)
+        );
+    }
+
     @Test
     void shouldThrowExceptionWhenBodyIsMalformed() throws Exception {
         String json = "{not valid json}";
@@ -130,6 +173,20 @@ class HttpDataHandleTest {
         );
     }
 
+    @Test
+    void shouldBuildFromBodyFieldsInAnyOrder() throws Exception {
+        String json = "{\"testQueryBody\": {\"city\": \"Recife\"}, \"testBody\": {\"id\": 7, \"name\": \"Ana\"}}";
+        when(request.getReader()).thenReturn(new BufferedReader(new StringReader(json)));
+
+        HttpDataHandle handle = new HttpDataHandle(request);
+        TestBody body = (TestBody) handle.buildFromBody(TestBody.class);
+        TestQueryBody queryBody = (TestQueryBody) handle.buildFromBody(TestQueryBody.class);
+
+        assertEquals(7, body.getId());
+        assertEquals("Ana", body.getName());
+        assertEquals("Recife", queryBody.getCity());
+    }
+
     // ==================== BUILD FROM QUERY TESTS ====================
 
     @Test
@@ -294,4 +351,49 @@ class HttpDataHandleTest {
 
         assertEquals("Basic dXNlcjpwYXNz", handle.getAuthToken());
     }
-}
\ No newline at end of file
+
+    // ==================== LAZY EXTRACTION TESTS ====================
+
+    @Test
+    void shouldNotReadRequestUntilNeeded() throws Exception {
+        HttpDataHandle handle = new HttpDataHandle(request);
+
+        verifyNoInteractions(request);
+
+        handle.buildFromQueryParameter(TestQuery.class);
+
+        verify(request, never()).getReader();
+        verify(request, never()).getHeaderNames();
+    }
+
+    @Test
+    void shouldParseBodyOnlyOnce() throws Exception {
+        String json = "{\"testBody\": {\"id\": 123, \"name\": \"John Doe\"}}";
+        when(request.getReader()).thenReturn(new BufferedReader(new StringReader(json)));
+
+        HttpDataHandle handle = new HttpDataHandle(request);
+        handle.buildFromBody(TestBody.class);
+        TestBody result = (TestBody) handle.buildFromBody(TestBody.class);
+
+        assertEquals(123, result.getId());
+        assertTrue(handle.isBodyParsed());
+        verify(request, times(1)).getReader();
+    }
+
+    @Test
+    void shouldCountRequestsThatSkippedBodyParsing() throws Exception {
+        when(request.getReader()).thenReturn(null);
+
+        long before = HttpDataHandle.skippedBodyParsingCount();
+
+        HttpDataHandle skipped = new HttpDataHandle(request);
+        skipped.finish();
+        skipped.finish();
+
+        HttpDataHandle parsed = new HttpDataHandle(request);
+        parsed.buildFromBody(TestBody.class);
+        parsed.finish();
+
+        assertEquals(before + 1, HttpDataHandle.skippedBodyParsingCount());
+    }
+}
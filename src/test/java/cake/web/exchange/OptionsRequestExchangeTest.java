@@ -13,8 +13,8 @@ import com.thebank.loan.service.LoanService;
 
 import java.util.Map;
 
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 class OptionsRequestExchangeTest {
     @Mock
@@ -15,8 +15,8 @@ import java.io.BufferedReader;
 import java.io.StringReader;
 import java.util.Map;
 
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 class PatchRequestExchangeTest {
     @Mock
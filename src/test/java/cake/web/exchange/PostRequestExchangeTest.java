@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -16,12 +17,19 @@ import com.thebank.loan.model.CustomerResponse;
 import com.thebank.loan.service.LoanService;
 
 import cake.web.exception.BadRequestException;
+import cake.web.exception.DefaultExceptionMapper;
+import cake.web.exception.PayloadTooLargeException;
+import cake.web.request.RequestDecompression;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 class PostRequestExchangeTest {
     @Mock
     private HttpServletRequest request;
@@ -152,4 +160,64 @@ class PostRequestExchangeTest {
 
         assertEquals(customerExpected, customerResponse);
     }
+
+    @Test
+    void failCreateAddressWithBodyTooLargeTest() throws Exception {
+        String bodyJson = "{\"addressRequest\": {\"zipcode\":\"123.456\", \"street\":\"" + "A".repeat(100_000) + "\"}}";
+
+        when(request.getRequestURI()).thenReturn("thebank.com/loan/capture/address/");
+        when(request.getContextPath()).thenReturn("thebank.com/");
+        when(request.getHeader("Content-Encoding")).thenReturn("gzip");
+        when(request.getInputStream()).thenReturn(servletInputStream(gzip(bodyJson)));
+        when(request.getParameterMap()).thenReturn(Map.of());
+        when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+
+        PostRequestExchange exchange = new PostRequestExchange(new RequestDecompression(1024).wrap(request));
+
+        PayloadTooLargeException exception = assertThrowsExactly(PayloadTooLargeException.class, exchange::call);
+        new DefaultExceptionMapper().handle(exception, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static ServletInputStream servletInputStream(byte[] bytes) {
+        ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                // blocking stream
+            }
+        };
+    }
 }
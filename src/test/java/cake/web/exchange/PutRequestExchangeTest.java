@@ -9,15 +9,21 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.thebank.loan.fixture.Ledger;
 import com.thebank.loan.model.AddressResponse;
 import com.thebank.loan.service.LoanService;
 
 import java.io.*;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import cake.web.configuration.CakeWebConfig;
+import cake.web.resource.ResourceRegistry;
 
 class PutRequestExchangeTest {
     @Mock
@@ -30,6 +36,34 @@ class PutRequestExchangeTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+
+        Ledger.GET_CALLS.set(0);
+        Ledger.PUT_DONE = new CompletableFuture<>();
+    }
+
+    @Test
+    void asyncUpdateInvalidatesParentMemoWhenItCompletes() throws Exception {
+        CakeWebConfig config = new CakeWebConfig();
+        config.getParentMemo().setEnabled(true);
+        config.getParentMemo().setTtl("com.thebank.loan.fixture.Ledger", 60_000);
+
+        ResourceRegistry registry = ResourceRegistry.build(config);
+
+        when(request.getContextPath()).thenReturn("thebank.com/");
+        when(request.getRequestURI()).thenReturn("thebank.com/com/thebank/loan/fixture/ledger/7");
+
+        CompletionStage<?> update = (CompletionStage<?>) new PutRequestExchange(request, registry).call();
+
+        // A read while the update is still running memoizes the ledger from before the update.
+        when(request.getRequestURI()).thenReturn("thebank.com/com/thebank/loan/fixture/ledger/7/entry/9");
+        new GetRequestExchange(request, registry).call();
+
+        Ledger.PUT_DONE.complete(null);
+        assertEquals("ledger 7 updated", update.toCompletableFuture().get());
+
+        new GetRequestExchange(request, registry).call();
+
+        assertEquals(2, Ledger.GET_CALLS.get());
     }
 
     @Test
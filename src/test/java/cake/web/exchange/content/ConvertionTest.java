@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.*;
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
@@ -239,6 +240,57 @@ class ConvertionTest {
         assertEquals("boolean", Convertion.kindOfParamType("  true  "));
     }
 
+    @Test
+    void kindOfParamTypeShouldReturnLocalDateAndLocalDateTime() {
+        assertEquals("java.time.LocalDate", Convertion.kindOfParamType("2024-05-15"));
+        assertEquals("java.time.LocalDateTime", Convertion.kindOfParamType("2024-05-15T14:30:45"));
+    }
+
+    @Test
+    void shouldConvertWithPreviouslyClassifiedKind() {
+        ParamKind kind = Convertion.classify("2024-05-15");
+
+        assertEquals(ParamKind.LOCAL_DATE, kind);
+        assertEquals(LocalDate.of(2024, 5, 15), Convertion.convert("2024-05-15", kind, LocalDate.class));
+        assertThrows(ClassCastException.class, () -> Convertion.convert("123", ParamKind.INTEGER, Float.class));
+    }
+
+    @Test
+    void classifyShouldTellUUIDFromScientificNotation() {
+        assertEquals(ParamKind.FLOATING_POINT, Convertion.classify("12e45"));
+        assertEquals(ParamKind.UUID, Convertion.classify("12e45678-e29b-41d4-a716-446655440000"));
+    }
+
+    @Test
+    void classifyShouldRejectIncompleteFormats() {
+        assertEquals(ParamKind.STRING, Convertion.classify("-"));
+        assertEquals(ParamKind.STRING, Convertion.classify("1."));
+        assertEquals(ParamKind.STRING, Convertion.classify("1e"));
+        assertEquals(ParamKind.STRING, Convertion.classify("14:30"));
+        assertEquals(ParamKind.STRING, Convertion.classify("2024-05-15T14:30:45+03"));
+        assertEquals(ParamKind.STRING, Convertion.classify("2024-05-15T14:30:45Z[America/Sao_Paulo"));
+        assertEquals(ParamKind.STRING, Convertion.classify("truee"));
+    }
+
+    @Test
+    void shouldConvertDateTimeWithOffsetAndFraction() {
+        assertEquals(OffsetDateTime.of(2024, 5, 15, 14, 30, 45, 120_000_000, ZoneOffset.ofHours(-3)),
+            Convertion.convert("2024-05-15T14:30:45.12-03:00", OffsetDateTime.class));
+        assertEquals(ZonedDateTime.parse("2024-05-15T14:30:45Z"), Convertion.convert("2024-05-15T14:30:45Z", ZonedDateTime.class));
+    }
+
+    @Test
+    void shouldReportInvalidDateLikeStandardParser() {
+        assertThrows(java.time.format.DateTimeParseException.class, () -> Convertion.convert("2024-02-30", LocalDate.class));
+        assertThrows(java.time.format.DateTimeParseException.class, () -> Convertion.convert("14:30:45.1234567891", LocalTime.class));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenByteOverflows() {
+        assertThrows(NumberFormatException.class, () -> Convertion.convert("128", Byte.class));
+        assertEquals((byte) -128, Convertion.convert("-128", Byte.class));
+    }
+
     @Test
     void kindOfParamTypeShouldReturnString() {
         assertEquals("string", Convertion.kindOfParamType("any random string"));
@@ -264,6 +316,45 @@ class ConvertionTest {
         assertEquals(maxLong, Convertion.convert("9223372036854775807", Long.class));
     }
 
+    // ==================== MULTI-VALUE CONVERSIONS ====================
+
+    @Test
+    void classifyShouldTellListFromText() {
+        assertEquals(ParamKind.LIST, Convertion.classify("1,2,3"));
+        assertEquals(ParamKind.LIST, Convertion.classify("2024-05-15,2024-05-16"));
+        assertEquals(ParamKind.STRING, Convertion.classify("john"));
+        assertEquals("a,b", Convertion.convert("a,b", ParamKind.LIST, String.class));
+    }
+
+    @Test
+    void shouldConvertCommaSeparatedValuesToList() {
+        assertEquals(List.of(1, 2, 3), Convertion.convertValues("1,2,3", List.class, Integer.class));
+        assertEquals(List.of(42L), Convertion.convertValues("42", List.class, Long.class));
+    }
+
+    @Test
+    void shouldConvertCommaSeparatedValuesToArray() {
+        UUID first = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+        UUID second = UUID.fromString("12e45678-e29b-41d4-a716-446655440000");
+
+        assertArrayEquals(new UUID[] { first, second },
+            (UUID[]) Convertion.convertValues(first + "," + second, UUID[].class, UUID.class));
+    }
+
+    @Test
+    void shouldRejectElementThatDoesNotConvert() {
+        assertThrows(ClassCastException.class, () -> Convertion.convertValues("1,x,3", List.class, Integer.class));
+        assertThrows(ClassCastException.class, () -> Convertion.convertValues("1,,3", List.class, Integer.class));
+    }
+
+    @Test
+    void shouldRecognizeMultiValueTypes() {
+        assertTrue(Convertion.isMultiValueType(List.class));
+        assertTrue(Convertion.isMultiValueType(Integer[].class));
+        assertFalse(Convertion.isMultiValueType(int[].class));
+        assertFalse(Convertion.isMultiValueType(Integer.class));
+    }
+
     // Helper class for unsupported type test
     private static class UnsupportedType { }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package cake.web.exchange.content;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.thebank.loan.fixture.Ledger;
+
+class ParentTest {
+
+    private static Method getMethod() throws NoSuchMethodException {
+        return Ledger.class.getMethod("get", Integer.class);
+    }
+
+    @Test
+    void shouldLoadOnFirstAccessOnly() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Parent<String> parent = new Parent<>(getMethod(), List.of(123), () -> "customer " + calls.incrementAndGet());
+
+        assertFalse(parent.isLoaded());
+        assertEquals(123, parent.argument(0, Integer.class));
+        assertEquals(0, calls.get());
+
+        assertEquals("customer 1", parent.get());
+        assertEquals("customer 1", parent.get());
+        assertTrue(parent.isLoaded());
+    }
+
+    @Test
+    void shouldResolveParentToItsResult() throws Exception {
+        Parent<String> parent = new Parent<>(getMethod(), List.of(7), () -> "customer");
+
+        assertEquals("customer", Parent.resolve(parent));
+        assertEquals("123", Parent.resolve("123"));
+    }
+
+    @Test
+    void shouldEqualParentOfSameCall() throws Exception {
+        Parent<String> parent = new Parent<>(getMethod(), List.of(7), () -> "ledger 7");
+        Parent<String> loaded = new Parent<>(getMethod(), List.of(7), () -> "ledger 7");
+        loaded.get();
+
+        assertEquals(parent, loaded);
+        assertEquals(parent.hashCode(), loaded.hashCode());
+        assertNotEquals(parent, new Parent<>(getMethod(), List.of(8), () -> "ledger 8"));
+        assertEquals(List.of(parent, 9), List.of(new Parent<>(getMethod(), List.of(7), () -> "ledger 7"), 9));
+    }
+}
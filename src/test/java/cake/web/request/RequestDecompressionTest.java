@@ -0,0 +1,144 @@
+package cake.web.request;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import cake.web.exception.BadRequestException;
+import cake.web.exception.PayloadTooLargeException;
+
+class RequestDecompressionTest {
+    private static final String JSON = "{\"customerRequest\":{\"name\":\"John Doe\"}}";
+
+    @Mock
+    private HttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldInflateGzipBody() throws Exception {
+        when(request.getHeader("Content-Encoding")).thenReturn("gzip");
+        when(request.getInputStream()).thenReturn(servletInputStream(gzip(JSON)));
+
+        HttpServletRequest decompressed = new RequestDecompression(1024).wrap(request);
+
+        assertEquals(JSON, new String(decompressed.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(-1, decompressed.getContentLengthLong());
+    }
+
+    @Test
+    void shouldInflateDeflateBody() throws Exception {
+        when(request.getHeader("Content-Encoding")).thenReturn("deflate");
+        when(request.getInputStream()).thenReturn(servletInputStream(deflate(JSON)));
+
+        HttpServletRequest decompressed = new RequestDecompression(1024).wrap(request);
+
+        assertEquals(JSON, new String(decompressed.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldKeepRequestWithoutContentEncoding() throws Exception {
+        assertSame(request, new RequestDecompression(1024).wrap(request));
+        verify(request, never()).getInputStream();
+    }
+
+    @Test
+    void shouldNotReadBodyUntilNeeded() throws Exception {
+        when(request.getHeader("Content-Encoding")).thenReturn("gzip");
+
+        new RequestDecompression(1024).wrap(request);
+
+        verify(request, never()).getInputStream();
+    }
+
+    @Test
+    void shouldStopBodyInflatingBeyondMaximumSize() throws Exception {
+        byte[] bomb = gzip("0".repeat(1_000_000));
+        when(request.getHeader("Content-Encoding")).thenReturn("gzip");
+        when(request.getInputStream()).thenReturn(servletInputStream(bomb));
+
+        ServletInputStream body = new RequestDecompression(64 * 1024).wrap(request).getInputStream();
+
+        assertTrue(bomb.length < 64 * 1024);
+        assertThrows(PayloadTooLargeException.class, body::readAllBytes);
+    }
+
+    @Test
+    void shouldRejectMalformedGzipBody() throws Exception {
+        when(request.getHeader("Content-Encoding")).thenReturn("gzip");
+        when(request.getInputStream()).thenReturn(servletInputStream(JSON.getBytes(StandardCharsets.UTF_8)));
+
+        HttpServletRequest decompressed = new RequestDecompression(1024).wrap(request);
+
+        assertThrows(BadRequestException.class, decompressed::getInputStream);
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static ServletInputStream servletInputStream(byte[] bytes) {
+        ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                // blocking stream
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package cake.web.resource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import cake.web.exception.PrimitiveNotAllowedException;
+import cake.web.exchange.content.ParamKind;
+
+class BindingPlanTest {
+    public static class ParentResult { }
+
+    public static class CustomerBatch {
+        public void get(List<Integer> customerIds) { /* Only test */ }
+        public void delete(UUID[] customerIds) { /* Only test */ }
+    }
+
+    @Test
+    void shouldBindPathParametersAndParentResult() throws Exception {
+        ParentResult parent = new ParentResult();
+        BindingPlan plan = BindingPlan.compile(new Class<?>[] { ParentResult.class, Integer.class });
+
+        List<Object> args = plan.bind(List.of(parent, "123"), new ParamKind[] { null, ParamKind.INTEGER }, null);
+
+        assertEquals(2, plan.size());
+        assertSame(parent, args.get(0));
+        assertEquals(123, args.get(1));
+    }
+
+    @Test
+    void shouldClassifyWhenKindsAreNotGiven() throws Exception {
+        BindingPlan plan = BindingPlan.compile(new Class<?>[] { Long.class });
+
+        assertEquals(List.of(42L), plan.bind(List.of("42"), null, null));
+    }
+
+    @Test
+    void shouldRejectPathParameterThatDoesNotFitSlot() {
+        BindingPlan plan = BindingPlan.compile(new Class<?>[] { ParentResult.class });
+
+        assertThrows(ClassCastException.class, () -> plan.bind(List.of("text"), null, null));
+    }
+
+    @Test
+    void shouldRejectPrimitiveWhenBinding() {
+        BindingPlan plan = BindingPlan.compile(new Class<?>[] { int.class });
+
+        assertThrows(PrimitiveNotAllowedException.class, () -> plan.bind(List.of("1"), null, null));
+    }
+
+    @Test
+    void shouldBindListParentResultToListSlotAsIs() throws Exception {
+        BindingPlan plan = BindingPlan.compile(CustomerBatch.class.getMethod("get", List.class));
+        List<Integer> customerIds = List.of(1, 2, 3);
+
+        assertSame(customerIds, plan.bind(List.of(customerIds), new ParamKind[1], null).get(0));
+    }
+
+    @Test
+    void shouldRejectListParentResultInArraySlot() throws Exception {
+        BindingPlan plan = BindingPlan.compile(CustomerBatch.class.getMethod("delete", UUID[].class));
+
+        assertThrows(ClassCastException.class, () -> plan.bind(List.of(List.of(UUID.randomUUID())), new ParamKind[1], null));
+    }
+
+    @Test
+    void shouldBindCommaSeparatedValuesToDeclaredElementType() throws Exception {
+        BindingPlan plan = BindingPlan.compile(CustomerBatch.class.getMethod("get", List.class));
+
+        assertEquals(List.of(List.of(1, 2, 3)), plan.bind(List.of("1,2,3"), new ParamKind[] { ParamKind.LIST }, null));
+        assertEquals(List.of(List.of(7)), plan.bind(List.of("7"), new ParamKind[] { ParamKind.INTEGER }, null));
+    }
+
+    @Test
+    void shouldBindCommaSeparatedValuesToArray() throws Exception {
+        BindingPlan plan = BindingPlan.compile(CustomerBatch.class.getMethod("delete", UUID[].class));
+        UUID id = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+
+        UUID[] ids = (UUID[]) plan.bind(List.of(id + "," + id), null, null).get(0);
+
+        assertArrayEquals(new UUID[] { id, id }, ids);
+    }
+}
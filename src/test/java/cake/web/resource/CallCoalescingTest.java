@@ -0,0 +1,180 @@
+package cake.web.resource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import cake.web.configuration.CoalescingConfig;
+import cake.web.exception.NotFoundException;
+import loan.capture.Customer;
+
+class CallCoalescingTest {
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private static CallCoalescing coalescing(long maxWaitMillis) {
+        CoalescingConfig config = new CoalescingConfig();
+        config.setEnabled(true);
+        config.setMaxWait("loan.capture", maxWaitMillis);
+
+        return new CallCoalescing(config);
+    }
+
+    // The first call blocks until released, the next ones answer at once.
+    private MethodResolution resolution(Object result, Object arg) throws Exception {
+        Method method = Customer.class.getMethod("toString");
+
+        return new MethodResolution(method, (_, _) -> {
+            if (calls.incrementAndGet() == 1) {
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            if (result instanceof RuntimeException re) {
+                throw re;
+            }
+            return result;
+        }, List.of(arg));
+    }
+
+    // Start a call on a new thread and wait until it is blocked.
+    private Thread start(CallCoalescing coalescing, MethodResolution resolution, AtomicReference<Object> result) throws Exception {
+        Thread thread = new Thread(() -> {
+            try {
+                result.set(coalescing.call(new Customer(), resolution));
+            } catch (RuntimeException e) {
+                result.set(e);
+            }
+        });
+        thread.start();
+
+        while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+
+        return thread;
+    }
+
+    @Test
+    void shouldShareResultOfIdenticalCallInFlight() throws Exception {
+        CallCoalescing coalescing = coalescing(5_000);
+        Object customer = new Object();
+
+        AtomicReference<Object> leaderResult = new AtomicReference<>();
+        AtomicReference<Object> followerResult = new AtomicReference<>();
+
+        Thread leader = start(coalescing, resolution(customer, 42), leaderResult);
+        started.await(5, TimeUnit.SECONDS);
+        Thread follower = start(coalescing, resolution(customer, 42), followerResult);
+
+        release.countDown();
+        leader.join();
+        follower.join();
+
+        assertEquals(1, calls.get());
+        assertSame(customer, leaderResult.get());
+        assertSame(customer, followerResult.get());
+        assertEquals(1, coalescing.coalesced());
+    }
+
+    @Test
+    void shouldShareExceptionOfIdenticalCallInFlight() throws Exception {
+        CallCoalescing coalescing = coalescing(5_000);
+        NotFoundException notFound = new NotFoundException("Customer not found");
+
+        AtomicReference<Object> leaderResult = new AtomicReference<>();
+        AtomicReference<Object> followerResult = new AtomicReference<>();
+
+        Thread leader = start(coalescing, resolution(notFound, 42), leaderResult);
+        started.await(5, TimeUnit.SECONDS);
+        Thread follower = start(coalescing, resolution(notFound, 42), followerResult);
+
+        release.countDown();
+        leader.join();
+        follower.join();
+
+        assertEquals(1, calls.get());
+        assertSame(notFound, followerResult.get());
+    }
+
+    @Test
+    void shouldRunCallWhenWaitExpires() throws Exception {
+        CallCoalescing coalescing = coalescing(1);
+        AtomicReference<Object> leaderResult = new AtomicReference<>();
+
+        Thread leader = start(coalescing, resolution("customer", 42), leaderResult);
+        started.await(5, TimeUnit.SECONDS);
+
+        assertEquals("customer", coalescing.call(new Customer(), resolution("customer", 42)));
+
+        release.countDown();
+        leader.join();
+
+        assertEquals(2, calls.get());
+        assertEquals(1, coalescing.expiredWaits());
+    }
+
+    @Test
+    void shouldNotCoalesceDifferentArguments() throws Exception {
+        CallCoalescing coalescing = coalescing(5_000);
+        AtomicReference<Object> leaderResult = new AtomicReference<>();
+
+        Thread leader = start(coalescing, resolution("customer", 42), leaderResult);
+        started.await(5, TimeUnit.SECONDS);
+
+        assertEquals("customer", coalescing.call(new Customer(), resolution("customer", 43)));
+
+        release.countDown();
+        leader.join();
+
+        assertEquals(2, calls.get());
+        assertEquals(0, coalescing.coalesced());
+    }
+
+    @Test
+    void shouldNotCoalesceResourcesWithoutMaxWait() throws Exception {
+        CallCoalescing coalescing = coalescing(5_000);
+        MethodResolution resolution = resolution("address", 42);
+
+        // The resource is outside loan.capture: the second call runs while the first is blocked.
+        CompletableFuture<Object> first = CompletableFuture.supplyAsync(() -> coalescing.call(new Object(), resolution));
+        started.await(5, TimeUnit.SECONDS);
+
+        assertEquals("address", coalescing.call(new Object(), resolution));
+        assertEquals("address", CallCoalescing.disabled().call(new Customer(), resolution));
+
+        release.countDown();
+
+        assertEquals("address", first.get(5, TimeUnit.SECONDS));
+        assertEquals(3, calls.get());
+        assertEquals(0, coalescing.coalesced());
+    }
+
+    @Test
+    void shouldNotShareSingleUseResult() throws Exception {
+        CallCoalescing coalescing = coalescing(5_000);
+        AtomicReference<Object> leaderResult = new AtomicReference<>();
+        AtomicReference<Object> followerResult = new AtomicReference<>();
+
+        CompletableFuture<String> stage = CompletableFuture.completedFuture("customer");
+
+        Thread leader = start(coalescing, resolution(stage, 42), leaderResult);
+        started.await(5, TimeUnit.SECONDS);
+        Thread follower = start(coalescing, resolution(stage, 42), followerResult);
+
+        release.countDown();
+        leader.join();
+        follower.join();
+
+        assertEquals(2, calls.get());
+        assertEquals(0, coalescing.coalesced());
+    }
+}
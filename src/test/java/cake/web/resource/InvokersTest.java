@@ -0,0 +1,65 @@
+package cake.web.resource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import cake.web.exception.ParameterNotFoundException;
+import cake.web.exception.ResourceResolutionException;
+import loan.capture.Customer;
+
+class InvokersTest {
+    public static class Sample {
+        public String last;
+
+        public int sum(Integer a, Integer b) {
+            return a + b;
+        }
+
+        public void remember(String value) {
+            last = value;
+        }
+
+        public String join(Object a, Object b, Object c, Object d, Object e) {
+            return "" + a + b + c + d + e;
+        }
+    }
+
+    @Test
+    void shouldInstantiateResourceOnce() {
+        assertSame(Invokers.forConstructor(Customer.class), Invokers.forConstructor(Customer.class));
+        assertInstanceOf(Customer.class, Invokers.forConstructor(Customer.class).get());
+    }
+
+    @Test
+    void shouldRejectResourceWithoutNoArgConstructor() {
+        assertThrows(ResourceResolutionException.class, () -> Invokers.forConstructor(Integer.class));
+    }
+
+    @Test
+    void shouldInvokeMethodsOfEveryShape() throws Throwable {
+        Sample sample = new Sample();
+
+        assertEquals(5, Invokers.forMethod(Sample.class.getMethod("sum", Integer.class, Integer.class))
+            .invoke(sample, List.of(2, 3)));
+
+        assertNull(Invokers.forMethod(Sample.class.getMethod("remember", String.class))
+            .invoke(sample, List.of("cake")));
+        assertEquals("cake", sample.last);
+
+        assertEquals("12345", Invokers.forMethod(Sample.class.getMethod("join", Object.class, Object.class, Object.class, Object.class, Object.class))
+            .invoke(sample, List.of(1, 2, 3, 4, 5)));
+    }
+
+    @Test
+    void shouldThrowResourceExceptionsUnwrapped() throws Exception {
+        MethodInvoker invoker = Invokers.forMethod(Customer.class.getMethod("get", Integer.class));
+        List<Object> args = new ArrayList<>();
+        args.add(null);
+
+        assertThrows(ParameterNotFoundException.class, () -> invoker.invoke(new Customer(), args));
+    }
+}
@@ -8,7 +8,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
-import javax.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +18,7 @@ import org.mockito.MockitoAnnotations;
 import cake.web.exception.AmbiguityException;
 import cake.web.exchange.HttpDataHandle;
 import cake.web.exchange.HttpMethodName;
+import cake.web.exchange.content.ParamKind;
 
 class MethodHandlerTest {
     // ==================== MOCKS ====================
@@ -95,6 +96,19 @@ class MethodHandlerTest {
 
     public static class EmptyResource {}
 
+    public static class CustomerBatchResource {
+        public void get(List<Integer> customerIds) { /* Only test */ }
+    }
+
+    public static class CustomerListResource {
+        public List<Integer> get() { return List.of(1, 2, 3); }
+    }
+
+    public static class TaggedResource {
+        public String get(Integer id) { return "customer " + id; }
+        public Integer etag(Integer id) { return id; }
+    }
+
     // ==================== SUCCESS CASES ====================
 
     @Test
@@ -170,6 +184,76 @@ class MethodHandlerTest {
         assertNotEquals(getMethod.method(), postMethod.method());
     }
 
+    @Test
+    void shouldBuildEqualCacheKeysForValuesOfSameKind() {
+        ParamKind[] kinds = new ParamKind[2];
+
+        MethodHandler.CacheKey first = new MethodHandler.CacheKey(SimpleResource.class, HttpMethodName.PUT, List.of("123", "abc"), kinds);
+        MethodHandler.CacheKey second = new MethodHandler.CacheKey(SimpleResource.class, HttpMethodName.PUT, List.of("456", "xyz"), new ParamKind[2]);
+        MethodHandler.CacheKey other = new MethodHandler.CacheKey(SimpleResource.class, HttpMethodName.PUT, List.of("4.5", "xyz"), new ParamKind[2]);
+
+        assertArrayEquals(new ParamKind[] { ParamKind.INTEGER, ParamKind.STRING }, kinds);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    void shouldTellListFromScalarInCacheKey() {
+        ParamKind[] kinds = new ParamKind[1];
+
+        MethodHandler.CacheKey list = new MethodHandler.CacheKey(SimpleResource.class, HttpMethodName.GET, List.of("1,2,3"), kinds);
+        MethodHandler.CacheKey scalar = new MethodHandler.CacheKey(SimpleResource.class, HttpMethodName.GET, List.of("123"), new ParamKind[1]);
+
+        assertArrayEquals(new ParamKind[] { ParamKind.LIST }, kinds);
+        assertNotEquals(list, scalar);
+    }
+
+    @Test
+    void shouldBindCommaSeparatedPathParameterToList() throws Exception {
+        MethodResolution list = MethodHandler.findHttpMethod(CustomerBatchResource.class, HttpMethodName.GET, List.of("1,2,3"), httpDataHandle);
+        MethodResolution single = MethodHandler.findHttpMethod(CustomerBatchResource.class, HttpMethodName.GET, List.of("4"), httpDataHandle);
+
+        assertEquals(List.of(List.of(1, 2, 3)), list.args());
+        assertEquals(List.of(List.of(4)), single.args());
+        assertEquals(list.method(), single.method());
+    }
+
+    @Test
+    void shouldBindListParentResultToListSlot() throws Exception {
+        List<Integer> customerIds = new CustomerListResource().get();
+        cake.web.exchange.content.Parent<List<Integer>> parent = new cake.web.exchange.content.Parent<>(CustomerListResource.class.getMethod("get"), List.of(), () -> customerIds);
+
+        MethodResolution fromResult = MethodHandler.findHttpMethod(CustomerBatchResource.class, HttpMethodName.GET, List.of(customerIds), httpDataHandle);
+        MethodResolution fromParent = MethodHandler.findHttpMethod(CustomerBatchResource.class, HttpMethodName.GET, List.of(parent), httpDataHandle);
+
+        // The parent result is bound as is, not split as comma-separated values.
+        assertSame(customerIds, fromResult.args().get(0));
+        assertSame(customerIds, fromParent.args().get(0));
+        assertEquals(fromResult.method(), fromParent.method());
+    }
+
+    @Test
+    void shouldKeepCommaOfStringPathParameter() throws Exception {
+        MethodResolution plain = MethodHandler.findHttpMethod(SimpleResource.class, HttpMethodName.POST, List.of("john"), httpDataHandle);
+        MethodResolution withComma = MethodHandler.findHttpMethod(SimpleResource.class, HttpMethodName.POST, List.of("Doe, John"), httpDataHandle);
+
+        // Cached under a LIST key of its own, but bound whole to the String parameter.
+        assertEquals(plain.method(), withComma.method());
+        assertEquals(List.of("Doe, John"), withComma.args());
+    }
+
+    @Test
+    void shouldResolveEtagMethodApartFromGetMethod() throws Exception {
+        MethodResolution get = MethodHandler.findHttpMethod(TaggedResource.class, HttpMethodName.GET, List.of("7"), httpDataHandle);
+        MethodResolution etag = MethodHandler.findEntityTagMethod(TaggedResource.class, List.of("7"), httpDataHandle);
+
+        assertEquals("get", get.method().getName());
+        assertEquals(MethodHandler.ENTITY_TAG_METHOD, etag.method().getName());
+        assertEquals(List.of(7), etag.args());
+        assertEquals("get", MethodHandler.findHttpMethod(TaggedResource.class, HttpMethodName.GET, List.of("8"), httpDataHandle).method().getName());
+    }
+
     // ==================== AMBIGUITY CASES ====================
 
     @Test
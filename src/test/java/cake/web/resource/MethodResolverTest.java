@@ -18,7 +18,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-import javax.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,6 +31,7 @@ import cake.web.exchange.HttpDataHandle;
 import cake.web.exchange.HttpMethodName;
 import cake.web.exchange.content.BodyContent;
 import cake.web.exchange.content.HeaderContent;
+import cake.web.exchange.content.Parent;
 import cake.web.exchange.content.QueryParamContent;
 
 class MethodResolverTest {
@@ -110,6 +111,21 @@ class MethodResolverTest {
         public void get(Long id) { /* For testing */ }
     }
 
+    // Parent resource and the child resource that takes its result
+    public static class Owner {
+        public Owner get(Integer id) { return new Owner(); }
+    }
+
+    public static class Pet {
+        public void get(Owner owner, Integer petId) { /* For testing */ }
+    }
+
+    // Resource overloaded for a single value and for comma-separated values
+    public static class Item {
+        public void get(Integer id) { /* For testing */ }
+        public void get(List<Integer> ids) { /* For testing */ }
+    }
+
     public static class NotOnlyPathBody implements BodyContent {
         public Integer id;
         public String name;
@@ -338,6 +354,25 @@ class MethodResolverTest {
         assertTrue(exception.getMessage().contains("Endpoint overload is not allowed"));
     }
 
+    @Test
+    void shouldResolveOverloadByKindOfPathParameter() throws NoSuchMethodException, AmbiguityException {
+        Method single = MethodResolver.methodResolution(Item.class, HttpMethodName.GET, List.of("1"));
+        Method list = MethodResolver.methodResolution(Item.class, HttpMethodName.GET, List.of("1,2"));
+
+        assertEquals(Integer.class, single.getParameterTypes()[0]);
+        assertEquals(List.class, list.getParameterTypes()[0]);
+    }
+
+    @Test
+    void shouldMatchParentResultByDeclaredTypeWithoutLoadingIt() throws NoSuchMethodException, AmbiguityException {
+        Parent<Owner> owner = new Parent<>(Owner.class.getMethod("get", Integer.class), List.of(7), () -> fail("Parent loaded to match a method"));
+
+        Method method = MethodResolver.methodResolution(Pet.class, HttpMethodName.GET, List.of(owner, "3"));
+
+        assertEquals(Owner.class, method.getParameterTypes()[0]);
+        assertFalse(owner.isLoaded());
+    }
+
     // ==================== NOT FOUND CASES ====================
 
     @Test
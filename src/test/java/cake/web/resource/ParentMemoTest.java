@@ -0,0 +1,95 @@
+package cake.web.resource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import cake.web.configuration.ParentMemoConfig;
+import loan.capture.Customer;
+
+class ParentMemoTest {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private static ParentMemo memo(long ttlMillis) {
+        ParentMemoConfig config = new ParentMemoConfig();
+        config.setEnabled(true);
+        config.setTtl("loan.capture.Customer", ttlMillis);
+
+        return new ParentMemo(config);
+    }
+
+    private MethodResolution resolution(Object arg) throws Exception {
+        Method method = Customer.class.getMethod("get", Integer.class);
+
+        return new MethodResolution(method, (_, args) -> "customer " + args.get(0) + " #" + calls.incrementAndGet(), List.of(arg));
+    }
+
+    @Test
+    void shouldReuseResultForSameArguments() throws Exception {
+        ParentMemo memo = memo(60_000);
+
+        assertEquals("customer 123 #1", memo.call(new Customer(), resolution(123), "/customer/123"));
+        assertEquals("customer 123 #1", memo.call(new Customer(), resolution(123), "/customer/123"));
+        assertEquals("customer 124 #2", memo.call(new Customer(), resolution(124), "/customer/124"));
+
+        assertEquals(1, memo.stats().hits());
+    }
+
+    @Test
+    void shouldCallAgainWhenExpired() throws Exception {
+        ParentMemo memo = memo(1);
+
+        memo.call(new Customer(), resolution(123), "/customer/123");
+        Thread.sleep(5);
+
+        assertEquals("customer 123 #2", memo.call(new Customer(), resolution(123), "/customer/123"));
+    }
+
+    @Test
+    void shouldInvalidateWritesToParentPathOrAbove() throws Exception {
+        ParentMemo memo = memo(60_000);
+
+        memo.call(new Customer(), resolution(123), "/customer/123");
+        memo.call(new Customer(), resolution(124), "/customer/124");
+
+        assertEquals(0, memo.invalidate("/customer/123/proposal/9"));
+        assertEquals(1, memo.invalidate("/customer/123"));
+        assertEquals("customer 123 #3", memo.call(new Customer(), resolution(123), "/customer/123"));
+
+        assertEquals(2, memo.invalidate("/customer"));
+    }
+
+    @Test
+    void shouldNotMemoizeResultReadBeforeInvalidation() throws Exception {
+        ParentMemo memo = memo(60_000);
+        Method method = Customer.class.getMethod("get", Integer.class);
+
+        // A write to the customer lands while its get method is running.
+        MethodResolution racing = new MethodResolution(method, (_, args) -> {
+            memo.invalidate("/customer/123");
+            return "customer " + args.get(0) + " #" + calls.incrementAndGet();
+        }, List.of(123));
+
+        assertEquals("customer 123 #1", memo.call(new Customer(), racing, "/customer/123"));
+        assertEquals("customer 123 #2", memo.call(new Customer(), resolution(123), "/customer/123"));
+    }
+
+    @Test
+    void shouldNotMemoizeParentsWithoutTimeToLive() throws Exception {
+        ParentMemo memo = memo(60_000);
+
+        // Only loan.capture.Customer has a time to live.
+        assertEquals("customer 123 #1", memo.call(new Object(), resolution(123), "/customer/123"));
+        assertEquals("customer 123 #2", memo.call(new Object(), resolution(123), "/customer/123"));
+
+        ParentMemo.disabled().call(new Customer(), resolution(123), "/customer/123");
+        ParentMemo.disabled().call(new Customer(), resolution(123), "/customer/123");
+
+        assertEquals(0, ParentMemo.disabled().invalidate("/customer"));
+        assertEquals(4, calls.get());
+    }
+}
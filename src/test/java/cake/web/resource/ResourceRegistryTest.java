@@ -0,0 +1,69 @@
+package cake.web.resource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import cake.web.configuration.CakeWebConfig;
+import cake.web.configuration.ResourceScope;
+import loan.capture.Address;
+import loan.capture.Customer;
+import loan.capture.Proposal;
+
+class ResourceRegistryTest {
+    @Test
+    void shouldCreateNewInstancesByDefault() {
+        ResourceRegistry registry = ResourceRegistry.build(new CakeWebConfig());
+
+        assertNotSame(registry.instantiate(Customer.class), registry.instantiate(Customer.class));
+    }
+
+    @Test
+    void shouldPreferClassScopeOverPackageScope() {
+        CakeWebConfig config = new CakeWebConfig();
+        config.setResourceScope("loan", ResourceScope.SINGLETON);
+        config.setResourceScope("loan.capture.Proposal", ResourceScope.PER_REQUEST);
+
+        ResourceRegistry registry = ResourceRegistry.build(config);
+
+        assertSame(registry.instantiate(Customer.class), registry.instantiate(Customer.class));
+        assertNotSame(registry.instantiate(Proposal.class), registry.instantiate(Proposal.class));
+    }
+
+    @Test
+    void shouldApplyEmptyNameToAllResources() {
+        CakeWebConfig config = new CakeWebConfig();
+        config.setResourceScope("", ResourceScope.SINGLETON);
+
+        ResourceRegistry registry = ResourceRegistry.build(config);
+
+        assertSame(registry.instantiate(Address.class), registry.instantiate(Address.class));
+    }
+
+    @Test
+    void shouldShareInstancesWithinThread() throws Exception {
+        CakeWebConfig config = new CakeWebConfig();
+        config.setResourceScope("loan.capture.Address", ResourceScope.PER_THREAD);
+
+        ResourceRegistry registry = ResourceRegistry.build(config);
+        Object instance = registry.instantiate(Address.class);
+        Object otherThreadInstance = CompletableFuture.supplyAsync(() -> registry.instantiate(Address.class)).get();
+
+        assertSame(instance, registry.instantiate(Address.class));
+        assertNotSame(instance, otherThreadInstance);
+    }
+
+    @Test
+    void shouldCreateSingletonsOfScannedResourcesOnly() {
+        CakeWebConfig config = new CakeWebConfig();
+        config.setResourcePackages("loan.capture", "com.thebank.loan");
+        config.setResourceScope("", ResourceScope.SINGLETON);
+
+        // The models, services and repositories of com.thebank.loan are not resources: some have no public no-arg constructor.
+        ResourceRegistry registry = assertDoesNotThrow(() -> ResourceRegistry.build(config));
+
+        assertSame(registry.instantiate(Customer.class), registry.instantiate(Customer.class));
+    }
+}
@@ -0,0 +1,52 @@
+package cake.web.resource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import loan.capture.Customer;
+import loan.capture.Proposal;
+
+class RouteTrieTest {
+    static RouteTrie routeTrie;
+
+    @BeforeAll
+    static void beforeAll() {
+        routeTrie = RouteTrie.scan(List.of("loan.capture"), RouteTrieTest.class.getClassLoader());
+    }
+
+    @Test
+    void shouldWalkPackageSegmentsToResource() {
+        RouteTrie.Node capture = routeTrie.root().child("loan").child("capture");
+
+        assertNotNull(capture);
+        assertEquals(Customer.class, capture.resource("customer"));
+        assertEquals(Customer.class, capture.resource("Customer"));
+        assertEquals(Proposal.class, capture.resource("proposal"));
+    }
+
+    @Test
+    void shouldNotFindUnknownTokens() {
+        RouteTrie.Node capture = routeTrie.root().child("loan").child("capture");
+
+        assertNull(routeTrie.root().child("com"));
+        assertNull(capture.resource("123"));
+        assertNull(capture.child("customer"));
+    }
+
+    @Test
+    void shouldOnlyCompileScannedPackages() {
+        assertEquals(3, routeTrie.size());
+        assertNull(routeTrie.root().resource("about"));
+    }
+
+    @Test
+    void shouldScanDefaultPackage() {
+        RouteTrie defaultPackage = RouteTrie.scan(List.of(""), RouteTrieTest.class.getClassLoader());
+
+        assertNotNull(defaultPackage.root().resource("about"));
+    }
+}
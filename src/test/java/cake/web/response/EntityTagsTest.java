@@ -0,0 +1,45 @@
+package cake.web.response;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class EntityTagsTest {
+    private static final byte[] BODY = "{\"id\":1,\"name\":\"John Doe\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void shouldTagSameBytesAlike() {
+        byte[] copy = BODY.clone();
+
+        assertEquals(EntityTags.of(BODY, 0, BODY.length), EntityTags.of(copy, 0, copy.length));
+        assertTrue(EntityTags.of(BODY, 0, BODY.length).matches("\"[0-9a-f]+-[0-9a-f]+\""));
+    }
+
+    @Test
+    void shouldTagChangedBytesDifferently() {
+        byte[] changed = BODY.clone();
+        changed[changed.length - 3] = 'f';
+
+        assertNotEquals(EntityTags.of(BODY, 0, BODY.length), EntityTags.of(changed, 0, changed.length));
+        assertNotEquals(EntityTags.of(BODY, 0, BODY.length), EntityTags.of(BODY, 1, BODY.length - 1));
+    }
+
+    @Test
+    void shouldQuoteSuppliedVersion() {
+        assertEquals("\"42\"", EntityTags.of(42L));
+        assertEquals("\"v7\"", EntityTags.of("\"v7\""));
+        assertEquals("W/\"v7\"", EntityTags.of("W/\"v7\""));
+    }
+
+    @Test
+    void shouldMatchIfNoneMatch() {
+        assertTrue(EntityTags.matches("\"a\"", "\"a\""));
+        assertTrue(EntityTags.matches("\"b\", W/\"a\"", "\"a\""));
+        assertTrue(EntityTags.matches("*", "\"a\""));
+        assertTrue(EntityTags.matches(EntityTags.withCoding("\"a\"", ResponseCompression.GZIP), "\"a\""));
+        assertFalse(EntityTags.matches("\"b\"", "\"a\""));
+        assertFalse(EntityTags.matches(null, "\"a\""));
+    }
+}
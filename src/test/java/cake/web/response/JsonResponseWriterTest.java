@@ -0,0 +1,207 @@
+package cake.web.response;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class JsonResponseWriterTest {
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final JsonResponseWriter responseWriter = new JsonResponseWriter();
+
+    public static class CustomerResponse {
+        private Integer id;
+        private String name;
+
+        public CustomerResponse(Integer id, String name) { this.id = id; this.name = name; }
+        public Integer getId() { return id; }
+        public String getName() { return name; }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                // blocking stream
+            }
+        });
+    }
+
+    @Test
+    void shouldWriteObjectAsJson() throws Exception {
+        responseWriter.write(new CustomerResponse(1, "John Doe"), response);
+
+        String json = body.toString(StandardCharsets.UTF_8);
+
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(response).setContentType(JsonResponseWriter.JSON_CONTENT_TYPE);
+        verify(response).setContentLength(json.getBytes(StandardCharsets.UTF_8).length);
+        assertTrue(json.contains("\"id\":1"));
+        assertTrue(json.contains("\"name\":\"John Doe\""));
+    }
+
+    @Test
+    void shouldWriteStringAsUtf8Text() throws Exception {
+        responseWriter.write("São Paulo", response);
+
+        verify(response).setContentType(JsonResponseWriter.TEXT_CONTENT_TYPE);
+        verify(response).setContentLength(10);
+        assertEquals("São Paulo", body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldWriteRemainingBytesOfBuffer() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 });
+        buffer.position(1);
+
+        responseWriter.write(buffer, response);
+
+        verify(response).setContentType(JsonResponseWriter.BINARY_CONTENT_TYPE);
+        verify(response).setContentLength(3);
+        assertArrayEquals(new byte[] { 2, 3, 4 }, body.toByteArray());
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    void shouldAnswerNoContentForNull() throws Exception {
+        responseWriter.write(null, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_NO_CONTENT);
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    void shouldReuseObjectWriterOfType() {
+        assertSame(responseWriter.writerFor(CustomerResponse.class), responseWriter.writerFor(CustomerResponse.class));
+    }
+
+    @Test
+    void shouldStreamElementsAsJsonArray() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<CustomerResponse> customers = Stream.of(new CustomerResponse(1, "Ana"), new CustomerResponse(2, "Bia"))
+            .onClose(() -> closed.set(true));
+
+        responseWriter.write(customers, request, response);
+
+        verify(response).setContentType(JsonResponseWriter.JSON_CONTENT_TYPE);
+        verify(response, never()).setContentLength(anyInt());
+        assertEquals("[{\"id\":1,\"name\":\"Ana\"},{\"id\":2,\"name\":\"Bia\"}]", body.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void shouldStreamElementsAsNdjsonWhenAccepted() throws Exception {
+        when(request.getHeader("Accept")).thenReturn(JsonResponseWriter.NDJSON_CONTENT_TYPE);
+
+        responseWriter.write(Arrays.asList(new CustomerResponse(1, "Ana"), null).iterator(), request, response);
+
+        verify(response).setContentType(JsonResponseWriter.NDJSON_CONTENT_TYPE);
+        assertEquals("{\"id\":1,\"name\":\"Ana\"}\nnull\n", body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldCloseStreamWhenClientDisconnects() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<CustomerResponse> customers = Stream.generate(() -> new CustomerResponse(1, "Ana"))
+            .onClose(() -> closed.set(true));
+
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Connection reset by peer");
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                // blocking stream
+            }
+        });
+
+        responseWriter.write(customers, request, response);
+
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void shouldTagGetResponse() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+
+        responseWriter.write(new CustomerResponse(1, "John Doe"), request, response);
+
+        byte[] json = body.toByteArray();
+        verify(response).setHeader(EntityTags.ETAG, EntityTags.of(json, 0, json.length));
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenEntityTagMatches() throws Exception {
+        byte[] json = "{\"id\":1,\"name\":\"John Doe\"}".getBytes(StandardCharsets.UTF_8);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader(EntityTags.IF_NONE_MATCH)).thenReturn(EntityTags.of(json, 0, json.length));
+
+        responseWriter.write(new CustomerResponse(1, "John Doe"), request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    void shouldKeepEntityTagSuppliedByResource() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(response.containsHeader(EntityTags.ETAG)).thenReturn(true);
+
+        responseWriter.write("São Paulo", request, response);
+
+        verify(response, never()).setHeader(eq(EntityTags.ETAG), anyString());
+        assertEquals("São Paulo", body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldWriteNotModifiedResult() throws Exception {
+        responseWriter.write(new NotModified("\"7\""), request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response).setHeader(EntityTags.ETAG, "\"7\"");
+        verify(response, never()).getOutputStream();
+    }
+}
@@ -0,0 +1,168 @@
+package cake.web.response;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import cake.web.configuration.CompressionConfig;
+
+class ResponseCompressionTest {
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final JsonResponseWriter responseWriter = new JsonResponseWriter();
+    private final CompressionConfig config = new CompressionConfig();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        config.setEnabled(true);
+        config.setMinSize(64);
+
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                // blocking stream
+            }
+        });
+    }
+
+    @Test
+    void shouldPreferGzipOverDeflate() {
+        assertEquals(ResponseCompression.GZIP, ResponseCompression.negotiate("deflate, gzip"));
+        assertEquals(ResponseCompression.DEFLATE, ResponseCompression.negotiate("gzip;q=0, deflate"));
+        assertEquals(ResponseCompression.GZIP, ResponseCompression.negotiate("*"));
+        assertNull(ResponseCompression.negotiate("br, identity"));
+        assertNull(ResponseCompression.negotiate(null));
+    }
+
+    @Test
+    void shouldCompressLargeBodyWithGzip() throws Exception {
+        String text = "cake ".repeat(100);
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip, deflate");
+
+        HttpServletResponse compressed = new ResponseCompression(config).wrap(ResponseCompressionTest.class, request, response);
+        responseWriter.write(text, request, compressed);
+        ResponseCompression.finish(compressed);
+
+        verify(response).setHeader("Content-Encoding", ResponseCompression.GZIP);
+        verify(response).addHeader("Vary", "Accept-Encoding");
+        verify(response, never()).setContentLengthLong(anyLong());
+        assertTrue(body.size() < text.length());
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            assertEquals(text, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void shouldSendSmallBodyAsIs() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+
+        HttpServletResponse compressed = new ResponseCompression(config).wrap(ResponseCompressionTest.class, request, response);
+        responseWriter.write("small", request, compressed);
+        ResponseCompression.finish(compressed);
+
+        verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
+        verify(response).setContentLengthLong(5);
+        assertEquals("small", body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldCompressStreamedElementsWithDeflate() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("deflate");
+
+        HttpServletResponse compressed = new ResponseCompression(config).wrap(ResponseCompressionTest.class, request, response);
+        responseWriter.write(IntStream.range(0, 3).boxed(), request, compressed);
+        ResponseCompression.finish(compressed);
+
+        verify(response).setHeader("Content-Encoding", ResponseCompression.DEFLATE);
+
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            assertEquals("[0,1,2]", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void shouldResetResponseWhenBodyIsNotFinished() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+        when(response.getHeader(EntityTags.ETAG)).thenReturn("\"1f\"");
+
+        HttpServletResponse compressed = new ResponseCompression(config).wrap(ResponseCompressionTest.class, request, response);
+        compressed.getOutputStream().write("cake ".repeat(100).getBytes(StandardCharsets.UTF_8));
+
+        // The writer failed: the error response must not be sent as gzip.
+        ResponseCompression.release(compressed);
+
+        verify(response).setHeader("Content-Encoding", ResponseCompression.GZIP);
+        verify(response).setHeader(EntityTags.ETAG, "\"1f-gzip\"");
+        verify(response).reset();
+    }
+
+    @Test
+    void shouldNotResetResponseOnceFinished() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+
+        HttpServletResponse compressed = new ResponseCompression(config).wrap(ResponseCompressionTest.class, request, response);
+        responseWriter.write("cake ".repeat(100), request, compressed);
+        ResponseCompression.finish(compressed);
+        ResponseCompression.release(compressed);
+
+        verify(response, never()).reset();
+    }
+
+    @Test
+    void shouldNotCompressExcludedPackage() {
+        config.exclude("cake.web.response");
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+
+        ResponseCompression responseCompression = new ResponseCompression(config);
+
+        assertSame(response, responseCompression.wrap(ResponseCompressionTest.class, request, response));
+
+        HttpServletResponse compressed = responseCompression.wrap(String.class, request, response);
+
+        assertNotSame(response, compressed);
+        ResponseCompression.release(compressed);
+    }
+
+    @Test
+    void shouldNotCompressWhenDisabled() {
+        config.setEnabled(false);
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+
+        assertSame(response, new ResponseCompression(config).wrap(ResponseCompressionTest.class, request, response));
+        verify(response, never()).addHeader(anyString(), anyString());
+    }
+}
@@ -0,0 +1,10 @@
+package com.thebank.loan.fixture;
+
+/**
+ * Child of {@link Release}, receives the result of its get method.
+ */
+public class Changelog {
+    public String get(String release) {
+        return "Changes of " + release;
+    }
+}
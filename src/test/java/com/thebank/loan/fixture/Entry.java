@@ -0,0 +1,17 @@
+package com.thebank.loan.fixture;
+
+import cake.web.exchange.content.Parent;
+
+/**
+ * Child of {@link Ledger}: its get method takes the loaded ledger, its delete method only the
+ * key of the ledger.
+ */
+public class Entry {
+    public String get(String ledger, Integer entryId) {
+        return "entry " + entryId + " of " + ledger;
+    }
+
+    public String delete(Parent<String> ledger, Integer entryId) {
+        return "entry " + entryId + " deleted from ledger " + ledger.argument(0, Integer.class);
+    }
+}
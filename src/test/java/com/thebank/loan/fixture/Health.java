@@ -0,0 +1,12 @@
+package com.thebank.loan.fixture;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Answers asynchronously, through a {@link CompletableFuture}.
+ */
+public class Health {
+    public CompletableFuture<String> get() {
+        return CompletableFuture.supplyAsync(() -> "UP");
+    }
+}
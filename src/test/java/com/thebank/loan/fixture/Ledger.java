@@ -0,0 +1,29 @@
+package com.thebank.loan.fixture;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parent resource counting the calls of its get method. Its put method answers once
+ * {@link #PUT_DONE} completes, its delete method once {@link #DELETE_DONE} completes.
+ */
+public class Ledger {
+    public static final AtomicInteger GET_CALLS = new AtomicInteger();
+    public static volatile CompletableFuture<Void> PUT_DONE = new CompletableFuture<>();
+    public static volatile CompletableFuture<Void> DELETE_DONE = new CompletableFuture<>();
+
+    public String get(Integer ledgerId) {
+        GET_CALLS.incrementAndGet();
+        return "ledger " + ledgerId;
+    }
+
+    public CompletionStage<String> put(Integer ledgerId) {
+        // A stage that cannot be cancelled, so it may complete after the request timed out.
+        return PUT_DONE.thenApply(_ -> "ledger " + ledgerId + " updated").minimalCompletionStage();
+    }
+
+    public CompletableFuture<Void> delete(Integer ledgerId) {
+        return DELETE_DONE;
+    }
+}
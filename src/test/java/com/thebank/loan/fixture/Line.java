@@ -0,0 +1,10 @@
+package com.thebank.loan.fixture;
+
+/**
+ * Child of {@link Page}, receives the result of its get method.
+ */
+public class Line {
+    public String get(String page) {
+        return "lines of " + page;
+    }
+}
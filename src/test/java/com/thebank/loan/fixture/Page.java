@@ -0,0 +1,19 @@
+package com.thebank.loan.fixture;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cake.web.exchange.content.Parent;
+
+/**
+ * Child of {@link Ledger} taking only the key of the ledger, and counting the calls of its get
+ * method.
+ */
+public class Page {
+    public static final AtomicInteger GET_CALLS = new AtomicInteger();
+
+    public String get(Parent<String> ledger, Integer pageId) {
+        GET_CALLS.incrementAndGet();
+
+        return "page " + pageId + " of ledger " + ledger.argument(0, Integer.class);
+    }
+}
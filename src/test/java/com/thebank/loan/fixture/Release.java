@@ -0,0 +1,20 @@
+package com.thebank.loan.fixture;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Supplies the version as its entity tag, and counts the calls of its get method.
+ */
+public class Release {
+    public static final String VERSION = "1.0.7";
+    public static final AtomicInteger GET_CALLS = new AtomicInteger();
+
+    public String etag() {
+        return VERSION;
+    }
+
+    public String get() {
+        GET_CALLS.incrementAndGet();
+        return "The Bank Loan System " + VERSION;
+    }
+}
@@ -0,0 +1,26 @@
+package com.thebank.loan.fixture;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers only when {@link #PARTIES} requests are being processed at the same time.
+ */
+public class Rendezvous {
+    public static final int PARTIES = 8;
+
+    private static volatile CyclicBarrier barrier = new CyclicBarrier(PARTIES);
+
+    /**
+     * Start a new rendezvous, so the requests of a test never meet those of another.
+     */
+    public static void reset() {
+        barrier = new CyclicBarrier(PARTIES);
+    }
+
+    public String get() throws Exception {
+        barrier.await(5, TimeUnit.SECONDS);
+
+        return "met";
+    }
+}
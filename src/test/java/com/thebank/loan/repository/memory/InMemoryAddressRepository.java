@@ -15,17 +15,17 @@ public class InMemoryAddressRepository implements Repository<AddressEntity, Inte
     private final Map<Integer, AddressEntity> store = new ConcurrentHashMap<>();
     private final AtomicInteger idGenerator = new AtomicInteger(1);
 
-    private static InMemoryAddressRepository instance;
-
     private InMemoryAddressRepository() {
         // Private constructor to prevent instantiation
     }
 
-    public static synchronized InMemoryAddressRepository instance() {
-        if (instance == null) {
-            instance = new InMemoryAddressRepository();
-        }
-        return instance;
+    // Created on first use by the class loader, without locking (initialization-on-demand holder).
+    private static final class Holder {
+        private static final InMemoryAddressRepository INSTANCE = new InMemoryAddressRepository();
+    }
+
+    public static InMemoryAddressRepository instance() {
+        return Holder.INSTANCE;
     }
 
     @Override
@@ -15,17 +15,17 @@ public class InMemoryCustomerRepository implements Repository<CustomerEntity, In
     private final Map<Integer, CustomerEntity> store = new ConcurrentHashMap<>();
     private final AtomicInteger idGenerator = new AtomicInteger(1);
 
-    private static InMemoryCustomerRepository instance;
-
     private InMemoryCustomerRepository() {
         // Private constructor to prevent instantiation
     }
 
-    public static synchronized InMemoryCustomerRepository instance() {
-        if (instance == null) {
-            instance = new InMemoryCustomerRepository();
-        }
-        return instance;
+    // Created on first use by the class loader, without locking (initialization-on-demand holder).
+    private static final class Holder {
+        private static final InMemoryCustomerRepository INSTANCE = new InMemoryCustomerRepository();
+    }
+
+    public static InMemoryCustomerRepository instance() {
+        return Holder.INSTANCE;
     }
 
     @Override
@@ -18,17 +18,17 @@ public class InMemoryInstallmentRepository implements Repository<InstallmentEnti
     private final Map<Integer, InstallmentEntity> store = new ConcurrentHashMap<>();
     private final AtomicInteger idGenerator = new AtomicInteger(1);
 
-    private static InMemoryInstallmentRepository instance;
-
     private InMemoryInstallmentRepository() {
         // Private constructor to prevent instantiation
     }
 
-    public static synchronized InMemoryInstallmentRepository instance() {
-        if (instance == null) {
-            instance = new InMemoryInstallmentRepository();
-        }
-        return instance;
+    // Created on first use by the class loader, without locking (initialization-on-demand holder).
+    private static final class Holder {
+        private static final InMemoryInstallmentRepository INSTANCE = new InMemoryInstallmentRepository();
+    }
+
+    public static InMemoryInstallmentRepository instance() {
+        return Holder.INSTANCE;
     }
 
     @Override
@@ -16,17 +16,17 @@ public class InMemoryProposalRepository implements Repository<ProposalEntity, In
     private final Map<Integer, ProposalEntity> store = new ConcurrentHashMap<>();
     private final AtomicInteger idGenerator = new AtomicInteger(1);
 
-    private static InMemoryProposalRepository instance;
-
     private InMemoryProposalRepository() {
         // Private constructor to prevent instantiation
     }
 
-    public static synchronized InMemoryProposalRepository instance() {
-        if (instance == null) {
-            instance = new InMemoryProposalRepository();
-        }
-        return instance;
+    // Created on first use by the class loader, without locking (initialization-on-demand holder).
+    private static final class Holder {
+        private static final InMemoryProposalRepository INSTANCE = new InMemoryProposalRepository();
+    }
+
+    public static InMemoryProposalRepository instance() {
+        return Holder.INSTANCE;
     }
 
     @Override